@@ -0,0 +1,17 @@
+package net.quickwrite.localizer.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the {@code CharacterFallbackTables} with the
+ * <a href="https://www.unicode.org/cldr/cldr-aux/charts/22/supplemental/character_fallback_substitutions.html">
+ * character fallback substitutions</a> of CLDR.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface CharacterFallbackGen {
+    String packageName();
+}
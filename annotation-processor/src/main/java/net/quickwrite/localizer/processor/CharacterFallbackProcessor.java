@@ -0,0 +1,162 @@
+package net.quickwrite.localizer.processor;
+
+import com.google.auto.service.AutoService;
+import net.quickwrite.localizer.processor.fallback.FallbackTable;
+import net.quickwrite.localizer.processor.generator.JClassFileGenerator;
+import net.quickwrite.localizer.processor.generator.Literals;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates the tables of the CLDR character fallback substitutions
+ * for the classes that are annotated with {@link CharacterFallbackGen}.
+ */
+@SupportedAnnotationTypes("net.quickwrite.localizer.processor.CharacterFallbackGen")
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+@AutoService(Processor.class)
+public class CharacterFallbackProcessor extends AbstractProcessor {
+    private static final String TABLES_NAME = "CharacterFallbackTables";
+
+    private SortedMap<Integer, List<String>> fallbacks;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        try (final InputStream input = Objects.requireNonNull(getClass().getResourceAsStream("/characters.xml"))) {
+            this.fallbacks = parseFallbacks(input);
+        } catch (final ParserConfigurationException | IOException | SAXException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "An exception occurred while trying to parse the input file for @CharacterFallbackGen -> \n" +
+                            Arrays.toString(e.getStackTrace())
+            );
+        }
+    }
+
+    /**
+     * Reads the substitutes of every character, which is a single code point.
+     */
+    private static SortedMap<Integer, List<String>> parseFallbacks(final InputStream input)
+            throws ParserConfigurationException, IOException, SAXException {
+        final NodeList characters = DocumentBuilderFactory.newDefaultInstance().newDocumentBuilder().parse(input)
+                .getElementsByTagName("character");
+
+        final SortedMap<Integer, List<String>> fallbacks = new TreeMap<>();
+
+        for (int i = 0; i < characters.getLength(); i++) {
+            final Element character = (Element) characters.item(i);
+            final String value = character.getAttribute("value");
+
+            if (value.codePointCount(0, value.length()) != 1) {
+                throw new IllegalArgumentException("The character fallback '" + value + "' is not a single code point");
+            }
+
+            final List<String> substitutes = new ArrayList<>();
+            final NodeList substituteNodes = character.getElementsByTagName("substitute");
+            for (int j = 0; j < substituteNodes.getLength(); j++) {
+                substitutes.add(substituteNodes.item(j).getTextContent());
+            }
+
+            fallbacks.put(value.codePointAt(0), substitutes);
+        }
+
+        return fallbacks;
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (this.fallbacks == null) {
+            return true;
+        }
+
+        for (final javax.lang.model.element.Element element : roundEnv.getElementsAnnotatedWith(CharacterFallbackGen.class)) {
+            final CharacterFallbackGen fallbackGen = element.getAnnotation(CharacterFallbackGen.class);
+
+            final JClassFileGenerator tables = new JClassFileGenerator(fallbackGen.packageName(), TABLES_NAME);
+
+            try {
+                writeTables(tables, FallbackTable.create(this.fallbacks));
+            } catch (final IllegalArgumentException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@CharacterFallbackGen: " + e.getMessage(), element);
+                continue;
+            }
+
+            try {
+                final JavaFileObject sourceFile = processingEnv.getFiler()
+                        .createSourceFile(tables.getPackageName() + "." + tables.getClassName(), element);
+
+                try (final Writer writer = new BufferedWriter(sourceFile.openWriter())) {
+                    tables.write(writer);
+                }
+            } catch (final IOException exception) {
+                exception.printStackTrace();
+            }
+
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format(
+                    "@CharacterFallbackGen: wrote %s with the substitutes of %d characters for %s",
+                    TABLES_NAME,
+                    this.fallbacks.size(),
+                    element.getSimpleName()
+            ));
+        }
+
+        return true;
+    }
+
+    private static void writeTables(final JClassFileGenerator tables, final FallbackTable table) {
+        tables.addAttribute("static final int BLOCK_SHIFT = " + FallbackTable.BLOCK_SHIFT + ";")
+                .addAttribute("""
+                        /**
+                         * The block of the entries of every high byte of a BMP character.
+                         */""")
+                .addAttribute("static final char[] BLOCKS = " + Literals.toLiteral(new String(table.getBlocks())) + ".toCharArray();")
+                .addAttribute("""
+                        /**
+                         * The entry number of every BMP character by its block and its low byte, which is 0 without substitutes.
+                         */""")
+                .addAttribute("static final char[] ENTRIES = " + Literals.toLiteral(new String(table.getEntries())) + ".toCharArray();")
+                .addAttribute("""
+                        /**
+                         * The substitutes of entry e are SUBSTITUTE_INDEX[e - 1] until SUBSTITUTE_INDEX[e].
+                         */""")
+                .addAttribute("static final char[] SUBSTITUTE_INDEX = " + Literals.toLiteral(new String(table.getSubstituteIndex())) + ".toCharArray();")
+                .addAttribute("""
+                        /**
+                         * The start of every substitute in SUBSTITUTES and the end of the last one.
+                         */""")
+                .addAttribute("static final char[] SUBSTITUTE_OFFSETS = " + Literals.toLiteral(new String(table.getSubstituteOffsets())) + ".toCharArray();")
+                .addAttribute("static final String SUBSTITUTES = " + Literals.toLiteral(table.getSubstitutes()) + ";")
+                .addArrayAttribute("static final", "int", "SUPPLEMENTARY_CODE_POINTS", toHexLiterals(table.getSupplementaryCodePoints()))
+                .addAttribute("static final char[] SUPPLEMENTARY_ENTRIES = " + Literals.toLiteral(new String(table.getSupplementaryEntries())) + ".toCharArray();")
+                .addConstructor("""
+                        private CharacterFallbackTables() {
+
+                        }
+                        """);
+    }
+
+    private static List<String> toHexLiterals(final int[] values) {
+        final List<String> literals = new ArrayList<>(values.length);
+
+        for (final int value : values) {
+            literals.add(String.format("0x%x", value));
+        }
+
+        return literals;
+    }
+}
@@ -0,0 +1,55 @@
+package net.quickwrite.localizer.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a class with a static method for every message of a bundle of {@code .properties} files,
+ * so that the messages are checked by the compiler instead of being looked up by their key at runtime.
+ *
+ * <pre>{@code
+ * // messages_en.properties: files.deleted = {count, plural, one{# file was} other{# files were}} deleted
+ * @MessageGen(packageName = "com.example", className = "Msg", bundle = "com.example.messages", locales = {"en", "de"})
+ *
+ * Msg.filesDeleted(Locale.GERMANY, 3, output); // 3 Dateien wurden gelöscht
+ * }</pre>
+ *
+ * <p>
+ * The patterns use the same syntax as the {@code PluralMessage}. Every locale gets its own method, in which the
+ * texts of the categories are constants and the category is returned by the checker of the locale itself.
+ * A locale that has no message falls back to its language and then to the first locale, just like a
+ * missing category falls back to the {@code other} message.
+ * </p>
+ *
+ * <p>
+ * The argument of a message becomes the parameter of its method, so every locale has to use the same
+ * argument, and it can't be named {@code locale}, {@code output}, {@code exception} or {@code RULES_*}.
+ * </p>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface MessageGen {
+    String packageName();
+    String className();
+
+    /**
+     * The base name of the bundle like {@code com.example.messages}. The messages of a locale are read from
+     * the file {@code com/example/messages_<locale>.properties} in UTF-8, which is searched on the source path,
+     * in the class output (where Maven copies the resources to before it compiles) and on the class path.
+     */
+    String bundle();
+
+    /**
+     * The locales of the bundle, like {@code {"en", "de", "pt_PT"}}. The first locale is the fallback for all
+     * other locales, so it has to contain every message and the other locales can't have any other messages.
+     */
+    String[] locales();
+
+    /**
+     * The class of the plural rules that select the categories, which has to be one of the
+     * generated checkers like the {@code OrdinalRuleChecker} for ordinal numbers.
+     */
+    String rules() default "net.quickwrite.localizer.PluralRuleChecker";
+}
@@ -0,0 +1,559 @@
+package net.quickwrite.localizer.processor;
+
+import com.google.auto.service.AutoService;
+import net.quickwrite.localizer.processor.generator.JClassFileGenerator;
+import net.quickwrite.localizer.processor.generator.Literals;
+import net.quickwrite.localizer.processor.message.MessagePattern;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Generates the classes with the typed methods of the messages
+ * of the bundles that are named by {@link MessageGen}.
+ *
+ * <p>
+ * Every message gets a method for every locale whose message selects a category, so the checker of
+ * the locale is a constant and the category is selected by a switch over the texts of the categories.
+ * The other locales share the method of the file their message is read from.
+ * The public method only switches over the language (and the region) of the locale to the method of the locale.
+ * </p>
+ */
+@SupportedAnnotationTypes("net.quickwrite.localizer.processor.MessageGen")
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+@AutoService(Processor.class)
+public class MessageProcessor extends AbstractProcessor {
+    private static final StandardLocation[] LOCATIONS = {
+            StandardLocation.SOURCE_PATH, StandardLocation.CLASS_OUTPUT, StandardLocation.CLASS_PATH
+    };
+
+    private static final Pattern LOCALE = Pattern.compile("[a-z]{2,3}(_([A-Z]{2}|[0-9]{3}))?");
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private static final Set<String> RESERVED_NAMES = Set.of("indexOf", "appendInteger");
+
+    /**
+     * The names of the parameters and the local variables of the generated methods,
+     * which the argument of a message can't have.
+     */
+    private static final Set<String> RESERVED_ARGUMENTS = Set.of("locale", "output", "exception");
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getElementsAnnotatedWith(MessageGen.class)) {
+            final MessageGen messageGen = element.getAnnotation(MessageGen.class);
+
+            final JClassFileGenerator generator = new JClassFileGenerator(messageGen.packageName(), messageGen.className());
+            final Map<String, Map<String, String>> bundle;
+
+            try {
+                bundle = readBundle(messageGen);
+                writeMessages(generator, messageGen.rules(), bundle);
+            } catch (final IllegalArgumentException | IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@MessageGen: " + e.getMessage(), element);
+                continue;
+            }
+
+            try {
+                final JavaFileObject sourceFile = processingEnv.getFiler()
+                        .createSourceFile(generator.getPackageName() + "." + generator.getClassName(), element);
+
+                try (final Writer writer = new BufferedWriter(sourceFile.openWriter())) {
+                    generator.write(writer);
+                }
+            } catch (final IOException exception) {
+                exception.printStackTrace();
+            }
+
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format(
+                    "@MessageGen: wrote %s with %d messages in %d locales for %s",
+                    messageGen.className(),
+                    bundle.get(messageGen.locales()[0]).size(),
+                    bundle.size(),
+                    element.getSimpleName()
+            ));
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads the messages of every locale by their keys, where the locales are in the order of the annotation.
+     */
+    private Map<String, Map<String, String>> readBundle(final MessageGen messageGen) throws IOException {
+        if (messageGen.locales().length == 0) {
+            throw new IllegalArgumentException("The bundle '" + messageGen.bundle() + "' has no locales");
+        }
+
+        final Map<String, Map<String, String>> bundle = new LinkedHashMap<>();
+
+        for (final String locale : messageGen.locales()) {
+            if (!LOCALE.matcher(locale).matches()) {
+                throw new IllegalArgumentException("The locale '" + locale +
+                        "' is not a language with an optional region like 'pt_PT'");
+            }
+
+            if (bundle.containsKey(locale)) {
+                throw new IllegalArgumentException("The locale '" + locale + "' is listed twice");
+            }
+
+            final Map<String, String> messages = new TreeMap<>();
+            for (final Map.Entry<Object, Object> entry : readMessages(messageGen.bundle(), locale).entrySet()) {
+                messages.put((String) entry.getKey(), (String) entry.getValue());
+            }
+
+            bundle.put(locale, messages);
+        }
+
+        final String fallback = messageGen.locales()[0];
+        for (final Map.Entry<String, Map<String, String>> entry : bundle.entrySet()) {
+            for (final String key : entry.getValue().keySet()) {
+                if (!bundle.get(fallback).containsKey(key)) {
+                    throw new IllegalArgumentException("The message '" + key + "' of the locale '" + entry.getKey() +
+                            "' is missing in the first locale '" + fallback + "'");
+                }
+            }
+        }
+
+        return bundle;
+    }
+
+    private Properties readMessages(final String bundle, final String locale) throws IOException {
+        final int separator = bundle.lastIndexOf('.');
+        final String packageName = separator < 0 ? "" : bundle.substring(0, separator);
+        final String fileName = bundle.substring(separator + 1) + "_" + locale + ".properties";
+
+        for (final StandardLocation location : LOCATIONS) {
+            final InputStream input;
+            try {
+                input = processingEnv.getFiler().getResource(location, packageName, fileName).openInputStream();
+            } catch (final IOException | IllegalArgumentException e) {
+                // the file is not in this location or the location is not supported
+                continue;
+            }
+
+            try (final Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+                final Properties properties = new Properties();
+                properties.load(reader);
+
+                return properties;
+            }
+        }
+
+        throw new IllegalArgumentException("The messages of the locale '" + locale + "' can't be found in '" +
+                (packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/") + fileName + "'");
+    }
+
+    private static void writeMessages(final JClassFileGenerator generator,
+                                      final String rulesName,
+                                      final Map<String, Map<String, String>> bundle) {
+        final List<String> locales = new ArrayList<>(bundle.keySet());
+        final String rules = rulesName.substring(rulesName.lastIndexOf('.') + 1);
+
+        generator.addImport("java.io.IOException")
+                .addImport("java.util.Locale");
+
+        if (rulesName.contains(".") && !rulesName.substring(0, rulesName.lastIndexOf('.')).equals(generator.getPackageName())) {
+            generator.addImport(rulesName);
+        }
+
+        generator.addConstructor("private " + generator.getClassName() + "() {\n\n}\n");
+
+        final Set<String> methodNames = new HashSet<>();
+        final Set<String> rulesLocales = new TreeSet<>();
+        boolean hasArgument = false;
+
+        for (final String key : bundle.get(locales.get(0)).keySet()) {
+            final String name = toMethodName(key);
+            if (!methodNames.add(name)) {
+                throw new IllegalArgumentException("The message '" + key + "' has the same method name '" + name +
+                        "' as another message");
+            }
+
+            hasArgument |= addMessage(generator, rules, bundle, key, name, rulesLocales);
+        }
+
+        for (final String locale : rulesLocales) {
+            generator.addAttribute("private static final " + rules + " " + rulesFieldOf(locale) + " = " +
+                    rules + ".forLanguageTag(\"" + locale.replace('_', '-') + "\");");
+        }
+
+        if (locales.size() > 1) {
+            addLocaleIndex(generator, locales);
+        }
+
+        if (hasArgument) {
+            generator.addMethod("""
+                    /**
+                     * Appends the digits of an integer without creating a string.
+                     */
+                    private static void appendInteger(final long value, final Appendable output) throws IOException {
+                        if (output instanceof StringBuilder) {
+                            ((StringBuilder) output).append(value);
+                            return;
+                        }
+
+                        // the digits are computed from the negative value, which also works for Long.MIN_VALUE
+                        long negative = value;
+                        if (value < 0) {
+                            output.append('-');
+                        } else {
+                            negative = -value;
+                        }
+
+                        long divisor = -1;
+                        while (divisor >= -Long.MAX_VALUE / 10 && negative <= divisor * 10) {
+                            divisor *= 10;
+                        }
+
+                        while (divisor != 0) {
+                            output.append((char) ('0' + negative / divisor));
+                            negative %= divisor;
+                            divisor /= 10;
+                        }
+                    }
+                    """);
+        }
+    }
+
+    /**
+     * Adds the methods of a message.
+     *
+     * @param rulesLocales The locales whose checkers are used, which the locales of this message are added to
+     * @return If the message has an argument
+     */
+    private static boolean addMessage(final JClassFileGenerator generator,
+                                      final String rules,
+                                      final Map<String, Map<String, String>> bundle,
+                                      final String key,
+                                      final String name,
+                                      final Set<String> rulesLocales) {
+        final List<String> locales = new ArrayList<>(bundle.keySet());
+
+        // the locale of the method that writes the message of every locale
+        final List<String> targets = new ArrayList<>(locales.size());
+        final Map<String, MessagePattern> patterns = new LinkedHashMap<>();
+
+        // the first locale has every message, so its argument is known before any of the others
+        String argument = null;
+
+        for (final String locale : locales) {
+            final String source = sourceOf(bundle, locale, key);
+            final MessagePattern pattern;
+
+            try {
+                pattern = MessagePattern.parse(bundle.get(source).get(key));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("The message '" + key + "' of the locale '" + source +
+                        "' is not valid: " + e.getMessage());
+            }
+
+            if (locale.equals(locales.get(0))) {
+                argument = pattern.getArgument();
+            } else if (source.equals(locale) && !Objects.equals(argument, pattern.getArgument())) {
+                throw new IllegalArgumentException("The message '" + key + "' of the locale '" + locale + "' has " +
+                        describeArgument(pattern.getArgument()) + ", but the one of the first locale '" +
+                        locales.get(0) + "' has " + describeArgument(argument));
+            }
+
+            // the rules of the locale itself are only needed to select a category
+            final String target = hasCategories(pattern) ? locale : source;
+            targets.add(target);
+            patterns.putIfAbsent(target, pattern);
+        }
+
+        if (argument != null && (RESERVED_ARGUMENTS.contains(argument) || argument.startsWith("RULES_"))) {
+            throw new IllegalArgumentException("The argument '" + argument + "' of the message '" + key +
+                    "' has the same name as a parameter, a local variable or a field of the generated methods");
+        }
+
+        final String count = argument != null && SourceVersion.isName(argument) ? argument : "count";
+        final String parameters = argument == null ? "" : "final long " + count + ", ";
+        final String arguments = argument == null ? "" : count + ", ";
+
+        final StringBuilder dispatch = new StringBuilder();
+        if (patterns.size() == 1) {
+            dispatch.append("    ").append(name).append('_').append(targets.get(0))
+                    .append('(').append(arguments).append("output);\n");
+        } else {
+            dispatch.append("    switch (indexOf(locale)) {\n");
+
+            for (final String target : patterns.keySet()) {
+                if (target.equals(targets.get(0))) {
+                    continue;
+                }
+
+                final StringJoiner cases = new StringJoiner(", ");
+                for (int index = 0; index < targets.size(); index++) {
+                    if (targets.get(index).equals(target)) {
+                        cases.add(Integer.toString(index));
+                    }
+                }
+
+                dispatch.append("        case ").append(cases).append(" -> ")
+                        .append(name).append('_').append(target).append('(').append(arguments).append("output);\n");
+            }
+
+            dispatch.append("        default -> ").append(name).append('_').append(targets.get(0))
+                    .append('(').append(arguments).append("output);\n")
+                    .append("    }\n");
+        }
+
+        final String countDoc = argument == null ? "" : "\n * @param " + count + " The number";
+        generator.addMethod(String.format("""
+                /**
+                 * Appends the message {@code %1$s}.
+                 *
+                 * @param locale The locale of the message%2$s
+                 * @param output The output the message is appended to
+                 * @throws IOException If the output can't be written
+                 */
+                public static void %3$s(final Locale locale, %4$sfinal Appendable output) throws IOException {
+                %5$s}
+                """, key, countDoc, name, parameters, dispatch))
+                .addMethod(String.format("""
+                /**
+                 * Returns the message {@code %1$s}.
+                 *
+                 * @param locale The locale of the message%2$s
+                 * @return The message
+                 */
+                public static String %3$s(final Locale locale%4$s) {
+                    final StringBuilder output = new StringBuilder();
+
+                    try {
+                        %3$s(locale, %5$soutput);
+                    } catch (final IOException exception) {
+                        // a StringBuilder never throws
+                        throw new AssertionError(exception);
+                    }
+
+                    return output.toString();
+                }
+                """, key, countDoc, name, argument == null ? "" : ", final long " + count, arguments));
+
+        for (final Map.Entry<String, MessagePattern> entry : patterns.entrySet()) {
+            final String rulesField = rulesFieldOf(entry.getKey());
+            final StringBuilder method = new StringBuilder()
+                    .append("private static void ").append(name).append('_').append(entry.getKey())
+                    .append('(').append(parameters).append("final Appendable output) throws IOException {\n");
+            writeParts(entry.getValue().getParts(), rulesField, count, "    ", method);
+            generator.addMethod(method.append("}\n").toString());
+
+            if (hasCategories(entry.getValue())) {
+                rulesLocales.add(entry.getKey());
+            }
+        }
+
+        return argument != null;
+    }
+
+    /**
+     * Writes the statements that append the parts of a message.
+     */
+    private static void writeParts(final List<MessagePattern.Part> parts,
+                                   final String rules,
+                                   final String count,
+                                   final String indent,
+                                   final StringBuilder builder) {
+        for (final MessagePattern.Part part : parts) {
+            if (part instanceof MessagePattern.Text text) {
+                builder.append(indent).append("output.append(").append(Literals.toLiteral(text.text())).append(");\n");
+            } else if (part instanceof MessagePattern.Argument) {
+                builder.append(indent).append("appendInteger(").append(count).append(", output);\n");
+            } else {
+                writePlural((MessagePattern.Plural) part, rules, count, indent, builder);
+            }
+        }
+    }
+
+    private static void writePlural(final MessagePattern.Plural plural,
+                                    final String rules,
+                                    final String count,
+                                    final String indent,
+                                    final StringBuilder builder) {
+        // the explicit values win over the categories
+        String inner = indent;
+        if (!plural.explicitValues().isEmpty()) {
+            boolean first = true;
+            for (final Map.Entry<Long, List<MessagePattern.Part>> entry : plural.explicitValues().entrySet()) {
+                builder.append(indent).append(first ? "if (" : "} else if (")
+                        .append(count).append(" == ").append(entry.getKey()).append("L) {\n");
+                writeParts(entry.getValue(), rules, count, indent + "    ", builder);
+                first = false;
+            }
+
+            builder.append(indent).append("} else {\n");
+            inner = indent + "    ";
+        }
+
+        if (plural.categories().size() == 1) {
+            writeParts(plural.categories().get("other"), rules, count, inner, builder);
+        } else {
+            builder.append(inner).append("switch (").append(rules).append(".getCategory(").append(count).append(")) {\n");
+
+            for (final Map.Entry<String, List<MessagePattern.Part>> entry : plural.categories().entrySet()) {
+                if (!entry.getKey().equals("other")) {
+                    builder.append(inner).append("    case ").append(entry.getKey().toUpperCase(Locale.ROOT)).append(" -> {\n");
+                    writeParts(entry.getValue(), rules, count, inner + "        ", builder);
+                    builder.append(inner).append("    }\n");
+                }
+            }
+
+            builder.append(inner).append("    default -> {\n");
+            writeParts(plural.categories().get("other"), rules, count, inner + "        ", builder);
+            builder.append(inner).append("    }\n")
+                    .append(inner).append("}\n");
+        }
+
+        if (!plural.explicitValues().isEmpty()) {
+            builder.append(indent).append("}\n");
+        }
+    }
+
+    /**
+     * Adds the method that returns the index of the locale that is used for a {@code Locale}. The region is only
+     * compared for the languages with regions in the bundle, and everything else uses the first locale.
+     * A language with a legacy code gets a case for both of its codes, as {@code getLanguage()}
+     * returns the legacy code (like {@code iw} for {@code he}) up to Java 16.
+     */
+    private static void addLocaleIndex(final JClassFileGenerator generator, final List<String> locales) {
+        // the index of the language itself and of its regions by the language
+        final Map<String, Map<String, Integer>> languages = new LinkedHashMap<>();
+        for (int index = 0; index < locales.size(); index++) {
+            final String[] parts = locales.get(index).split("_");
+
+            languages.computeIfAbsent(parts[0], language -> new LinkedHashMap<>())
+                    .put(parts.length == 1 ? "" : parts[1], index);
+        }
+
+        final StringBuilder cases = new StringBuilder();
+        for (final Map.Entry<String, Map<String, Integer>> language : languages.entrySet()) {
+            final int languageIndex = language.getValue().getOrDefault("", 0);
+
+            final String alias = PluralRuleProcessor.LANGUAGE_ALIASES.get(language.getKey());
+            final String labels = "\"" + language.getKey() + "\"" +
+                    (alias != null && !languages.containsKey(alias) ? ", \"" + alias + "\"" : "");
+
+            if (language.getValue().size() == 1 && languageIndex != 0) {
+                cases.append("        case ").append(labels).append(" -> ").append(languageIndex).append(";\n");
+                continue;
+            }
+
+            if (language.getValue().keySet().stream().allMatch(String::isEmpty)) {
+                // the first locale is the default anyway
+                continue;
+            }
+
+            cases.append("        case ").append(labels).append(" -> switch (locale.getCountry()) {\n");
+            for (final Map.Entry<String, Integer> region : language.getValue().entrySet()) {
+                if (!region.getKey().isEmpty()) {
+                    cases.append("            case \"").append(region.getKey()).append("\" -> ").append(region.getValue()).append(";\n");
+                }
+            }
+            cases.append("            default -> ").append(languageIndex).append(";\n")
+                    .append("        };\n");
+        }
+
+        generator.addMethod(String.format("""
+                /**
+                 * Returns the index of the locale of the bundle that is used for a locale.
+                 */
+                private static int indexOf(final Locale locale) {
+                    return switch (locale.getLanguage()) {
+                %s        default -> 0;
+                    };
+                }
+                """, cases));
+    }
+
+    /**
+     * Returns the locale whose file has the message for a locale, which is the locale itself,
+     * its language or the first locale.
+     */
+    private static String sourceOf(final Map<String, Map<String, String>> bundle, final String locale, final String key) {
+        if (bundle.get(locale).containsKey(key)) {
+            return locale;
+        }
+
+        final int separator = locale.indexOf('_');
+        if (separator >= 0) {
+            final Map<String, String> language = bundle.get(locale.substring(0, separator));
+
+            if (language != null && language.containsKey(key)) {
+                return locale.substring(0, separator);
+            }
+        }
+
+        return bundle.keySet().iterator().next();
+    }
+
+    private static String describeArgument(final String argument) {
+        return argument == null ? "no argument" : "the argument '" + argument + "'";
+    }
+
+    /**
+     * Checks if the message has a plural argument with other categories than {@code other}.
+     */
+    private static boolean hasCategories(final MessagePattern pattern) {
+        for (final MessagePattern.Part part : pattern.getParts()) {
+            if (part instanceof MessagePattern.Plural plural && plural.categories().size() > 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String rulesFieldOf(final String locale) {
+        return "RULES_" + locale.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Converts a key like {@code files.deleted} into the name of its method like {@code filesDeleted}.
+     */
+    private static String toMethodName(final String key) {
+        if (!KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("The key of the message '" + key +
+                    "' can only contain letters, digits, '.', '-' and '_'");
+        }
+
+        final StringBuilder builder = new StringBuilder(key.length());
+        for (final String part : key.split("[._-]+")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+
+            if (builder.length() == 0) {
+                builder.append(Character.toLowerCase(part.charAt(0)));
+            } else {
+                builder.append(Character.toUpperCase(part.charAt(0)));
+            }
+
+            builder.append(part, 1, part.length());
+        }
+
+        final String name = builder.toString();
+        if (!SourceVersion.isName(name) || RESERVED_NAMES.contains(name)) {
+            throw new IllegalArgumentException("The key of the message '" + key +
+                    "' can't be used as the method name '" + name + "'");
+        }
+
+        return name;
+    }
+}
@@ -0,0 +1,98 @@
+package net.quickwrite.localizer.processor;
+
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PluralRanges {
+    private final String[] locales;
+    private final List<PluralRangeTuple> ranges;
+
+    public PluralRanges(final Node node) {
+        this.locales = node.getAttributes().getNamedItem("locales").getNodeValue().split(" ");
+        this.ranges = getRanges(node);
+    }
+
+    public String[] getLocales() {
+        return locales;
+    }
+
+    public List<PluralRangeTuple> getRanges() {
+        return ranges;
+    }
+
+    public record PluralRangeTuple(String start, String end, String result) {
+
+    }
+
+    /**
+     * Encodes the {@code start x end} matrix of the result categories as a string of
+     * the ordinals, where the result of a range is at {@code start * categories + end}.
+     *
+     * @param categories The names of the categories in the order of their ordinals
+     * @return The encoded matrix
+     */
+    public String encode(final List<String> categories) {
+        final char[] matrix = encodeDefault(categories).toCharArray();
+
+        for (final PluralRangeTuple range : this.ranges) {
+            final int index = indexOf(categories, range.start()) * categories.size() + indexOf(categories, range.end());
+
+            matrix[index] = (char) ('0' + indexOf(categories, range.result()));
+        }
+
+        return new String(matrix);
+    }
+
+    /**
+     * Encodes the matrix for a locale without any range data,
+     * where every range has the category of its end.
+     *
+     * @param categories The names of the categories in the order of their ordinals
+     * @return The encoded matrix
+     */
+    public static String encodeDefault(final List<String> categories) {
+        final StringBuilder builder = new StringBuilder(categories.size() * categories.size());
+
+        for (int start = 0; start < categories.size(); start++) {
+            for (int end = 0; end < categories.size(); end++) {
+                builder.append((char) ('0' + end));
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static int indexOf(final List<String> categories, final String category) {
+        final int index = categories.indexOf(category.toUpperCase());
+
+        if (index == -1) {
+            throw new IllegalArgumentException("The category '" + category + "' does not exist");
+        }
+
+        return index;
+    }
+
+    private static List<PluralRangeTuple> getRanges(final Node node) {
+        final List<PluralRangeTuple> list = new ArrayList<>();
+
+        final NodeList children = node.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (!children.item(i).getNodeName().equals("pluralRange")) {
+                continue;
+            }
+
+            final NamedNodeMap attributes = children.item(i).getAttributes();
+            list.add(new PluralRangeTuple(
+                    attributes.getNamedItem("start").getNodeValue(),
+                    attributes.getNamedItem("end").getNodeValue(),
+                    attributes.getNamedItem("result").getNodeValue()
+            ));
+        }
+
+        return list;
+    }
+}
@@ -1,20 +1,44 @@
 package net.quickwrite.localizer.processor;
 
+import net.quickwrite.localizer.processor.rule.Condition;
+import net.quickwrite.localizer.processor.rule.Range;
+import net.quickwrite.localizer.processor.rule.Relation;
+import net.quickwrite.localizer.processor.rule.Samples;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import redempt.redlex.data.Token;
 import redempt.redlex.processing.Lexer;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PluralRule {
     private final String[] locales;
     private final List<PluralRuleTuple> pluralRules;
+    private final Map<String, Samples> samples;
 
     public PluralRule(final Lexer lexer, final Node node) {
         this.locales = node.getAttributes().getNamedItem("locales").getNodeValue().split(" ");
-        this.pluralRules = getRulesForLangs(lexer, node);
+        this.samples = new LinkedHashMap<>();
+        this.pluralRules = getRulesForLangs(lexer, node, this.samples);
+    }
+
+    private PluralRule(final String[] locales, final List<PluralRuleTuple> pluralRules, final Map<String, Samples> samples) {
+        this.locales = locales;
+        this.pluralRules = pluralRules;
+        this.samples = samples;
+    }
+
+    /**
+     * Creates the same rule set for other locales.
+     *
+     * @param locales The locales
+     * @return The rule set for the locales
+     */
+    public PluralRule withLocales(final String[] locales) {
+        return new PluralRule(locales, this.pluralRules, this.samples);
     }
 
     public String[] getLocales() {
@@ -25,11 +49,22 @@ public class PluralRule {
         return pluralRules;
     }
 
-    public record PluralRuleTuple(String type, String unwrappedConditions) {
+    /**
+     * Returns the samples of every category, including {@code other}.
+     *
+     * @return The samples by the name of the category
+     */
+    public Map<String, Samples> getSamples() {
+        return samples;
+    }
+
+    public record PluralRuleTuple(String type, Condition condition) {
 
     }
 
-    private static List<PluralRuleTuple> getRulesForLangs(final Lexer lexer, final Node node) {
+    private static List<PluralRuleTuple> getRulesForLangs(final Lexer lexer,
+                                                          final Node node,
+                                                          final Map<String, Samples> samples) {
         final List<PluralRuleTuple> list = new ArrayList<>();
 
         final NodeList children = node.getChildNodes();
@@ -39,13 +74,16 @@ public class PluralRule {
             }
 
             final String type = children.item(j).getAttributes().getNamedItem("count").getTextContent();
+
+            final Token token = lexer.tokenize(children.item(j).getTextContent());
+
+            samples.put(type, unwrapSamples(token.allByName("samples")));
+
             if (type.equals("other")) {
                 continue;
             }
 
-            final Token token = lexer.tokenize(children.item(j).getTextContent());
-
-            final String condition = unwrapConditions(token.allByName("and_condition"));
+            final Condition condition = unwrapConditions(token.allByName("and_condition"));
 
             list.add(new PluralRuleTuple(type, condition));
         }
@@ -53,72 +91,82 @@ public class PluralRule {
         return list;
     }
 
-    private static String unwrapConditions(final List<Token> tokens) {
-        final StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < tokens.size(); i++) {
-            if (i != 0) {
-                builder.append(" || ");
-            }
+    private static Samples unwrapSamples(final List<Token> tokens) {
+        final Samples samples = Samples.empty();
+
+        for (final Token token : tokens) {
+            addSamples(token, samples, null);
+        }
 
-            List<Token> inRelationTokens = tokens.get(i).allByName("in_relation");
-            for (int j = 0; j < inRelationTokens.size(); j++) {
-                if (j != 0) {
-                    builder.append(" && ");
-                }
+        return samples;
+    }
 
-                unwrapInRelation(inRelationTokens.get(j), builder);
+    /**
+     * Walks through the sample tokens in their order, where every sample
+     * range belongs to the list of the last {@code @integer} or {@code @decimal}.
+     *
+     * @return The list the next sample ranges belong to
+     */
+    private static List<String> addSamples(final Token token, final Samples samples, List<String> list) {
+        for (final Token child : token.getChildren()) {
+            if ("@integer".equals(child.getValue())) {
+                list = samples.integers();
+            } else if ("@decimal".equals(child.getValue())) {
+                list = samples.decimals();
+            } else if (child.getType().getName().equals("sampleRange")) {
+                final List<Token> values = child.allByName("sampleValue");
+
+                Samples.expand(
+                        list,
+                        values.get(0).getValue(),
+                        values.size() > 1 ? values.get(1).getValue() : null
+                );
+            } else if (child.getChildren() != null) {
+                list = addSamples(child, samples, list);
             }
         }
 
-        return builder.toString();
+        return list;
     }
 
-    private static void unwrapInRelation(final Token token, final StringBuilder builder) {
-        final List<Token> rangeToken = unwrapRangeList(token.getChildren()[2]);
-        if (rangeToken.size() != 1) {
-            builder.append("(");
-        }
+    private static Condition unwrapConditions(final List<Token> tokens) {
+        final List<List<Relation>> andConditions = new ArrayList<>(tokens.size());
 
-        for (int i = 0; i < rangeToken.size(); i++) {
-            if (i != 0) {
-                builder.append(" || ");
+        for (final Token andToken : tokens) {
+            final List<Token> inRelationTokens = andToken.allByName("in_relation");
+            final List<Relation> relations = new ArrayList<>(inRelationTokens.size());
+
+            for (final Token inRelationToken : inRelationTokens) {
+                relations.add(unwrapInRelation(inRelationToken));
             }
 
-            boolean isRange = rangeToken.get(i).getType().getName().equals("range");
+            andConditions.add(relations);
+        }
+
+        return new Condition(andConditions);
+    }
 
-            builder.append("(");
-            final String operator = token.getChildren()[1].getValue();
+    private static Relation unwrapInRelation(final Token token) {
+        final Token[] expr = token.getChildren()[0].getChildren();
+        final String operator = token.getChildren()[1].getValue();
 
-            if (isRange) {
-                if (operator.equals("!=")) {
-                    builder.append("!");
-                }
-                builder.append("isInRange(");
-            }
-            unwrapExpr(token.getChildren()[0], builder);
-
-            if (isRange) {
-                builder.append(", ");
-                final String[] rangeValues = unwrapRange(rangeToken.get(i));
-                builder.append(rangeValues[0]);
-                builder.append(", ");
-                builder.append(rangeValues[1]);
-                builder.append(")");
+        final List<Range> ranges = new ArrayList<>();
+        for (final Token rangeToken : unwrapRangeList(token.getChildren()[2])) {
+            if (rangeToken.getType().getName().equals("range")) {
+                final String[] rangeValues = unwrapRange(rangeToken);
+                ranges.add(new Range(Long.parseLong(rangeValues[0]), Long.parseLong(rangeValues[1])));
             } else {
-                builder.append(" ");
-                if (operator.equals("=")) {
-                    builder.append("=");
-                }
-                builder.append(operator);
-                builder.append(" ");
-                builder.append(rangeToken.get(i).getValue());
+                final long value = Long.parseLong(rangeToken.getValue());
+                ranges.add(new Range(value, value));
             }
-            builder.append(")");
         }
 
-        if (rangeToken.size() != 1) {
-            builder.append(")");
-        }
+        return new Relation(
+                expr[0].getValue(),
+                expr.length > 1 ? Long.parseLong(expr[1].allByName("value").get(0).getValue()) : 0,
+                operator.equals("!="),
+                ranges
+        );
     }
 
     private static String[] unwrapRange(final Token token) {
@@ -144,21 +192,4 @@ public class PluralRule {
 
         return list;
     }
-
-    private static void unwrapExpr(final Token token, final StringBuilder builder) {
-        assert !token.getType().getName().equals("expr");
-
-        final Token[] children = token.getChildren();
-
-        builder.append("operand.");
-        builder.append(children[0].getValue());
-        builder.append("()");
-
-        if (!(children.length > 1)) {
-            return;
-        }
-
-        builder.append(" % ");
-        builder.append(children[1].allByName("value").get(0).getValue());
-    }
 }
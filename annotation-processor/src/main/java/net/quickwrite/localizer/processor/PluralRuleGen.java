@@ -11,4 +11,78 @@ public @interface PluralRuleGen {
     String packageName();
     Class<?> operand();
     Class<? extends Enum<?>> category();
+    Dispatch dispatch() default Dispatch.LAMBDA;
+    IntegerEngine integerEngine() default IntegerEngine.CONDITIONS;
+
+    /**
+     * The locales that should be generated, like {@code {"en", "de", "pt_PT"}}.
+     * Every locale also brings its CLDR parents ({@code pt_PT -> pt}, {@code pt_AO -> pt_PT}) and the more
+     * specific locales of it ({@code pt -> pt_PT}) with it, so these resolve just like
+     * with all locales. The {@code root} locale is always generated and everything
+     * else resolves to it.
+     *
+     * <p>
+     * All locales are generated if this is empty.
+     * </p>
+     */
+    String[] locales() default {};
+
+    /**
+     * The class that the generated checkers report every categorization to, or {@link Void}
+     * if they shouldn't be instrumented.
+     *
+     * <p>
+     * The class has to declare a {@code static final boolean ENABLED} and a static
+     * {@code register(Enum<?>[] locales, Enum<?>[] categories)} method that returns a
+     * {@code Recorder} with the methods {@code long start()},
+     * {@code void record(int locale, int category, long start)} and
+     * {@code void recordAll(int locale, byte[] ordinals, int offset, int length, long start)}
+     * for the whole arrays of {@code categorize}. The checkers only call these
+     * if {@code ENABLED} is set, so the instrumentation costs nothing if it is off.
+     * </p>
+     */
+    Class<?> instrumentation() default Void.class;
+
+    /**
+     * The way the generated {@code getCategory} method reaches the rules of its locale.
+     */
+    enum Dispatch {
+        /**
+         * Every constant stores its rules as a {@code Function}, which is created on the first use
+         * of the constant. The functions are generated as classes instead of lambdas, so no
+         * {@code invokedynamic} call site has to be bootstrapped and only the classes of the
+         * rule sets that are used are loaded.
+         */
+        LAMBDA,
+
+        /**
+         * Every rule set is a static method and {@code getCategory} switches over the
+         * rule set of the constant, so the call site stays monomorphic and the rules
+         * can be inlined into the caller.
+         *
+         * <p>
+         * This is a lot faster if the locale changes from call to call, but the larger rule sets
+         * (like {@code pl} or {@code ru}) get slower if only a single locale is used.
+         * </p>
+         */
+        SWITCH
+    }
+
+    /**
+     * The way the generated {@code getCategory(long)} method finds the category of an integer.
+     */
+    enum IntegerEngine {
+        /**
+         * The conditions of the rules are evaluated.
+         */
+        CONDITIONS,
+
+        /**
+         * The category is loaded from a precomputed table of the category ordinals
+         * of the small integers followed by a periodic tail for all larger integers.
+         * Negative integers and rule sets whose table would be too large still
+         * evaluate the conditions.
+         */
+        LOOKUP_TABLE
+    }
 }
@@ -1,8 +1,14 @@
 package net.quickwrite.localizer.processor;
 
 import com.google.auto.service.AutoService;
+import net.quickwrite.localizer.processor.generator.JClassFileGenerator;
 import net.quickwrite.localizer.processor.generator.JEnumFileGenerator;
+import net.quickwrite.localizer.processor.rule.BranchOrder;
+import net.quickwrite.localizer.processor.rule.ConditionWriter;
+import net.quickwrite.localizer.processor.rule.IntegerLookupTable;
+import net.quickwrite.localizer.processor.rule.Samples;
 import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
@@ -15,37 +21,136 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
 import javax.lang.model.util.Elements;
 import javax.tools.Diagnostic;
-import javax.tools.JavaFileObject;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
 import java.lang.annotation.Annotation;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-@SupportedAnnotationTypes("net.quickwrite.localizer.processor.PluralRuleGen")
+@SupportedAnnotationTypes({
+        "net.quickwrite.localizer.processor.PluralRuleGen",
+        "net.quickwrite.localizer.processor.PluralSampleGen"
+})
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
 @AutoService(Processor.class)
 public class PluralRuleProcessor extends AbstractProcessor {
-    private static List<PluralRule> pluralRules;
+    private static final String[] OPERANDS = {"n", "i", "v", "w", "f", "t", "c", "e"};
+    private static final String[] FRACTION_OPERANDS = {"v", "w", "f", "t", "c", "e"};
+
+    private static final int DISPATCH_BLOCK_SIZE = 16;
+    private static final int LOOKUP_TABLE_LIMIT = 4096;
+
+    /**
+     * The statements that calculate the operands of the decimal {@code unscaled * 10^-scale}
+     * (with the exponent {@code e}) that the decimal rules are called with.
+     */
+    private static final String DECIMAL_OPERANDS = """
+            final long divisor = scale < POWERS_OF_TEN.length ? POWERS_OF_TEN[scale] : 0;
+            final long i = divisor == 0 ? 0 : unscaled / divisor;
+            final long f = Math.abs(divisor == 0 ? unscaled : unscaled % divisor);
+
+            long t = f;
+            int w = t == 0 ? 0 : scale;
+            while (t != 0 && t % 10 == 0) {
+                t /= 10;
+                w--;
+            }
+
+            final double n = scale < DOUBLE_POWERS_OF_TEN.length
+                    ? unscaled / DOUBLE_POWERS_OF_TEN[scale]
+                    : unscaled / Math.pow(10, scale);
+            final int v = scale;
+            """;
+
+    /**
+     * The languages that have a legacy code, which {@code Locale.getLanguage()} still returns up to Java 16
+     * ({@code he -> iw}), by both of their codes.
+     */
+    static final Map<String, String> LANGUAGE_ALIASES = Map.of(
+            "he", "iw", "iw", "he",
+            "id", "in", "in", "id",
+            "yi", "ji", "ji", "yi"
+    );
+
+    /**
+     * The parsed rules by the hash of the input files. The processor class is reused by
+     * the build tools that keep their compilers running (like the Gradle daemon),
+     * so the files only have to be parsed again if they have changed.
+     */
+    private static final Map<String, RuleModel> MODEL_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * The generated sources by the hash of the input files and the configuration of the annotation.
+     */
+    private static final Map<String, List<GeneratedSource>> SOURCE_CACHE = new ConcurrentHashMap<>();
+
+    private String inputHash;
+    private Map<RuleType, List<PluralRule>> pluralRules;
+    private Map<String, PluralRanges> pluralRanges;
+    private Map<String, String> parentLocales;
+    private List<GeneratedSource> generatedSources;
+    private List<String> generatedClasses;
+
+    private boolean modelCached;
+    /**
+     * The time it took to parse (or take from the cache) the rules, which is done once for all elements.
+     */
+    private long modelTime;
+
+    private record RuleModel(Map<RuleType, List<PluralRule>> rules,
+                             Map<String, PluralRanges> ranges,
+                             Map<String, String> parents) {
+
+    }
+
+    /**
+     * A generated source file or, if it is a resource, a file with the
+     * name as its path that is written to the class output.
+     * The content is only written once the file is created, so it is streamed into the file.
+     */
+    private record GeneratedSource(String name, Content content, boolean resource) {
+
+    }
+
+    @FunctionalInterface
+    private interface Content {
+        void write(Writer writer) throws IOException;
+    }
 
     @Override
     public synchronized void init(final ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
 
-        final InputStream file = getInputFile("/plural-rule-syntax.bnf");
+        final long start = System.nanoTime();
 
-        final Lexer lexer = BNFParser.createLexer(file);
-        lexer.setRuleByName(CullStrategy.DELETE_ALL, "sep", "samples");
-        lexer.setRuleByName(CullStrategy.LIFT_CHILDREN, "digit");
-
-        final NodeList nodePluralRules;
+        final RuleModel model;
         try {
-            final Document document = getXMLDocument("/plurals.xml");
+            final byte[] grammar = readInputFile("/plural-rule-syntax.bnf");
+            final byte[] plurals = readInputFile("/plurals.xml");
+            final byte[] ranges = readInputFile("/pluralRanges.xml");
+            final byte[] parents = readInputFile("/parentLocales.xml");
+
+            this.inputHash = hash(grammar, plurals, ranges, parents);
 
-            nodePluralRules = document.getElementsByTagName("pluralRules");
+            final RuleModel cachedModel = MODEL_CACHE.get(this.inputHash);
+            this.modelCached = cachedModel != null;
+
+            if (cachedModel == null) {
+                model = parseModel(grammar, plurals, ranges, parents);
+                MODEL_CACHE.put(this.inputHash, model);
+            } else {
+                model = cachedModel;
+            }
         } catch (final ParserConfigurationException | IOException | SAXException e) {
             processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
                     "An exception occurred while trying to parse the input file for @PluralRuleGen -> \n" +
@@ -55,17 +160,84 @@ public class PluralRuleProcessor extends AbstractProcessor {
             return;
         }
 
-        pluralRules = new ArrayList<>(nodePluralRules.getLength());
+        this.pluralRules = model.rules();
+        this.pluralRanges = model.ranges();
+        this.parentLocales = model.parents();
+        this.modelTime = System.nanoTime() - start;
+    }
+
+    private static RuleModel parseModel(final byte[] grammar,
+                                        final byte[] pluralsFile,
+                                        final byte[] rangesFile,
+                                        final byte[] parentsFile)
+            throws ParserConfigurationException, IOException, SAXException {
+        final Lexer lexer = BNFParser.createLexer(new ByteArrayInputStream(grammar));
+        lexer.setRuleByName(CullStrategy.DELETE_ALL, "sep");
+        lexer.setRuleByName(CullStrategy.LIFT_CHILDREN, "digit");
+
+        final NodeList nodePlurals = getXMLDocument(pluralsFile).getElementsByTagName("plurals");
+        final NodeList nodePluralRanges = getXMLDocument(rangesFile).getElementsByTagName("pluralRanges");
+
+        final Map<RuleType, List<PluralRule>> pluralRules = new EnumMap<>(RuleType.class);
+
+        for (int i = 0; i < nodePlurals.getLength(); i++) {
+            final Node plurals = nodePlurals.item(i);
+            final RuleType type = RuleType.fromName(plurals.getAttributes().getNamedItem("type").getNodeValue());
+
+            final List<PluralRule> rules = pluralRules.computeIfAbsent(type, key -> new ArrayList<>());
+
+            final NodeList children = plurals.getChildNodes();
+            for (int j = 0; j < children.getLength(); j++) {
+                if (children.item(j).getNodeName().equals("pluralRules")) {
+                    rules.add(new PluralRule(lexer, children.item(j)));
+                }
+            }
+        }
+
+        final Map<String, PluralRanges> pluralRanges = new HashMap<>();
+
+        for (int i = 0; i < nodePluralRanges.getLength(); i++) {
+            final PluralRanges ranges = new PluralRanges(nodePluralRanges.item(i));
+
+            for (final String locale : ranges.getLocales()) {
+                pluralRanges.put(locale.toLowerCase(), ranges);
+            }
+        }
+
+        // the parents that are root only keep the data of another script (like the names of sr_Latn)
+        // from being inherited, but the plural rules belong to the language, so these are left out
+        final NodeList nodeParentLocales = getXMLDocument(parentsFile).getElementsByTagName("parentLocale");
+        final Map<String, String> parentLocales = new HashMap<>();
+
+        for (int i = 0; i < nodeParentLocales.getLength(); i++) {
+            final NamedNodeMap attributes = nodeParentLocales.item(i).getAttributes();
+            final String parent = attributes.getNamedItem("parent").getNodeValue().toLowerCase();
+
+            if (parent.equals("root")) {
+                continue;
+            }
 
-        for (int i = 0; i < nodePluralRules.getLength(); i++) {
-            pluralRules.add(new PluralRule(lexer, nodePluralRules.item(i)));
+            for (final String locale : attributes.getNamedItem("locales").getNodeValue().trim().split("\\s+")) {
+                parentLocales.put(locale.toLowerCase(), parent);
+            }
         }
+
+        return new RuleModel(pluralRules, pluralRanges, parentLocales);
     }
 
     @Override
     public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (this.pluralRules == null) {
+            return true;
+        }
+
         try {
             for (final Element element : roundEnv.getRootElements()) {
+                final PluralSampleGen sampleGen = element.getAnnotation(PluralSampleGen.class);
+
+                if (sampleGen != null) {
+                    writeSampleFiles(sampleGen, element);
+                }
 
                 final PluralRuleGen ruleGen = element.getAnnotation(PluralRuleGen.class);
 
@@ -73,15 +245,71 @@ public class PluralRuleProcessor extends AbstractProcessor {
                     continue;
                 }
 
-                try {
-                    writePluralRuleFile(
-                            ruleGen.packageName(),
-                            getAnnotationClassValue(element, PluralRuleGen.class, "operand"),
-                            getAnnotationClassValue(element, PluralRuleGen.class, "category")
-                    );
-                } catch (final IOException exception) {
-                    exception.printStackTrace();
+                final long start = System.nanoTime();
+
+                final InternalClass operand = getAnnotationClassValue(element, PluralRuleGen.class, "operand");
+                final InternalClass category = getAnnotationClassValue(element, PluralRuleGen.class, "category");
+                final InternalClass instrumentation = getAnnotationClassValue(element, PluralRuleGen.class, "instrumentation");
+
+                // everything the generated sources depend on
+                final String key = this.inputHash + ":" + ruleGen.packageName() + ":" + operand.getFullName() +
+                        ":" + category.getFullName() + getEnumConstants(category) +
+                        ":" + ruleGen.dispatch() + ":" + ruleGen.integerEngine() +
+                        ":" + Arrays.toString(ruleGen.locales()) + ":" + instrumentation.getFullName();
+
+                List<GeneratedSource> sources = SOURCE_CACHE.get(key);
+                final boolean sourcesCached = sources != null;
+
+                if (sources == null) {
+                    this.generatedSources = new ArrayList<>();
+                    this.generatedClasses = new ArrayList<>();
+
+                    final Map<RuleType, List<PluralRule>> pluralRules = ruleGen.locales().length == 0
+                            ? this.pluralRules
+                            : selectLocales(ruleGen.locales(), element);
+
+                    for (final Map.Entry<RuleType, List<PluralRule>> entry : pluralRules.entrySet()) {
+                        try {
+                            writePluralRuleFile(
+                                    entry.getKey(),
+                                    entry.getValue(),
+                                    ruleGen.packageName(),
+                                    operand,
+                                    category,
+                                    ruleGen.dispatch(),
+                                    ruleGen.integerEngine(),
+                                    instrumentation.getFullName().equals(Void.class.getName()) ? null : instrumentation
+                            );
+                        } catch (final IOException exception) {
+                            exception.printStackTrace();
+                        }
+                    }
+
+                    writeStartupResources(ruleGen.packageName(), category,
+                            instrumentation.getFullName().equals(Void.class.getName()) ? null : instrumentation);
+
+                    sources = List.copyOf(this.generatedSources);
+                    SOURCE_CACHE.put(key, sources);
+                }
+
+                for (final GeneratedSource source : sources) {
+                    try {
+                        writeSourceFile(source, element);
+                    } catch (final IOException exception) {
+                        exception.printStackTrace();
+                    }
                 }
+
+                // the time of this element only, the rules were parsed once before all of them
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format(
+                        "@PluralRuleGen: wrote %d files for %s in %d ms (rules %s in %d ms, sources %s)",
+                        sources.size(),
+                        element.getSimpleName(),
+                        (System.nanoTime() - start) / 1_000_000,
+                        this.modelCached ? "cached" : "parsed",
+                        this.modelTime / 1_000_000,
+                        sourcesCached ? "cached" : "generated"
+                ));
             }
         } catch (NoSuchElementException e) {
             e.printStackTrace();
@@ -90,26 +318,180 @@ public class PluralRuleProcessor extends AbstractProcessor {
         return true;
     }
 
+    /**
+     * Selects the rule sets of the locales, their CLDR parents, the locales that
+     * are more specific than them and {@code root}. Rule sets without any of these
+     * locales are left out completely. A language with a legacy code always brings
+     * its other code along, as the resolution gets {@code iw} for {@code he} up to Java 16.
+     */
+    private Map<RuleType, List<PluralRule>> selectLocales(final String[] requested, final Element element) {
+        final List<String> identifiers = new ArrayList<>(requested.length + 1);
+        identifiers.add("root");
+
+        final List<String> aliases = new ArrayList<>();
+        for (final String locale : requested) {
+            final String identifier = locale.replace('-', '_').toLowerCase();
+            identifiers.add(identifier);
+
+            // pt_ao has to bring pt_pt along, which is not one of its truncations
+            for (String parent = parentOf(identifier); parent != null; parent = parentOf(parent)) {
+                aliases.add(parent);
+            }
+
+            final String alias = aliasOf(identifier);
+            if (alias != null) {
+                aliases.add(alias);
+            }
+        }
+
+        final List<String> wantedIdentifiers = new ArrayList<>(identifiers);
+        wantedIdentifiers.addAll(aliases);
+
+        final Set<String> found = new HashSet<>();
+        final Map<RuleType, List<PluralRule>> selected = new EnumMap<>(RuleType.class);
+
+        for (final Map.Entry<RuleType, List<PluralRule>> entry : this.pluralRules.entrySet()) {
+            final List<PluralRule> rules = new ArrayList<>();
+
+            for (final PluralRule rule : entry.getValue()) {
+                final List<String> locales = new ArrayList<>();
+
+                for (final String locale : rule.getLocales()) {
+                    final String identifier = locale.toLowerCase();
+
+                    for (final String wanted : wantedIdentifiers) {
+                        if (isParentOrSelf(identifier, wanted) || isParentOrSelf(wanted, identifier)) {
+                            locales.add(locale);
+                            found.add(wanted);
+                            break;
+                        }
+                    }
+                }
+
+                if (!locales.isEmpty()) {
+                    rules.add(rule.withLocales(locales.toArray(new String[0])));
+                }
+            }
+
+            selected.put(entry.getKey(), rules);
+        }
+
+        for (final String identifier : identifiers) {
+            if (!found.contains(identifier)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "@PluralRuleGen: There are no plural rules for the locale '" + identifier +
+                                "', so it resolves to root",
+                        element
+                );
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * Returns the identifier with the other code of its language, like {@code iw_il} for {@code he_il},
+     * or {@code null} if the language has only one code.
+     */
+    private static String aliasOf(final String identifier) {
+        final int end = identifier.indexOf('_');
+        final String language = end < 0 ? identifier : identifier.substring(0, end);
+        final String alias = LANGUAGE_ALIASES.get(language);
+
+        return alias == null ? null : alias + identifier.substring(language.length());
+    }
+
+    /**
+     * Returns the CLDR parent of a locale, which is its explicit parent from the
+     * {@code parentLocales} ({@code pt_ao -> pt_pt}) or else the locale without
+     * its last subtag ({@code pt_pt -> pt}), or {@code null} for a language.
+     */
+    private String parentOf(final String identifier) {
+        final String parent = this.parentLocales.get(identifier);
+        if (parent != null) {
+            return parent;
+        }
+
+        final int separator = identifier.lastIndexOf('_');
+        return separator == -1 ? null : identifier.substring(0, separator);
+    }
+
+    /**
+     * Checks if the first locale is the second locale or one of its CLDR parents
+     * ({@code pt} is a parent of {@code pt_pt}).
+     */
+    private static boolean isParentOrSelf(final String parent, final String locale) {
+        return locale.equals(parent) || locale.startsWith(parent + "_");
+    }
+
     private InputStream getInputFile(final String path) throws NullPointerException {
         return Objects.requireNonNull(this.getClass().getResourceAsStream(path));
     }
 
-    private Document getXMLDocument(final String path)
+    private byte[] readInputFile(final String path) throws IOException {
+        try (final InputStream input = getInputFile(path)) {
+            return input.readAllBytes();
+        }
+    }
+
+    private static Document getXMLDocument(final byte[] content)
             throws ParserConfigurationException, IOException, SAXException, NullPointerException {
         final DocumentBuilderFactory dbf = DocumentBuilderFactory.newDefaultInstance();
-        return dbf.newDocumentBuilder().parse(getInputFile(path));
+        return dbf.newDocumentBuilder().parse(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Creates the SHA-256 hash of the content of all the input files.
+     */
+    private static String hash(final byte[]... contents) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        for (final byte[] content : contents) {
+            digest.update(content);
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (final byte value : digest.digest()) {
+            builder.append(String.format("%02x", value));
+        }
+
+        return builder.toString();
     }
 
-    private void writePluralRuleFile(final String packageName,
+    private void writePluralRuleFile(final RuleType type,
+                                     final List<PluralRule> rules,
+                                     final String packageName,
                                      final InternalClass operand,
-                                     final InternalClass category)
+                                     final InternalClass category,
+                                     final PluralRuleGen.Dispatch dispatch,
+                                     final PluralRuleGen.IntegerEngine integerEngine,
+                                     final InternalClass instrumentation)
             throws IOException {
         final JEnumFileGenerator generator = new JEnumFileGenerator(
                 packageName,
-                "PluralRuleChecker"
+                type.getCheckerName()
         );
 
-        generator.addImport("java.util.function.Function");
+        final boolean lambdaDispatch = dispatch == PluralRuleGen.Dispatch.LAMBDA;
+        final boolean lookupTables = integerEngine == PluralRuleGen.IntegerEngine.LOOKUP_TABLE;
+        final JClassFileGenerator tables = new JClassFileGenerator(packageName, type.getTablesName());
+        final List<String> categories = getEnumConstants(category);
+
+        // plural ranges are only defined for cardinal numbers
+        final boolean rangeTables = type == RuleType.CARDINAL;
+        final Map<String, String> rangeTableNames = new HashMap<>();
+
+        if (lambdaDispatch) {
+            generator.addImport("java.util.function.Function");
+        }
+
+        generator.addImport("java.util.Objects");
 
         if (!operand.getPackageName().equals(packageName)) {
             generator.addImport(operand.getFullName());
@@ -119,61 +501,319 @@ public class PluralRuleProcessor extends AbstractProcessor {
             generator.addImport(category.getFullName());
         }
 
-        generator.addAttribute("private final Function<" +
-                operand.getClassName() +
-                ", " +
-                category.getClassName() +
-                "> localizationFunction;");
+        if (instrumentation != null) {
+            if (!instrumentation.getPackageName().equals(packageName)) {
+                generator.addImport(instrumentation.getFullName());
+            }
 
-        for (final PluralRule rule : pluralRules) {
-            final StringBuilder builder = new StringBuilder();
+            generator.addAttribute(String.format(
+                    "private static final %1$s.Recorder INSTRUMENTATION = %1$s.ENABLED ? %1$s.register(values(), %2$s.values()) : null;",
+                    instrumentation.getClassName(),
+                    category.getClassName()
+            ));
+        }
+
+        if (lambdaDispatch) {
+            // created on the first use of the constant
+            generator.addAttribute("private Function<" +
+                    operand.getClassName() +
+                    ", " +
+                    category.getClassName() +
+                    "> localizationFunction;");
+        }
+
+        if (lookupTables) {
+            generator.addAttribute("private final byte[] integerTable;")
+                    .addAttribute("private final int integerPeriod;")
+                    .addAttribute("private final long integerPeriodInverse;");
+        }
+
+        if (rangeTables) {
+            generator.addAttribute("private final byte[] rangeTable;");
+        }
+
+        if (lookupTables || rangeTables) {
+            generator.addAttribute("private static final " + category.getClassName() + "[] CATEGORIES = " +
+                    category.getClassName() + ".values();");
+        }
+
+        generator.addAttribute("private final int ruleSet;")
+                .addAttribute("""
+                        private static final long[] POWERS_OF_TEN = {
+                                1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+                                10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+                                1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+                        };""")
+                .addAttribute("""
+                        private static final double[] DOUBLE_POWERS_OF_TEN = {
+                                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+                        };""");
+
+        final ConditionWriter operandWriter = new ConditionWriter()
+                .bindIntegerPart("i", "f");
+        for (final String name : OPERANDS) {
+            operandWriter.bind(name, "operand." + name + "()");
+        }
+
+        // the integer path only knows i, everything else is zero
+        final ConditionWriter integerWriter = new ConditionWriter()
+                .bindIntegerPart("i", "f")
+                .bind("i", "i");
+        for (final String name : FRACTION_OPERANDS) {
+            integerWriter.fold(name, 0);
+        }
+
+        // c is a synonym of e
+        final ConditionWriter decimalWriter = new ConditionWriter()
+                .bindIntegerPart("i", "f")
+                .bind("c", "e");
+        for (final String name : OPERANDS) {
+            if (!name.equals("c")) {
+                decimalWriter.bind(name, name);
+            }
+        }
+
+        final List<String> operandCalls = new ArrayList<>(rules.size());
+        final List<String> integerCalls = new ArrayList<>(rules.size());
+        final List<String> decimalCalls = new ArrayList<>(rules.size());
+        final List<String> integerLoopCalls = new ArrayList<>(rules.size());
+        final List<String> doubleLoopCalls = new ArrayList<>(rules.size());
 
+        for (int i = 0; i < rules.size(); i++) {
+            final PluralRule rule = rules.get(i);
             final String firstLocale = rule.getLocales()[0].toLowerCase();
-            builder.append(firstLocale);
+            final String methodSuffix = Character.toUpperCase(firstLocale.charAt(0)) + firstLocale.substring(1);
 
-            builder.append("((operand) -> {\n");
+            final String arguments = i + (lookupTables ? writeTable(tables, rule, firstLocale, categories) : "");
 
-            for (final PluralRule.PluralRuleTuple tuple : rule.getPluralRules()) {
-                builder.append("   if(")
-                        .append(tuple.unwrappedConditions())
-                        .append(") {\n")
-                        .append("      return ").append(category.getClassName()).append(".")
-                        .append(tuple.type().toUpperCase())
-                        .append(";\n   }\n\n");
+            for (final String locale : rule.getLocales()) {
+                generator.addEnumValue(locale.toLowerCase() + "(" + arguments +
+                        (rangeTables ? writeRangeTable(tables, locale, categories, rangeTableNames) : "") +
+                        ")");
             }
-            builder.append("   return ").append(category.getClassName()).append(".OTHER;\n})");
 
-            generator.addEnumValue(builder.toString());
+            if (lambdaDispatch) {
+                // a class of its own instead of a lambda, so nothing has to be bootstrapped
+                // and the class is only loaded once a locale of the rule set is used
+                final StringBuilder rulesClass = new StringBuilder()
+                        .append("private static final class Rules").append(methodSuffix)
+                        .append(" implements Function<").append(operand.getClassName()).append(", ")
+                        .append(category.getClassName()).append("> {\n")
+                        .append("    @Override\n")
+                        .append("    public ").append(category.getClassName())
+                        .append(" apply(final ").append(operand.getClassName()).append(" operand) {\n");
+                writeRuleBody(rule, operandWriter, category, "        ", rulesClass);
+                generator.addMethod(rulesClass.append("    }\n}\n").toString());
 
-            for (int j = 1; j < rule.getLocales().length; j++) {
-                final String result = rule.getLocales()[j].toLowerCase() +
-                        "(" + firstLocale + ".localizationFunction)";
+                operandCalls.add("new Rules" + methodSuffix + "()");
+                this.generatedClasses.add(packageName + "." + type.getCheckerName() + "$Rules" + methodSuffix);
+            } else {
+                final StringBuilder operandMethod = new StringBuilder()
+                        .append("private static ").append(category.getClassName())
+                        .append(" rule").append(methodSuffix)
+                        .append("(final ").append(operand.getClassName()).append(" operand) {\n");
+                writeRuleBody(rule, operandWriter, category, "    ", operandMethod);
+                generator.addMethod(operandMethod.append("}\n").toString());
 
-                generator.addEnumValue(result);
+                operandCalls.add("rule" + methodSuffix + "(operand)");
             }
+
+            final StringBuilder integerMethod = new StringBuilder()
+                    .append("private static ").append(category.getClassName())
+                    .append(" integerRule").append(methodSuffix).append("(final long i) {\n");
+            writeRuleBody(BranchOrder.forIntegers(rule, LOOKUP_TABLE_LIMIT), integerWriter, category, "    ",
+                    integerMethod);
+            generator.addMethod(integerMethod.append("}\n").toString());
+
+            final StringBuilder decimalMethod = new StringBuilder()
+                    .append("private static ").append(category.getClassName())
+                    .append(" decimalRule").append(methodSuffix)
+                    .append("(final double n, final long i, final int v, final int w, final long f, final long t, final int e) {\n");
+            writeRuleBody(rule, decimalWriter, category, "    ", decimalMethod);
+            generator.addMethod(decimalMethod.append("}\n").toString());
+
+            integerCalls.add("integerRule" + methodSuffix + "(value)");
+            decimalCalls.add("decimalRule" + methodSuffix + "(n, i, v, w, f, t, e)");
+
+            writeCategorizeLoops(generator, operand, methodSuffix, lambdaDispatch
+                    ? "new Rules" + methodSuffix + "().apply(" + operand.getClassName() + ".from(value))"
+                    : "rule" + methodSuffix + "(" + operand.getClassName() + ".from(value))");
+
+            integerLoopCalls.add("integerValues" + methodSuffix + "(values, offset, ordinals, ordinalOffset, length)");
+            doubleLoopCalls.add("doubleValues" + methodSuffix + "(values, offset, ordinals, ordinalOffset, length)");
         }
 
+        final String tableParameters = (lookupTables ? ", final byte[] integerTable, final int integerPeriod" : "") +
+                (rangeTables ? ", final byte[] rangeTable" : "");
+        final String tableAssignments = (lookupTables
+                ? """
+                        this.integerTable = integerTable;
+                        this.integerPeriod = integerPeriod;
+                        this.integerPeriodInverse = integerPeriod == 0 ? 0 : Long.divideUnsigned(-1L, integerPeriod) + 1;
+                    """
+                : "") +
+                (rangeTables ? "    this.rangeTable = rangeTable;\n" : "");
+
         generator.addConstructor(
                 String.format("""
-                PluralRuleChecker(final Function<%s, %s> localizationFunction) {
-                    this.localizationFunction = localizationFunction;
-                }
+                %s(final int ruleSet%s) {
+                    this.ruleSet = ruleSet;
+                %s}
                 """,
-                operand.getClassName(),
-                category.getClassName()
+                generator.getClassName(),
+                tableParameters,
+                tableAssignments
             )
         );
 
-        generator.addMethod(
+        if (lambdaDispatch) {
+            final String function = "Function<" + operand.getClassName() + ", " + category.getClassName() + ">";
+
+            // the function is stateless, so a race only creates it twice
+            addCategoryMethod(generator, category, instrumentation, "", "public", "getCategory", "evaluate",
+                    "final " + operand.getClassName() + " operand", "operand",
+                    "    " + function + " function = this.localizationFunction;\n" +
+                    "    if (function == null) {\n" +
+                    "        function = createFunction(this.ruleSet);\n" +
+                    "        this.localizationFunction = function;\n" +
+                    "    }\n\n" +
+                    "    return function.apply(operand);\n");
+
+            generator.addMethod("private static " + function + " createFunction(final int ruleSet) {\n" +
+                    "    return " + writeSwitch("ruleSet", operandCalls, 0, operandCalls.size(), "    ") + ";\n" +
+                    "}\n");
+        } else {
+            addCategoryMethod(generator, category, instrumentation, "", "public", "getCategory", "evaluate",
+                    "final " + operand.getClassName() + " operand", "operand",
+                    writeDispatch(generator, "operandRules", category,
+                            "final " + operand.getClassName() + " operand", "operand", operandCalls));
+        }
+
+        addCategoryMethod(generator, category, instrumentation,
                 String.format("""
-                        public %s getCategory(final %s operand) {
-                            return this.localizationFunction.apply(operand);
+                        /**
+                         * Returns the category of an integer without creating an operand.
+                         * The result is the same as the result of {@code getCategory(%s.from(value))}.
+                         */
+                        """, operand.getClassName()),
+                "public", "getCategory", "evaluate", "final long value", "value",
+                (lookupTables ? """
+                                    final byte[] table = this.integerTable;
+                                    if (table != null && value >= 0) {
+                                        if (value < table.length) {
+                                            return CATEGORIES[table[(int) value]];
+                                        }
+
+                                        final int period = this.integerPeriod;
+                                        return CATEGORIES[table[table.length - period + (value <= Integer.MAX_VALUE
+                                                ? remainder((int) value, period, this.integerPeriodInverse)
+                                                : (int) (value % period))]];
+                                    }
+
+                                """ : "") +
+                writeDispatch(generator, "integerRules", category, "final long value", "value", integerCalls));
+
+        generator.addMethod(
+                        String.format("""
+                        /**
+                         * Returns the category of the decimal number {@code unscaled * 10^-scale} without creating an operand.
+                         * The scale is the number of visible fraction digits (including trailing zeros), so the result
+                         * is the same as the result of {@code getCategory(%2$s.from(BigDecimal.valueOf(unscaled, scale)))}.
+                         */
+                        public %1$s getCategory(final long unscaled, final int scale) {
+                            if (scale <= 0) {
+                                if (-scale >= POWERS_OF_TEN.length) {
+                                    throw new ArithmeticException("long overflow");
+                                }
+
+                                return getCategory(Math.multiplyExact(unscaled, POWERS_OF_TEN[-scale]));
+                            }
+
+                            return getDecimalCategory(unscaled, scale, 0);
                         }
                         """,
                         category.getClassName(),
                         operand.getClassName()
                         )
                 )
+                .addMethod(String.format("""
+                        /**
+                         * Returns the category of a number in the compact decimal notation like {@code 1.2c6}
+                         * without creating an operand. The result is the same as the result of
+                         * {@code getCategory(%2$s.from(mantissa, visibleScale, exponent))}.
+                         *
+                         * @throws IllegalArgumentException If the scale is not between 0 and 18 or the exponent is negative
+                         * @throws ArithmeticException If the integer digits of the number don't fit into a long
+                         */
+                        public %1$s getCategory(final long mantissa, final int visibleScale, final int exponent) {
+                            if (visibleScale < 0 || visibleScale >= POWERS_OF_TEN.length) {
+                                throw new IllegalArgumentException(
+                                        "The visible scale has to be between 0 and " + (POWERS_OF_TEN.length - 1) + ", but is " + visibleScale
+                                );
+                            }
+
+                            if (exponent < 0) {
+                                throw new IllegalArgumentException("The exponent can't be negative, but is " + exponent);
+                            }
+
+                            if (exponent == 0) {
+                                return getCategory(mantissa, visibleScale);
+                            }
+
+                            final int scale = visibleScale - exponent;
+                            if (scale > 0) {
+                                return getDecimalCategory(mantissa, scale, exponent);
+                            }
+
+                            if (mantissa != 0 && -scale >= POWERS_OF_TEN.length) {
+                                throw new ArithmeticException("long overflow");
+                            }
+
+                            return getDecimalCategory(mantissa == 0 ? 0 : Math.multiplyExact(mantissa, POWERS_OF_TEN[-scale]), 0, exponent);
+                        }
+                        """,
+                        category.getClassName(),
+                        operand.getClassName()
+                        )
+                );
+
+        addCategoryMethod(generator, category, instrumentation, "", "private", "getDecimalCategory", "evaluateDecimal",
+                "final long unscaled, final int scale, final int e", "unscaled, scale, e",
+                indent(DECIMAL_OPERANDS, "    ") + "\n" +
+                writeDispatch(generator, "decimalRules", category,
+                        "final double n, final long i, final int v, final int w, final long f, final long t, final int e",
+                        "n, i, v, w, f, t, e", decimalCalls));
+
+        generator
+                .addMethod(String.format("""
+                        /**
+                         * Returns the category of a double without creating an operand.
+                         * The result is the same as the result of {@code getCategory(%2$s.from(value))},
+                         * so whole numbers like {@code 1.0} still have a visible fraction digit.
+                         */
+                        public %1$s getCategory(final double value) {
+                            final int scale = %2$s.visibleScaleOf(value);
+                            if (scale < 0) {
+                                return getCategory(%2$s.from(value));
+                            }
+
+                            return getCategory(%2$s.unscaledValueOf(value, scale), scale);
+                        }
+                        """,
+                        category.getClassName(),
+                        operand.getClassName()
+                        )
+                )
+                .addMethod("""
+                        /**
+                         * Checks if the bit of the value is set in the mask, which tests
+                         * a whole list of values below 64 at once.
+                         */
+                        private static boolean isInSet(long value, long mask) {
+                            return (value >>> 6) == 0 && (mask >>> value & 1) != 0;
+                        }
+                        """)
                 .addMethod("""
                         private static boolean isInRange(int value, int min, int max) {
                             return min <= value && value <= max;
@@ -185,19 +825,876 @@ public class PluralRuleProcessor extends AbstractProcessor {
                         }
                         """)
                 .addMethod("""
+                        /**
+                         * A range only contains the integers between its bounds,
+                         * so {@code n = 0..1} is false for {@code 0.5}.
+                         */
                         private static boolean isInRange(double value, int min, int max) {
-                            return min <= value && value <= max;
+                            return min <= value && value <= max && value == Math.rint(value);
                         }
                         """);
 
-        generateClass(generator.generate());
+        addCategorizeMethods(generator, instrumentation, lookupTables, integerLoopCalls, doubleLoopCalls);
+
+        if (lookupTables) {
+            generator.addMethod("""
+                    /**
+                     * Calculates {@code value % divisor} with a multiplication instead of a division
+                     * (see Lemire et al., "Faster Remainder by Direct Computation").
+                     *
+                     * @param inverse {@code 2^64 / divisor} rounded up
+                     */
+                    private static int remainder(final int value, final int divisor, final long inverse) {
+                        final long fraction = inverse * value;
+                        return (int) (Math.multiplyHigh(fraction, divisor) + ((fraction >> 63) & divisor));
+                    }
+                    """);
+        }
+
+        if (rangeTables) {
+            generator.addMethod(String.format("""
+                    /**
+                     * Returns the category of a range like "1–3 items" by the categories
+                     * of its start and its end (see CLDR plural ranges).
+                     *
+                     * @param start The category of the start of the range
+                     * @param end The category of the end of the range
+                     * @return The category of the whole range
+                     */
+                    public %1$s getRangeCategory(final %1$s start, final %1$s end) {
+                        return CATEGORIES[this.rangeTable[start.ordinal() * CATEGORIES.length + end.ordinal()]];
+                    }
+                    """,
+                    category.getClassName()
+            ))
+                    .addMethod(String.format("""
+                    /**
+                     * Returns the category of a range like "1–3 items" by the numbers
+                     * of its start and its end (see CLDR plural ranges).
+                     *
+                     * @param start The start of the range
+                     * @param end The end of the range
+                     * @return The category of the whole range
+                     */
+                    public %1$s getRangeCategory(final long start, final long end) {
+                        return getRangeCategory(getCategory(start), getCategory(end));
+                    }
+                    """,
+                    category.getClassName()
+            ))
+                    .addMethod(String.format("""
+                    /**
+                     * Returns the category of a range like "1.5–2.0 km" by the operands
+                     * of its start and its end, which keep the visible fraction digits
+                     * (see CLDR plural ranges).
+                     *
+                     * @param start The operand of the start of the range
+                     * @param end The operand of the end of the range
+                     * @return The category of the whole range
+                     */
+                    public %1$s getRangeCategory(final %2$s start, final %2$s end) {
+                        return getRangeCategory(getCategory(start), getCategory(end));
+                    }
+                    """,
+                    category.getClassName(),
+                    operand.getClassName()
+            ));
+        }
+
+        addLocaleResolution(generator, rules);
+
+        generateClass(generator);
+
+        if (lookupTables || rangeTables) {
+            tables.addMethod("""
+                    private static byte[] decode(final String table) {
+                        final byte[] ordinals = new byte[table.length()];
+                        for (int i = 0; i < ordinals.length; i++) {
+                            ordinals[i] = (byte) (table.charAt(i) - '0');
+                        }
+
+                        return ordinals;
+                    }
+                    """);
+
+            generateClass(tables);
+        }
+    }
+
+    /**
+     * Adds the methods that resolve a {@code Locale} or a BCP 47 language tag to a checker.
+     *
+     * <p>
+     * The identifiers of all checkers are written into a string switch, so the
+     * resolution itself does not depend on {@code valueOf} and its exception.
+     * The subtags of the locale are truncated until an identifier is found
+     * ({@code zh_Hant_TW -> zh_Hant -> zh_TW -> zh -> root}) and the results are
+     * cached in a bounded concurrent map.
+     * </p>
+     *
+     * <p>
+     * The {@code parentLocales} of CLDR are applied before that: every locale whose explicit
+     * parents lead to other rules than its truncation gets its own case in the switch,
+     * so {@code pt_AO} resolves to {@code pt_PT} (through {@code pt_AO -> pt_PT}) and not to {@code pt}.
+     * </p>
+     */
+    private void addLocaleResolution(final JEnumFileGenerator generator, final List<PluralRule> rules) {
+        final String className = generator.getClassName();
+
+        generator.addImport("java.util.Locale")
+                .addImport("java.util.concurrent.ConcurrentHashMap")
+                .addImport("java.util.concurrent.ConcurrentMap");
+
+        generator.addAttribute("private static final int RESOLUTION_CACHE_LIMIT = 1024;")
+                .addAttribute("private static final ConcurrentMap<Locale, " + className +
+                        "> LOCALE_CACHE = new ConcurrentHashMap<>();")
+                .addAttribute("private static final ConcurrentMap<String, " + className +
+                        "> TAG_CACHE = new ConcurrentHashMap<>();");
+
+        final Set<String> identifiers = new HashSet<>();
+        final StringBuilder cases = new StringBuilder();
+        for (final PluralRule rule : rules) {
+            for (final String locale : rule.getLocales()) {
+                identifiers.add(locale.toLowerCase());
+                cases.append("        case \"").append(locale.toLowerCase()).append("\" -> ")
+                        .append(locale.toLowerCase()).append(";\n");
+            }
+        }
+
+        for (final String locale : new TreeSet<>(this.parentLocales.keySet())) {
+            if (identifiers.contains(locale)) {
+                continue;
+            }
+
+            final String inherited = resolveIdentifier(locale, identifiers, true);
+            if (!inherited.equals(resolveIdentifier(locale, identifiers, false))) {
+                cases.append("        case \"").append(locale).append("\" -> ")
+                        .append(inherited).append(";\n");
+            }
+        }
+
+        generator.addMethod(String.format("""
+                /**
+                 * Returns the checker of a locale.
+                 * If there are no rules for the locale itself its subtags are truncated
+                 * (for example {@code zh-Hant-TW -> zh-Hant -> zh-TW -> zh}) and every unknown
+                 * language resolves to {@code root}. The {@code parentLocales} of CLDR are
+                 * applied first, so {@code pt-AO} gets the rules of {@code pt-PT} and not of {@code pt}.
+                 *
+                 * @param locale The locale
+                 * @return The checker for the locale
+                 */
+                public static %1$s forLocale(final Locale locale) {
+                    final %1$s cached = LOCALE_CACHE.get(locale);
+                    if (cached != null) {
+                        return cached;
+                    }
+
+                    final %1$s checker = resolve(locale);
+                    if (LOCALE_CACHE.size() < RESOLUTION_CACHE_LIMIT) {
+                        LOCALE_CACHE.putIfAbsent(locale, checker);
+                    }
+
+                    return checker;
+                }
+                """, className))
+                .addMethod(String.format("""
+                /**
+                 * Returns the checker of a BCP 47 language tag like {@code sr-Latn} or {@code pt-PT}.
+                 *
+                 * @param languageTag The language tag
+                 * @return The checker for the language tag
+                 * @see #forLocale(Locale)
+                 */
+                public static %1$s forLanguageTag(final String languageTag) {
+                    final %1$s cached = TAG_CACHE.get(languageTag);
+                    if (cached != null) {
+                        return cached;
+                    }
+
+                    final %1$s checker = forLocale(Locale.forLanguageTag(languageTag));
+                    if (TAG_CACHE.size() < RESOLUTION_CACHE_LIMIT) {
+                        TAG_CACHE.putIfAbsent(languageTag, checker);
+                    }
+
+                    return checker;
+                }
+                """, className))
+                .addMethod(String.format("""
+                private static %1$s resolve(final Locale locale) {
+                    final String language = locale.getLanguage();
+                    if (language.isEmpty()) {
+                        return root;
+                    }
+
+                    final String script = locale.getScript().toLowerCase(Locale.ROOT);
+                    final String region = locale.getCountry().toLowerCase(Locale.ROOT);
+
+                    // String.join instead of + to not bootstrap a string concatenation on the first lookup
+                    %1$s checker = null;
+                    if (!script.isEmpty() && !region.isEmpty()) {
+                        checker = lookup(String.join("_", language, script, region));
+                    }
+
+                    if (checker == null && !script.isEmpty()) {
+                        checker = lookup(String.join("_", language, script));
+                    }
+
+                    if (checker == null && !region.isEmpty()) {
+                        checker = lookup(String.join("_", language, region));
+                    }
+
+                    if (checker == null) {
+                        checker = lookup(language);
+                    }
+
+                    return checker == null ? root : checker;
+                }
+                """, className))
+                .addMethod("private static " + className + " lookup(final String identifier) {\n" +
+                        "    return switch (identifier) {\n" +
+                        cases +
+                        "        default -> null;\n" +
+                        "    };\n" +
+                        "}\n");
+    }
+
+    /**
+     * Resolves a locale to the first of its parents (or itself) that has rules,
+     * with or without the explicit parents of CLDR, or to {@code root} if none of them has any.
+     */
+    private String resolveIdentifier(final String identifier, final Set<String> identifiers, final boolean explicit) {
+        String current = identifier;
+        while (current != null && !identifiers.contains(current)) {
+            if (explicit) {
+                current = parentOf(current);
+            } else {
+                final int separator = current.lastIndexOf('_');
+                current = separator == -1 ? null : current.substring(0, separator);
+            }
+        }
+
+        return current == null ? "root" : current;
+    }
+
+    /**
+     * Adds the samples of every category of a rule set to the sample lists,
+     * where every category is a comma separated string.
+     * The samples in the compact decimal notation (of both the integers and the decimals)
+     * have their own list, because they can't be written without their exponent.
+     */
+    private static void writeSamples(final PluralRule rule,
+                                     final List<String> categories,
+                                     final List<String> integerSamples,
+                                     final List<String> decimalSamples,
+                                     final List<String> compactSamples) {
+        for (final String name : categories) {
+            final Samples samples = rule.getSamples().getOrDefault(name.toLowerCase(), Samples.empty());
+
+            final StringJoiner compact = new StringJoiner(",");
+            integerSamples.add("\"" + joinSamples(samples.integers(), compact) + "\"");
+            decimalSamples.add("\"" + joinSamples(samples.decimals(), compact) + "\"");
+            compactSamples.add("\"" + compact + "\"");
+        }
+    }
+
+    private static String joinSamples(final List<String> samples, final StringJoiner compact) {
+        final StringJoiner joiner = new StringJoiner(",");
+
+        for (final String sample : samples) {
+            if (Samples.isCompact(sample)) {
+                compact.add(sample);
+            } else {
+                joiner.add(sample);
+            }
+        }
+
+        return joiner.toString();
+    }
+
+    /**
+     * Writes the classes of a {@link PluralSampleGen} with the samples of all locales,
+     * which are only meant for the tests, so they are not cached like the checkers.
+     */
+    private void writeSampleFiles(final PluralSampleGen sampleGen, final Element element) {
+        final InternalClass category = getAnnotationClassValue(element, PluralSampleGen.class, "category");
+
+        this.generatedSources = new ArrayList<>();
+        this.generatedClasses = new ArrayList<>();
+
+        for (final Map.Entry<RuleType, List<PluralRule>> entry : this.pluralRules.entrySet()) {
+            writeSamplesFile(entry.getKey(), entry.getValue(), sampleGen.packageName(), category);
+        }
+
+        for (final GeneratedSource source : this.generatedSources) {
+            try {
+                writeSourceFile(source, element);
+            } catch (final IOException exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    private void writeSamplesFile(final RuleType type,
+                                  final List<PluralRule> rules,
+                                  final String packageName,
+                                  final InternalClass category) {
+        final JClassFileGenerator generator = new JClassFileGenerator(packageName, type.getSamplesName());
+        final List<String> categories = getEnumConstants(category);
+
+        final List<String> integerSamples = new ArrayList<>();
+        final List<String> decimalSamples = new ArrayList<>();
+        final List<String> compactSamples = new ArrayList<>();
+        final StringBuilder cases = new StringBuilder();
+
+        for (int i = 0; i < rules.size(); i++) {
+            final PluralRule rule = rules.get(i);
+            writeSamples(rule, categories, integerSamples, decimalSamples, compactSamples);
+
+            final StringJoiner locales = new StringJoiner(", ");
+            for (final String locale : rule.getLocales()) {
+                locales.add("\"" + locale.toLowerCase() + "\"");
+            }
+
+            cases.append("        case ").append(locales).append(" -> ").append(i).append(";\n");
+        }
+
+        if (!category.getPackageName().equals(packageName)) {
+            generator.addImport(category.getFullName());
+        }
+
+        generator.addAttribute("private static final int CATEGORY_COUNT = " + categories.size() + ";")
+                .addArrayAttribute("private static final", "String", "INTEGERS", integerSamples)
+                .addArrayAttribute("private static final", "String", "DECIMALS", decimalSamples)
+                .addArrayAttribute("private static final", "String", "COMPACTS", compactSamples)
+                .addConstructor("private " + type.getSamplesName() + "() {\n\n}\n")
+                .addMethod(String.format("""
+                        /**
+                         * Returns the integer samples that CLDR lists for a category of a locale.
+                         * Every engine has to return the category for all of these numbers.
+                         *
+                         * @param locale The name of the checker of the locale like {@code pt_pt}
+                         * @param category The category
+                         * @return The integer samples or an empty array if there are none
+                         * @throws IllegalArgumentException If there are no rules for the locale
+                         */
+                        public static long[] getIntegerSamples(final String locale, final %1$s category) {
+                            final String[] samples = getSamples(INTEGERS, locale, category);
+
+                            final long[] values = new long[samples.length];
+                            for (int i = 0; i < values.length; i++) {
+                                values[i] = Long.parseLong(samples[i]);
+                            }
+
+                            return values;
+                        }
+                        """,
+                        category.getClassName()
+                ))
+                .addMethod(String.format("""
+                        /**
+                         * Returns the decimal samples that CLDR lists for a category of a locale.
+                         * The samples are returned as text, so that trailing zeros like in {@code 1.0}
+                         * are kept.
+                         *
+                         * @param locale The name of the checker of the locale like {@code pt_pt}
+                         * @param category The category
+                         * @return The decimal samples or an empty array if there are none
+                         * @throws IllegalArgumentException If there are no rules for the locale
+                         */
+                        public static String[] getDecimalSamples(final String locale, final %1$s category) {
+                            return getSamples(DECIMALS, locale, category);
+                        }
+                        """,
+                        category.getClassName()
+                ))
+                .addMethod(String.format("""
+                        /**
+                         * Returns the samples in the compact decimal notation like {@code 1.2c6}
+                         * that CLDR lists for a category of a locale. They can be read with
+                         * {@code PluralOperand.from(String)}, which keeps their exponent.
+                         *
+                         * @param locale The name of the checker of the locale like {@code pt_pt}
+                         * @param category The category
+                         * @return The compact samples or an empty array if there are none
+                         * @throws IllegalArgumentException If there are no rules for the locale
+                         */
+                        public static String[] getCompactSamples(final String locale, final %1$s category) {
+                            return getSamples(COMPACTS, locale, category);
+                        }
+                        """,
+                        category.getClassName()
+                ))
+                .addMethod(String.format("""
+                        private static String[] getSamples(final String[] list, final String locale, final %1$s category) {
+                            final String samples = list[ruleSetOf(locale) * CATEGORY_COUNT + category.ordinal()];
+
+                            return samples.isEmpty() ? new String[0] : samples.split(",");
+                        }
+                        """,
+                        category.getClassName()
+                ))
+                .addMethod("private static int ruleSetOf(final String locale) {\n" +
+                        "    return switch (locale) {\n" +
+                        cases +
+                        "        default -> throw new IllegalArgumentException(\"There are no rules for the locale '\" + locale + \"'\");\n" +
+                        "    };\n" +
+                        "}\n");
+
+        generateClass(generator);
+    }
+
+    /**
+     * Adds the plural range matrix of a locale to the tables class.
+     * Locales with the same matrix share a single table.
+     *
+     * @param names The names of the tables that were already written by their content
+     * @return The constructor argument for the table
+     */
+    private String writeRangeTable(final JClassFileGenerator tables,
+                                          final String locale,
+                                          final List<String> categories,
+                                          final Map<String, String> names) {
+        final PluralRanges ranges = findRanges(locale.toLowerCase());
+        final String matrix = ranges == null ? PluralRanges.encodeDefault(categories) : ranges.encode(categories);
+
+        final String name = names.computeIfAbsent(matrix, key -> {
+            final String tableName = ranges == null
+                    ? "END_RANGES"
+                    : ranges.getLocales()[0].toUpperCase() + "_RANGES";
+
+            tables.addAttribute("static final byte[] " + tableName + " = decode(\"" + key + "\");");
+
+            return tableName;
+        });
+
+        return ", " + tables.getClassName() + "." + name;
+    }
+
+    /**
+     * Finds the plural ranges of a locale, which inherits the ranges of its
+     * language like {@code pt_pt -> pt} if it has none itself.
+     */
+    private PluralRanges findRanges(final String locale) {
+        String identifier = locale;
+
+        while (true) {
+            final PluralRanges ranges = this.pluralRanges.get(identifier);
+            final int separator = identifier.lastIndexOf('_');
+
+            if (ranges != null || separator == -1) {
+                return ranges;
+            }
+
+            identifier = identifier.substring(0, separator);
+        }
+    }
+
+    /**
+     * Adds the integer lookup table of a rule set to the tables class.
+     *
+     * @return The constructor arguments for the table
+     */
+    private static String writeTable(final JClassFileGenerator tables,
+                                     final PluralRule rule,
+                                     final String firstLocale,
+                                     final List<String> categories) {
+        final Optional<IntegerLookupTable> table = IntegerLookupTable.create(rule, categories, LOOKUP_TABLE_LIMIT);
+
+        // without a modulus the rules only compare with a few literals,
+        // which is cheaper than loading the table
+        if (table.isEmpty() || table.get().getPeriod() == 1) {
+            return ", null, 0";
+        }
+
+        final String name = firstLocale.toUpperCase();
+        tables.addAttribute("static final byte[] " + name + " = decode(\"" + table.get().encode() + "\");");
+
+        return ", " + tables.getClassName() + "." + name + ", " + table.get().getPeriod();
+    }
+
+    /**
+     * Adds the loops that categorize a whole array with the rules of a single rule set.
+     * The rule set is called directly in the loop, so the JIT can inline it and the loop
+     * has neither the dispatch nor the instrumentation of {@code getCategory} in it.
+     *
+     * @param fallback The call of the rules with an operand, for the doubles without an exact scale
+     */
+    private static void writeCategorizeLoops(final JEnumFileGenerator generator,
+                                             final InternalClass operand,
+                                             final String methodSuffix,
+                                             final String fallback) {
+        generator.addMethod(String.format("""
+                        private static void integerValues%1$s(final long[] values, final int offset, final byte[] ordinals, final int ordinalOffset, final int length) {
+                            for (int index = 0; index < length; index++) {
+                                ordinals[ordinalOffset + index] = (byte) integerRule%1$s(values[offset + index]).ordinal();
+                            }
+                        }
+                        """,
+                        methodSuffix
+                ))
+                .addMethod(String.format("""
+                        private static void doubleValues%1$s(final double[] values, final int offset, final byte[] ordinals, final int ordinalOffset, final int length) {
+                            for (int index = 0; index < length; index++) {
+                                final double value = values[offset + index];
+                                final int scale = %2$s.visibleScaleOf(value);
+                                if (scale < 0) {
+                                    ordinals[ordinalOffset + index] = (byte) %3$s.ordinal();
+                                    continue;
+                                }
+
+                                final long unscaled = %2$s.unscaledValueOf(value, scale);
+                        %4$s
+                                ordinals[ordinalOffset + index] = (byte) decimalRule%1$s(n, i, v, w, f, t, 0).ordinal();
+                            }
+                        }
+                        """,
+                        methodSuffix,
+                        operand.getClassName(),
+                        fallback,
+                        indent(DECIMAL_OPERANDS, "        ")
+                ));
+    }
+
+    /**
+     * Adds the {@code categorize} methods, which select the loop of the rule set once for the whole array.
+     * The lookup table of the integers is read in the loop itself, only the negative numbers use the rules.
+     * If the checker is instrumented, every call is recorded as a single batch.
+     */
+    private static void addCategorizeMethods(final JEnumFileGenerator generator,
+                                             final InternalClass instrumentation,
+                                             final boolean lookupTables,
+                                             final List<String> integerLoopCalls,
+                                             final List<String> doubleLoopCalls) {
+        final String parameters =
+                "(final %s[] values, final int offset, final byte[] ordinals, final int ordinalOffset, final int length) {\n";
+
+        final String start = instrumentation == null ? "" : String.format(
+                "    final long start = %1$s.ENABLED ? INSTRUMENTATION.start() : 0;\n\n",
+                instrumentation.getClassName()
+        );
+        final String record = instrumentation == null ? "" : String.format("""
+
+                    if (%1$s.ENABLED) {
+                        INSTRUMENTATION.recordAll(ordinal(), ordinals, ordinalOffset, length, start);
+                    }
+                """,
+                instrumentation.getClassName()
+        );
+
+        final String integerLoop = lookupTables
+                ? """
+                    final byte[] table = this.integerTable;
+                    if (table == null) {
+                        integerValues(values, offset, ordinals, ordinalOffset, length);
+                    } else {
+                        final int period = this.integerPeriod;
+                        final long inverse = this.integerPeriodInverse;
+                        final int periodStart = table.length - period;
+
+                        for (int index = 0; index < length; index++) {
+                            final long value = values[offset + index];
+
+                            if (value < 0) {
+                                integerValues(values, offset + index, ordinals, ordinalOffset + index, 1);
+                            } else {
+                                ordinals[ordinalOffset + index] = table[value < table.length
+                                        ? (int) value
+                                        : periodStart + (value <= Integer.MAX_VALUE
+                                                ? remainder((int) value, period, inverse)
+                                                : (int) (value % period))];
+                            }
+                        }
+                    }
+                """
+                : "    integerValues(values, offset, ordinals, ordinalOffset, length);\n";
+
+        generator.addMethod("""
+                        /**
+                         * Writes the ordinal of the category of every value into the ordinals array.
+                         *
+                         * @param values The values
+                         * @param ordinals The array the ordinals of the categories are written to
+                         * @throws IndexOutOfBoundsException If the ordinals array is shorter than the values array
+                         */
+                        public void categorize(final long[] values, final byte[] ordinals) {
+                            categorize(values, 0, ordinals, 0, values.length);
+                        }
+                        """)
+                .addMethod("""
+                        /**
+                         * Writes the ordinal of the category of {@code length} values starting at {@code offset}
+                         * into the ordinals array starting at {@code ordinalOffset}.
+                         *
+                         * <p>
+                         * Nothing is allocated for the values and the rules of the locale are only looked up
+                         * once, so this is much faster than categorizing every value on its own.
+                         * </p>
+                         *
+                         * @throws IndexOutOfBoundsException If a range is outside of its array
+                         */
+                        public void categorize""" + String.format(parameters, "long") + """
+                            Objects.checkFromIndexSize(offset, length, values.length);
+                            Objects.checkFromIndexSize(ordinalOffset, length, ordinals.length);
+
+                        """ + start + integerLoop + record + "}\n")
+                .addMethod("private void integerValues" + String.format(parameters, "long") +
+                        "    " + writeSwitch("this.ruleSet", integerLoopCalls, 0, integerLoopCalls.size(), "    ") + "\n" +
+                        "}\n")
+                .addMethod("""
+                        /**
+                         * Writes the ordinal of the category of every value into the ordinals array.
+                         *
+                         * @param values The values
+                         * @param ordinals The array the ordinals of the categories are written to
+                         * @throws IndexOutOfBoundsException If the ordinals array is shorter than the values array
+                         */
+                        public void categorize(final double[] values, final byte[] ordinals) {
+                            categorize(values, 0, ordinals, 0, values.length);
+                        }
+                        """)
+                .addMethod("""
+                        /**
+                         * Writes the ordinal of the category of {@code length} values starting at {@code offset}
+                         * into the ordinals array starting at {@code ordinalOffset}. Every value has the same
+                         * category as with {@code getCategory(double)}.
+                         *
+                         * @throws IndexOutOfBoundsException If a range is outside of its array
+                         */
+                        public void categorize""" + String.format(parameters, "double") + """
+                            Objects.checkFromIndexSize(offset, length, values.length);
+                            Objects.checkFromIndexSize(ordinalOffset, length, ordinals.length);
+
+                        """ + start +
+                        "    " + writeSwitch("this.ruleSet", doubleLoopCalls, 0, doubleLoopCalls.size(), "    ") + "\n" +
+                        record + "}\n");
+    }
+
+    private static String indent(final String lines, final String indent) {
+        return lines.replaceAll("(?m)^(?=.)", indent);
+    }
+
+    /**
+     * Adds a method that returns a category. If the checker is instrumented, the body is moved into a private
+     * method and the method itself reports the category to the recorder, but only if the instrumentation is enabled.
+     */
+    private static void addCategoryMethod(final JEnumFileGenerator generator,
+                                          final InternalClass category,
+                                          final InternalClass instrumentation,
+                                          final String javadoc,
+                                          final String modifiers,
+                                          final String name,
+                                          final String evaluationName,
+                                          final String parameters,
+                                          final String arguments,
+                                          final String body) {
+        final String signature = category.getClassName() + " %s(" + parameters + ") {\n";
+
+        if (instrumentation == null) {
+            generator.addMethod(javadoc + modifiers + " " + String.format(signature, name) + body + "}\n");
+            return;
+        }
+
+        generator.addMethod(javadoc + modifiers + " " + String.format(signature, name) + String.format("""
+                            if (!%1$s.ENABLED) {
+                                return %2$s(%3$s);
+                            }
+
+                            final long start = INSTRUMENTATION.start();
+                            final %4$s category = %2$s(%3$s);
+                            INSTRUMENTATION.record(ordinal(), category.ordinal(), start);
+                            return category;
+                        }
+                        """,
+                        instrumentation.getClassName(),
+                        evaluationName,
+                        arguments,
+                        category.getClassName()
+                ))
+                .addMethod("private " + String.format(signature, evaluationName) + body + "}\n");
+    }
+
+    /**
+     * Writes the statements that call the rule set of the current constant.
+     *
+     * <p>
+     * A single switch over all rule sets is too large to be inlined by the JIT,
+     * so the cases are split into blocks of {@link #DISPATCH_BLOCK_SIZE} rule sets
+     * that are each their own (small) method.
+     * </p>
+     *
+     * @param generator The generator the block methods are added to
+     * @param name The name prefix of the block methods
+     * @param category The class of the result
+     * @param parameters The parameters of the rule set methods
+     * @param arguments The arguments that are passed to the rule set methods
+     * @param calls The call of the rule set method for every rule set
+     * @return The statements for the body of the dispatching method
+     */
+    private static String writeDispatch(final JEnumFileGenerator generator,
+                                        final String name,
+                                        final InternalClass category,
+                                        final String parameters,
+                                        final String arguments,
+                                        final List<String> calls) {
+        if (calls.size() <= DISPATCH_BLOCK_SIZE) {
+            return "    return " + writeSwitch("this.ruleSet", calls, 0, calls.size(), "    ") + ";\n";
+        }
+
+        final StringBuilder builder = new StringBuilder("    final int ruleSet = this.ruleSet;\n");
+
+        for (int start = 0; start < calls.size(); start += DISPATCH_BLOCK_SIZE) {
+            final int end = Math.min(start + DISPATCH_BLOCK_SIZE, calls.size());
+            final String method = name + (start / DISPATCH_BLOCK_SIZE);
+
+            generator.addMethod("private static " + category.getClassName() + " " + method +
+                    "(final int ruleSet, " + parameters + ") {\n" +
+                    "    return " + writeSwitch("ruleSet", calls, start, end, "    ") + ";\n" +
+                    "}\n");
+
+            if (end == calls.size()) {
+                builder.append("    return ").append(method).append("(ruleSet, ").append(arguments).append(");\n");
+            } else {
+                builder.append("    if (ruleSet < ").append(end).append(") {\n")
+                        .append("        return ").append(method).append("(ruleSet, ").append(arguments).append(");\n")
+                        .append("    }\n\n");
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static String writeSwitch(final String selector,
+                                      final List<String> calls,
+                                      final int start,
+                                      final int end,
+                                      final String indent) {
+        final StringBuilder builder = new StringBuilder("switch (").append(selector).append(") {\n");
+
+        for (int i = start; i < end; i++) {
+            builder.append(indent).append("    case ").append(i).append(" -> ").append(calls.get(i)).append(";\n");
+        }
+
+        return builder.append(indent)
+                .append("    default -> throw new IllegalStateException(\"Unknown rule set \" + ")
+                .append(selector).append(");\n")
+                .append(indent).append("}")
+                .toString();
     }
 
-    private void generateClass(final String file) throws IOException {
-        final JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile("net.quickwrite.localizer.PluralRuleChecker");
-        final Writer writer = sourceFile.openWriter();
-        writer.write(file);
-        writer.close();
+    private static void writeRuleBody(final PluralRule rule,
+                                      final ConditionWriter writer,
+                                      final InternalClass category,
+                                      final String indent,
+                                      final StringBuilder builder) {
+        writeRuleBody(rule.getPluralRules(), writer, category, indent, builder);
+    }
+
+    private static void writeRuleBody(final List<PluralRule.PluralRuleTuple> tuples,
+                                      final ConditionWriter writer,
+                                      final InternalClass category,
+                                      final String indent,
+                                      final StringBuilder builder) {
+        final StringBuilder body = new StringBuilder();
+
+        for (final PluralRule.PluralRuleTuple tuple : tuples) {
+            final String condition = writer.write(tuple.condition());
+
+            if (condition.equals(ConditionWriter.FALSE)) {
+                continue;
+            }
+
+            if (condition.equals(ConditionWriter.TRUE)) {
+                body.append(indent).append("return ").append(category.getClassName()).append(".")
+                        .append(tuple.type().toUpperCase())
+                        .append(";\n");
+
+                builder.append(writer.writeDeclarations(indent)).append(body);
+                return;
+            }
+
+            body.append(indent).append("if(")
+                    .append(condition)
+                    .append(") {\n")
+                    .append(indent).append(indent).append("return ").append(category.getClassName()).append(".")
+                    .append(tuple.type().toUpperCase())
+                    .append(";\n").append(indent).append("}\n\n");
+        }
+        body.append(indent).append("return ").append(category.getClassName()).append(".OTHER;\n");
+
+        // the locals are only known after all the conditions were written
+        builder.append(writer.writeDeclarations(indent)).append(body);
+    }
+
+    private List<String> getEnumConstants(final InternalClass enumClass) {
+        final TypeElement element = this.processingEnv.getElementUtils().getTypeElement(enumClass.getFullName());
+
+        final List<String> constants = new ArrayList<>();
+        for (final Element enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.ENUM_CONSTANT) {
+                constants.add(enclosed.getSimpleName().toString());
+            }
+        }
+
+        return constants;
+    }
+
+    private void generateClass(final JClassFileGenerator generator) {
+        final String name = generator.getPackageName() + "." + generator.getClassName();
+
+        this.generatedSources.add(new GeneratedSource(name, generator::write, false));
+        this.generatedClasses.add(name);
+    }
+
+    /**
+     * Writes the resources that shorten the startup of the generated classes.
+     *
+     * <p>
+     * The {@code native-image.properties} let GraalVM initialize the classes while the native image is built,
+     * so their tables are already in the image heap. The {@code classlist} names all generated classes
+     * (including the rule classes of the lambda dispatch) in the format of {@code -XX:SharedClassListFile},
+     * so they can be added to the class list of an AppCDS archive.
+     * </p>
+     */
+    private void writeStartupResources(final String packageName,
+                                       final InternalClass category,
+                                       final InternalClass instrumentation) {
+        final String directory = "META-INF/native-image/" + packageName + "/plural-rules/";
+        final String header = "# This file was automatically generated.\n";
+
+        // the generated classes and the classes their static initializers use
+        final List<String> initialized = new ArrayList<>(this.generatedClasses);
+        initialized.removeIf(name -> name.contains("$"));
+        initialized.add(category.getFullName());
+        if (instrumentation != null) {
+            initialized.add(instrumentation.getFullName());
+        }
+
+        final String properties = header + "Args = --initialize-at-build-time=" + String.join(",", initialized) + "\n";
+        this.generatedSources.add(new GeneratedSource(directory + "native-image.properties",
+                writer -> writer.write(properties), true));
+
+        final StringBuilder classList = new StringBuilder(header);
+        for (final String name : this.generatedClasses) {
+            classList.append(name.replace('.', '/')).append('\n');
+        }
+
+        final String classes = classList.toString();
+        this.generatedSources.add(new GeneratedSource(directory + "classlist", writer -> writer.write(classes), true));
+    }
+
+    /**
+     * Writes a generated source with the annotated element as its only origin,
+     * which is what Gradle needs for isolating incremental processing.
+     */
+    private void writeSourceFile(final GeneratedSource source, final Element origin) throws IOException {
+        final FileObject file = source.resource()
+                ? processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", source.name(), origin)
+                : processingEnv.getFiler().createSourceFile(source.name(), origin);
+
+        try (final Writer writer = new BufferedWriter(file.openWriter())) {
+            source.content().write(writer);
+        }
     }
 
     private Optional<? extends AnnotationMirror> getAnnotationMirror(final Element element, final Class<? extends Annotation> annotationClass) {
@@ -226,6 +1723,45 @@ public class PluralRuleProcessor extends AbstractProcessor {
         return new InternalClass(className);
     }
 
+    private enum RuleType {
+        CARDINAL("cardinal", "PluralRuleChecker", "PluralRuleTables", "PluralRuleSamples"),
+        ORDINAL("ordinal", "OrdinalRuleChecker", "OrdinalRuleTables", "OrdinalRuleSamples");
+
+        private final String name;
+        private final String checkerName;
+        private final String tablesName;
+        private final String samplesName;
+
+        RuleType(final String name, final String checkerName, final String tablesName, final String samplesName) {
+            this.name = name;
+            this.checkerName = checkerName;
+            this.tablesName = tablesName;
+            this.samplesName = samplesName;
+        }
+
+        public static RuleType fromName(final String name) {
+            for (final RuleType type : values()) {
+                if (type.name.equals(name)) {
+                    return type;
+                }
+            }
+
+            throw new IllegalArgumentException("Unknown plural rule type '" + name + "'");
+        }
+
+        public String getCheckerName() {
+            return this.checkerName;
+        }
+
+        public String getTablesName() {
+            return this.tablesName;
+        }
+
+        public String getSamplesName() {
+            return this.samplesName;
+        }
+    }
+
     private static class InternalClass {
         private final String packageName;
         private final String className;
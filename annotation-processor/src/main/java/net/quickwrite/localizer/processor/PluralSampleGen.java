@@ -0,0 +1,29 @@
+package net.quickwrite.localizer.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the {@code PluralRuleSamples} and {@code OrdinalRuleSamples} classes with the samples
+ * that CLDR lists for every category of every locale, so that tests and benchmarks can check the
+ * generated rules against them.
+ *
+ * <pre>{@code
+ * @PluralSampleGen(packageName = "com.example", category = PluralCategory.class)
+ *
+ * PluralRuleSamples.getCompactSamples("fr", PluralCategory.MANY); // 1c6, 2c6, 3c6, ...
+ * }</pre>
+ *
+ * <p>
+ * The samples are only meant for the test sources, which is why they are not part of the
+ * classes of the {@link PluralRuleGen}: together they are about 30 KB of strings.
+ * </p>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface PluralSampleGen {
+    String packageName();
+    Class<? extends Enum<?>> category();
+}
@@ -0,0 +1,155 @@
+package net.quickwrite.localizer.processor.fallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The character fallback substitutions as dense tables.
+ *
+ * <p>
+ * Every character with substitutes gets an entry number starting at {@code 1}.
+ * The entries of the BMP are found with a two-level table: The high byte of a character
+ * selects a block of {@value #BLOCK_SIZE} entry numbers and the low byte the entry in it.
+ * All blocks without any substitutes share the empty block {@code 0}.
+ * The supplementary characters are a sorted list of code points with their entry numbers.
+ * </p>
+ *
+ * <p>
+ * The substitutes of entry {@code e} are {@code substituteIndex[e - 1]} (inclusive)
+ * to {@code substituteIndex[e]} (exclusive), and substitute {@code s} is the text of
+ * {@code substitutes} from {@code substituteOffsets[s]} to {@code substituteOffsets[s + 1]}.
+ * </p>
+ */
+public final class FallbackTable {
+    public static final int BLOCK_SHIFT = 8;
+    public static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final char[] blocks;
+    private final char[] entries;
+    private final char[] substituteIndex;
+    private final char[] substituteOffsets;
+    private final String substitutes;
+    private final int[] supplementaryCodePoints;
+    private final char[] supplementaryEntries;
+
+    private FallbackTable(final char[] blocks,
+                          final char[] entries,
+                          final char[] substituteIndex,
+                          final char[] substituteOffsets,
+                          final String substitutes,
+                          final int[] supplementaryCodePoints,
+                          final char[] supplementaryEntries) {
+        this.blocks = blocks;
+        this.entries = entries;
+        this.substituteIndex = substituteIndex;
+        this.substituteOffsets = substituteOffsets;
+        this.substitutes = substitutes;
+        this.supplementaryCodePoints = supplementaryCodePoints;
+        this.supplementaryEntries = supplementaryEntries;
+    }
+
+    /**
+     * Creates the tables of the substitutions.
+     *
+     * @param fallbacks The substitutes of every code point in the order they should be tried
+     * @return The tables
+     * @throws IllegalArgumentException If the substitutions don't fit into the tables of chars
+     */
+    public static FallbackTable create(final SortedMap<Integer, List<String>> fallbacks) {
+        final List<char[]> usedBlocks = new ArrayList<>();
+        usedBlocks.add(new char[BLOCK_SIZE]);
+
+        final char[] blocks = new char[Character.MAX_VALUE + 1 >> BLOCK_SHIFT];
+        final char[] substituteIndex = new char[fallbacks.size() + 1];
+        final List<Integer> offsets = new ArrayList<>();
+        final StringBuilder substitutes = new StringBuilder();
+
+        final List<Integer> supplementaryCodePoints = new ArrayList<>();
+        final StringBuilder supplementaryEntries = new StringBuilder();
+
+        int entry = 0;
+        for (final Map.Entry<Integer, List<String>> fallback : fallbacks.entrySet()) {
+            entry++;
+
+            for (final String substitute : fallback.getValue()) {
+                offsets.add(substitutes.length());
+                substitutes.append(substitute);
+            }
+            substituteIndex[entry] = toChar(offsets.size(), "substitutes");
+
+            final int codePoint = fallback.getKey();
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                supplementaryCodePoints.add(codePoint);
+                supplementaryEntries.append(toChar(entry, "entries"));
+                continue;
+            }
+
+            final int high = codePoint >>> BLOCK_SHIFT;
+            if (blocks[high] == 0) {
+                blocks[high] = toChar(usedBlocks.size(), "blocks");
+                usedBlocks.add(new char[BLOCK_SIZE]);
+            }
+
+            usedBlocks.get(blocks[high])[codePoint & BLOCK_SIZE - 1] = toChar(entry, "entries");
+        }
+        offsets.add(substitutes.length());
+
+        final char[] entries = new char[usedBlocks.size() * BLOCK_SIZE];
+        for (int block = 0; block < usedBlocks.size(); block++) {
+            System.arraycopy(usedBlocks.get(block), 0, entries, block * BLOCK_SIZE, BLOCK_SIZE);
+        }
+
+        final char[] substituteOffsets = new char[offsets.size()];
+        for (int index = 0; index < substituteOffsets.length; index++) {
+            substituteOffsets[index] = toChar(offsets.get(index), "the text of the substitutes");
+        }
+
+        return new FallbackTable(
+                blocks,
+                entries,
+                substituteIndex,
+                substituteOffsets,
+                substitutes.toString(),
+                supplementaryCodePoints.stream().mapToInt(Integer::intValue).toArray(),
+                supplementaryEntries.toString().toCharArray()
+        );
+    }
+
+    private static char toChar(final int value, final String description) {
+        if (value > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("There are too many " + description + " for the character fallback tables");
+        }
+
+        return (char) value;
+    }
+
+    public char[] getBlocks() {
+        return blocks;
+    }
+
+    public char[] getEntries() {
+        return entries;
+    }
+
+    public char[] getSubstituteIndex() {
+        return substituteIndex;
+    }
+
+    public char[] getSubstituteOffsets() {
+        return substituteOffsets;
+    }
+
+    public String getSubstitutes() {
+        return substitutes;
+    }
+
+    public int[] getSupplementaryCodePoints() {
+        return supplementaryCodePoints;
+    }
+
+    public char[] getSupplementaryEntries() {
+        return supplementaryEntries;
+    }
+}
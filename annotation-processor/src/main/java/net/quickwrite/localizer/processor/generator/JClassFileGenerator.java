@@ -1,21 +1,127 @@
 package net.quickwrite.localizer.processor.generator;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
 public class JClassFileGenerator {
+    /**
+     * The estimated bytes of bytecode that are written into a single method, which is shared by all
+     * the initializers of the static constructor. This keeps every generated method far away from
+     * the limit of 64 KB, even if the estimates are off, and leaves room for the initializers of
+     * the other attributes.
+     */
+    private static final int METHOD_SIZE_LIMIT = 32 * 1024;
+
+    /**
+     * The estimated number of constants that the initializers can add to the class itself,
+     * so that the rest of the limit of 65535 constants is left for everything else in the class.
+     */
+    private static final int CLASS_CONSTANT_LIMIT = 16 * 1024;
+
+    /**
+     * The estimated number of constants of a nested helper class, which only contains initializers.
+     */
+    private static final int HELPER_CONSTANT_LIMIT = 32 * 1024;
+
+    /**
+     * The estimated bytecode of storing a literal into an array: Loading the array and the index
+     * ({@code sipush} or {@code ldc_w} for large arrays), loading the literal ({@code ldc_w} at most)
+     * and storing it, so 7 to 10 bytes.
+     */
+    private static final int ELEMENT_SIZE = 10;
+
+    /**
+     * The estimated number of constants of a literal, like a {@code String} and its UTF-8 entry
+     * or the {@code Integer} of a large value and the one of its index.
+     */
+    private static final int ELEMENT_CONSTANTS = 2;
+
+    /**
+     * The estimated bytecode and constants of creating an array and assigning it to its attribute.
+     */
+    private static final int ARRAY_SIZE = 10;
+    private static final int ARRAY_CONSTANTS = 4;
+
+    /**
+     * The estimated bytecode and constants of calling a helper method with an attribute as its argument.
+     */
+    private static final int CALL_SIZE = 6;
+    private static final int CALL_CONSTANTS = 6;
+
     private final String packageName;
     private final String className;
 
     private final List<String> imports;
 
-    private final List<String> attributes;
+    private final List<Member> attributes;
     private final List<String> methods;
 
     private final List<String> staticConstructor;
 
     private final List<String> constructor;
 
+    /**
+     * A part of the class that writes itself.
+     */
+    @FunctionalInterface
+    protected interface Member {
+        void write(SourceWriter writer, InitializerBudget budget) throws IOException;
+    }
+
+    /**
+     * The estimated bytecode of the static constructor of the class and the estimated number of constants
+     * that its initializers have added to the class so far. The estimates are rather too large than too small.
+     */
+    protected static final class InitializerBudget {
+        private int size;
+        private int constants;
+
+        /**
+         * Adds code to the static constructor if it still fits.
+         *
+         * @return If the code fits
+         */
+        boolean tryUse(final int size, final int constants) {
+            if (this.size + size > METHOD_SIZE_LIMIT || this.constants + constants > CLASS_CONSTANT_LIMIT) {
+                return false;
+            }
+
+            use(size, constants);
+            return true;
+        }
+
+        /**
+         * Adds code to the static constructor, which has to be there even if the budget is exhausted.
+         */
+        void use(final int size, final int constants) {
+            this.size += size;
+            this.constants += constants;
+        }
+
+        /**
+         * Adds constants of code outside of the static constructor to the class if they still fit.
+         *
+         * @return If the constants fit
+         */
+        boolean tryUseConstants(final int constants) {
+            if (this.constants + constants > CLASS_CONSTANT_LIMIT) {
+                return false;
+            }
+
+            this.constants += constants;
+            return true;
+        }
+    }
+
+    /**
+     * A statement with its estimated bytecode and constants.
+     */
+    private record Statement(String source, int size, int constants) {
+
+    }
+
     public JClassFileGenerator(final String packageName, final String className) {
         this.packageName = packageName;
         this.className = className;
@@ -35,8 +141,41 @@ public class JClassFileGenerator {
         return this;
     }
 
+    /**
+     * Adds an attribute as it is. Its initializer is not part of the budget of the static constructor,
+     * so larger initializers have to be added with {@link #addArrayAttribute(String, String, String, List)}.
+     *
+     * @param attribute The source of the attribute
+     * @return This generator
+     */
     public JClassFileGenerator addAttribute(final String attribute) {
-        this.attributes.add(attribute);
+        this.attributes.add((writer, budget) -> writer.lines(attribute));
+
+        return this;
+    }
+
+    /**
+     * Adds a static array attribute with its elements.
+     *
+     * <p>
+     * The elements are usually written as the initializer of the array. If that would not fit into what is
+     * left of the static constructor, the array is created empty and filled by helper methods instead,
+     * which are moved into nested helper classes if the constants of the elements don't fit into the class.
+     * </p>
+     *
+     * @param modifiers The modifiers of the attribute, like {@code private static final}
+     * @param type The component type of the array
+     * @param name The name of the attribute
+     * @param elements The source of every element
+     * @return This generator
+     */
+    public JClassFileGenerator addArrayAttribute(final String modifiers,
+                                                 final String type,
+                                                 final String name,
+                                                 final List<String> elements) {
+        final List<String> values = List.copyOf(elements);
+
+        this.attributes.add((writer, budget) -> writeArray(writer, budget, modifiers, type, name, values));
 
         return this;
     }
@@ -47,6 +186,13 @@ public class JClassFileGenerator {
         return this;
     }
 
+    /**
+     * Adds a statement to the static constructor. If the static constructor gets too large,
+     * its statements are split into helper methods, so they must not assign final attributes.
+     *
+     * @param staticConstructorElement The statement
+     * @return This generator
+     */
     public JClassFileGenerator addStaticConstructorElement(final String staticConstructorElement) {
         this.staticConstructor.add(staticConstructorElement);
 
@@ -59,78 +205,286 @@ public class JClassFileGenerator {
         return this;
     }
 
-    public String generate() {
-        return String.format("""
-                        /**
-                        * This file was automatically generated.
-                        * Don't change this class as these changes will be lost.
-                        */
-                        package %s;
-                                        
-                        %s
-                                        
-                        public class %s {
-                            // attributes
-                            %s
-                            
-                            // static constructor
-                            static {
-                                %s
-                            }
-                            
-                            // constructor
-                            %s
-                            
-                            // methods
-                            %s
-                        }
-                        """,
-                this.packageName,
-                formatImports(this.imports),
-                this.className,
-                formatLines(this.attributes, 4),
-                formatLines(this.staticConstructor, 8),
-                formatLines(this.constructor, 4),
-                formatLines(this.methods, 4)
-        );
-    }
-
-    protected static String formatImports(final List<String> imports) {
-        final StringBuilder builder = new StringBuilder();
-
-        for (int i = 0; i < imports.size(); i++) {
-            builder.append("import ");
-            builder.append(imports.get(i));
-            builder.append(";");
-
-            if (i != imports.size() - 1) {
-                builder.append("\n");
+    /**
+     * Writes the source of the class. Everything is streamed into the writer as it is generated.
+     *
+     * @param writer The writer of the source file
+     * @throws IOException If the source file can't be written
+     */
+    public void write(final Writer writer) throws IOException {
+        final SourceWriter source = new SourceWriter(writer);
+
+        source.lines("""
+                /**
+                * This file was automatically generated.
+                * Don't change this class as these changes will be lost.
+                */""")
+                .line("package " + this.packageName + ";")
+                .blankLine();
+
+        if (!this.imports.isEmpty()) {
+            for (final String importPath : this.imports) {
+                source.line("import " + importPath + ";");
             }
+
+            source.blankLine();
         }
 
-        return builder.toString();
+        source.open("public " + getKind() + " " + this.className);
+        writeMembers(source, new InitializerBudget());
+        source.close();
     }
 
-    protected static String formatLines(final List<String> list, final int indent) {
-        final StringBuilder builder = new StringBuilder();
+    /**
+     * Returns the keyword of the kind of the type, like {@code class}.
+     */
+    protected String getKind() {
+        return "class";
+    }
+
+    /**
+     * Writes everything inside the body of the class.
+     *
+     * @param budget The budget of the static constructor, which everything that is
+     *               part of the static constructor has to be added to
+     */
+    protected void writeMembers(final SourceWriter writer, final InitializerBudget budget) throws IOException {
+        writer.line("// attributes");
+        for (int i = 0; i < this.attributes.size(); i++) {
+            if (i != 0) {
+                writer.blankLine();
+            }
 
+            this.attributes.get(i).write(writer, budget);
+        }
+
+        if (!this.staticConstructor.isEmpty()) {
+            final List<Statement> statements = new ArrayList<>(this.staticConstructor.size());
+            for (final String statement : this.staticConstructor) {
+                statements.add(new Statement(statement, sizeOf(statement), constantsOf(statement)));
+            }
+
+            writer.blankLine()
+                    .line("// static constructor");
+            writeStatements(writer, budget, "Static", "", "", statements);
+        }
+
+        writer.blankLine()
+                .line("// constructor");
+        writeLines(writer, this.constructor);
+
+        writer.blankLine()
+                .line("// methods");
+        writeLines(writer, this.methods);
+    }
+
+    /**
+     * Writes the elements with a blank line between them.
+     */
+    protected static void writeLines(final SourceWriter writer, final List<String> list) throws IOException {
         for (int i = 0; i < list.size(); i++) {
-            final String[] stringList = list.get(i).split("\n");
+            if (i != 0) {
+                writer.blankLine();
+            }
 
-            for (int j = 0; j < stringList.length; j++) {
-                if (!(i == 0 && j == 0)) {
-                    builder.append(" ".repeat(Math.max(0, indent)));
-                }
+            writer.lines(list.get(i));
+        }
+    }
 
-                builder.append(stringList[j]);
+    private static void writeArray(final SourceWriter writer,
+                                   final InitializerBudget budget,
+                                   final String modifiers,
+                                   final String type,
+                                   final String name,
+                                   final List<String> elements) throws IOException {
+        int size = ARRAY_SIZE;
+        int constants = ARRAY_CONSTANTS;
+        for (final String element : elements) {
+            size += sizeOf(element);
+            constants += constantsOf(element);
+        }
+
+        if (budget.tryUse(size, constants)) {
+            writer.open(modifiers + " " + type + "[] " + name + " =");
+            for (int i = 0; i < elements.size(); i++) {
+                writer.line(elements.get(i) + (i != elements.size() - 1 ? "," : ""));
+            }
+            writer.close("};");
+
+            return;
+        }
+
+        budget.use(ARRAY_SIZE, ARRAY_CONSTANTS);
+        writer.line(modifiers + " " + type + "[] " + name + " = new " + type + "[" + elements.size() + "];");
+
+        final List<Statement> statements = new ArrayList<>(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            final String element = elements.get(i);
+            statements.add(new Statement("values[" + i + "] = " + element + ";", sizeOf(element), constantsOf(element)));
+        }
+
+        writeStatements(writer, budget, toCamelCase(name), "final " + type + "[] values", name, statements);
+    }
+
+    /**
+     * Writes a static block that executes the statements. If they don't fit into what is left of the
+     * static constructor, the block calls helper methods that execute a part of the statements each,
+     * and these are grouped into nested helper classes if their constants don't fit into the class.
+     *
+     * @param name The name that is part of the names of the helper methods and classes
+     * @param parameters The parameters of the helper methods
+     * @param arguments The arguments that are passed to the helper methods
+     */
+    private static void writeStatements(final SourceWriter writer,
+                                        final InitializerBudget budget,
+                                        final String name,
+                                        final String parameters,
+                                        final String arguments,
+                                        final List<Statement> statements) throws IOException {
+        int size = 0;
+        int constants = 0;
+        for (final Statement statement : statements) {
+            size += statement.size();
+            constants += statement.constants();
+        }
 
-                if (!(i == list.size() - 1 && j == stringList.length - 1)) {
-                    builder.append("\n");
+        if (budget.tryUse(size, constants)) {
+            writer.open("static");
+            writeStatements(writer, statements);
+            writer.close();
+
+            return;
+        }
+
+        // the index of the first statement of every method, followed by the end
+        final List<Integer> methods = new ArrayList<>();
+        int methodSize = 0;
+        for (int i = 0; i < statements.size(); i++) {
+            final int statementSize = statements.get(i).size();
+
+            if (i == 0 || methodSize + statementSize > METHOD_SIZE_LIMIT) {
+                methods.add(i);
+                methodSize = 0;
+            }
+
+            methodSize += statementSize;
+        }
+        methods.add(statements.size());
+
+        final int methodCount = methods.size() - 1;
+
+        final int[] methodConstants = new int[methodCount];
+        for (int method = 0; method < methodCount; method++) {
+            for (final Statement statement : statements.subList(methods.get(method), methods.get(method + 1))) {
+                methodConstants[method] += statement.constants();
+            }
+        }
+
+        // the helper class of every method, if the methods can't stay in the class itself
+        final boolean helperClasses = !budget.tryUseConstants(constants);
+        final int[] classes = new int[methodCount];
+        int classConstants = 0;
+        for (int method = 0; helperClasses && method < methodCount; method++) {
+            classes[method] = method == 0 ? 0 : classes[method - 1];
+
+            if (method != 0 && classConstants + methodConstants[method] > HELPER_CONSTANT_LIMIT) {
+                classes[method]++;
+                classConstants = 0;
+            }
+
+            classConstants += methodConstants[method];
+        }
+
+        budget.use(methodCount * CALL_SIZE, methodCount * CALL_CONSTANTS);
+
+        writer.open("static");
+        for (int method = 0; method < methodCount; method++) {
+            writer.line((helperClasses ? name + "Initializer" + classes[method] + "." : "") +
+                    "init" + name + method + "(" + arguments + ");");
+        }
+        writer.close();
+
+        for (int method = 0; method < methodCount; method++) {
+            if (helperClasses && (method == 0 || classes[method] != classes[method - 1])) {
+                writer.blankLine()
+                        .open("private static final class " + name + "Initializer" + classes[method]);
+            }
+
+            writer.blankLine()
+                    .open((helperClasses ? "static" : "private static") + " void init" + name + method + "(" + parameters + ")");
+            writeStatements(writer, statements.subList(methods.get(method), methods.get(method + 1)));
+            writer.close();
+
+            if (helperClasses && (method == methodCount - 1 || classes[method] != classes[method + 1])) {
+                writer.close();
+            }
+        }
+    }
+
+    private static void writeStatements(final SourceWriter writer, final List<Statement> statements) throws IOException {
+        for (final Statement statement : statements) {
+            writer.lines(statement.source());
+        }
+    }
+
+    /**
+     * Estimates the bytecode of storing an expression into an array. A literal has a fixed size,
+     * but the size of any other expression is only known to be smaller than its source.
+     */
+    private static int sizeOf(final String expression) {
+        return isLiteral(expression) ? ELEMENT_SIZE : ELEMENT_SIZE + expression.length();
+    }
+
+    private static int constantsOf(final String expression) {
+        return isLiteral(expression) ? ELEMENT_CONSTANTS : ELEMENT_CONSTANTS + expression.length() / 4;
+    }
+
+    /**
+     * Checks if the expression is a single number, character or string literal, {@code true}, {@code false} or {@code null}.
+     */
+    private static boolean isLiteral(final String expression) {
+        if (expression.isEmpty()) {
+            return false;
+        }
+
+        final char first = expression.charAt(0);
+        if (first == '"' || first == '\'') {
+            // the literal has to end at its first quote that is not escaped
+            for (int i = 1; i < expression.length(); i++) {
+                final char character = expression.charAt(i);
+
+                if (character == '\\') {
+                    i++;
+                } else if (character == first) {
+                    return i == expression.length() - 1;
                 }
             }
 
-            if (i != list.size() - 1) {
-                builder.append("\n");
+            return false;
+        }
+
+        final int start = first == '-' ? 1 : 0;
+        if (start == expression.length() || !Character.isDigit(expression.charAt(start))) {
+            return expression.equals("true") || expression.equals("false") || expression.equals("null");
+        }
+
+        for (int i = start; i < expression.length(); i++) {
+            final char character = expression.charAt(i);
+
+            if (!Character.isLetterOrDigit(character) && character != '.' && character != '_') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String toCamelCase(final String constantName) {
+        final StringBuilder builder = new StringBuilder(constantName.length());
+
+        for (final String part : constantName.split("_")) {
+            if (!part.isEmpty()) {
+                builder.append(part.charAt(0)).append(part.substring(1).toLowerCase());
             }
         }
 
@@ -149,10 +503,6 @@ public class JClassFileGenerator {
         return imports;
     }
 
-    public List<String> getAttributes() {
-        return attributes;
-    }
-
     public List<String> getMethods() {
         return methods;
     }
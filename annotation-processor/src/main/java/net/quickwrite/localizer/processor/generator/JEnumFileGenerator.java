@@ -1,9 +1,17 @@
 package net.quickwrite.localizer.processor.generator;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 public class JEnumFileGenerator extends JClassFileGenerator {
+    /**
+     * The estimated bytecode and constants of creating an enum value in the static constructor
+     * and adding it to the array of all values.
+     */
+    private static final int VALUE_SIZE = 24;
+    private static final int VALUE_CONSTANTS = 6;
+
     private final List<String> enumValues;
 
     public JEnumFileGenerator(final String packageName, final String className) {
@@ -13,54 +21,27 @@ public class JEnumFileGenerator extends JClassFileGenerator {
     }
 
     @Override
-    public String generate() {
-        return String.format("""
-                        /**
-                        * This file was automatically generated.
-                        * Don't change this class as these changes will be lost.
-                        */
-                        package %s;
-                                        
-                        %s
-                                        
-                        public enum %s {
-                            // enum values
-                            %s
-                        
-                            // attributes
-                            %s
-                            
-                            // static constructor
-                            static {
-                                %s
-                            }
-                            
-                            // constructor
-                            %s
-                            
-                            // methods
-                            %s
-                        }
-                        """,
-                getPackageName(),
-                formatImports(getImports()),
-                getClassName(),
-                formatLines(formatEnumValues(this.enumValues), 4),
-                formatLines(getAttributes(), 4),
-                formatLines(getStaticConstructor(), 8),
-                formatLines(getConstructor(), 4),
-                formatLines(getMethods(), 4)
-        );
+    protected String getKind() {
+        return "enum";
     }
 
-    protected List<String> formatEnumValues(final List<String> list) {
-        final List<String> result = new ArrayList<>(list.size());
+    @Override
+    protected void writeMembers(final SourceWriter writer, final InitializerBudget budget) throws IOException {
+        writer.line("// enum values");
+
+        if (this.enumValues.isEmpty()) {
+            writer.line(";");
+        }
+
+        for (int i = 0; i < this.enumValues.size(); i++) {
+            final String enumValue = this.enumValues.get(i);
 
-        for (int i = 0; i < list.size(); i++) {
-            result.add(list.get(i) + (i != list.size() - 1 ? ',' : ';'));
+            budget.use(VALUE_SIZE + enumValue.length(), VALUE_CONSTANTS + enumValue.length() / 4);
+            writer.line(enumValue + (i != this.enumValues.size() - 1 ? ',' : ';'));
         }
 
-        return result;
+        writer.blankLine();
+        super.writeMembers(writer, budget);
     }
 
     public JEnumFileGenerator addEnumValue(final String enumValue) {
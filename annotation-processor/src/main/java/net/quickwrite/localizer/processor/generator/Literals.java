@@ -0,0 +1,41 @@
+package net.quickwrite.localizer.processor.generator;
+
+/**
+ * Writes values as the literals of the generated sources.
+ */
+public final class Literals {
+    private Literals() {
+
+    }
+
+    /**
+     * Writes the chars as a Java string literal. Only printable ASCII is written as it is,
+     * because a unicode escape of a line break or a quote would end the literal.
+     *
+     * @param chars The chars
+     * @return The literal including the quotes
+     */
+    public static String toLiteral(final CharSequence chars) {
+        final StringBuilder builder = new StringBuilder(chars.length() * 2 + 2).append('"');
+
+        for (int index = 0; index < chars.length(); index++) {
+            final char character = chars.charAt(index);
+
+            switch (character) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                default -> {
+                    if (character >= 0x20 && character < 0x7F) {
+                        builder.append(character);
+                    } else {
+                        builder.append(String.format("\\u%04x", (int) character));
+                    }
+                }
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+}
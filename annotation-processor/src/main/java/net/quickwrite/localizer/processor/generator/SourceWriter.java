@@ -0,0 +1,127 @@
+package net.quickwrite.localizer.processor.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes Java source code line by line into a {@link Writer} and keeps track of the indentation,
+ * so that a generated file is streamed into its output and never has to be held in memory as a whole.
+ */
+public class SourceWriter {
+    private static final String INDENT = "    ";
+
+    private final Writer writer;
+    private int indent;
+
+    public SourceWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes a single line with the current indentation.
+     *
+     * @param line The line without its line break
+     * @return This writer
+     * @throws IOException If the output can't be written
+     */
+    public SourceWriter line(final String line) throws IOException {
+        if (line.isEmpty()) {
+            return blankLine();
+        }
+
+        writeIndent();
+        this.writer.write(line);
+        this.writer.write('\n');
+
+        return this;
+    }
+
+    /**
+     * Writes a line without any indentation.
+     *
+     * @return This writer
+     * @throws IOException If the output can't be written
+     */
+    public SourceWriter blankLine() throws IOException {
+        this.writer.write('\n');
+
+        return this;
+    }
+
+    /**
+     * Writes a text with multiple lines, where every line gets the current indentation
+     * in addition to its own. A trailing line break of the text is ignored.
+     *
+     * @param text The lines
+     * @return This writer
+     * @throws IOException If the output can't be written
+     */
+    public SourceWriter lines(final String text) throws IOException {
+        int start = 0;
+
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+
+            if (end > start) {
+                writeIndent();
+                this.writer.write(text, start, end - start);
+            }
+
+            this.writer.write('\n');
+            start = end + 1;
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes the header of a block like {@code static} followed by an opening brace
+     * and indents everything until the block is {@link #close() closed}.
+     *
+     * @param header The header of the block
+     * @return This writer
+     * @throws IOException If the output can't be written
+     */
+    public SourceWriter open(final String header) throws IOException {
+        line(header + " {");
+        this.indent++;
+
+        return this;
+    }
+
+    /**
+     * Closes the current block with a closing brace.
+     *
+     * @return This writer
+     * @throws IOException If the output can't be written
+     */
+    public SourceWriter close() throws IOException {
+        return close("}");
+    }
+
+    /**
+     * Closes the current block with another end than a single brace, like {@code };}.
+     *
+     * @param end The end of the block
+     * @return This writer
+     * @throws IOException If the output can't be written
+     */
+    public SourceWriter close(final String end) throws IOException {
+        if (this.indent == 0) {
+            throw new IllegalStateException("There is no block that could be closed");
+        }
+
+        this.indent--;
+
+        return line(end);
+    }
+
+    private void writeIndent() throws IOException {
+        for (int i = 0; i < this.indent; i++) {
+            this.writer.write(INDENT);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package net.quickwrite.localizer.processor.message;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message with a plural argument in the syntax of the ICU {@code MessageFormat}, which is
+ * parsed while the messages are generated. The syntax is the same subset that
+ * {@code PluralMessage} supports at runtime:
+ *
+ * <ul>
+ *     <li>All the arguments refer to the same number and {@code #} is the number inside a plural argument.</li>
+ *     <li>The selectors are the names of the CLDR categories or explicit values like {@code =0}.</li>
+ *     <li>Plural arguments can't be nested and {@code offset:} is not supported.</li>
+ *     <li>An apostrophe in front of a syntax character starts a quoted text and two apostrophes are a single one.</li>
+ * </ul>
+ */
+public final class MessagePattern {
+    private static final List<String> CATEGORIES = List.of("zero", "one", "two", "few", "many", "other");
+
+    private final String argument;
+    private final List<Part> parts;
+
+    /**
+     * A part of a message, which is either a {@link Text}, the {@link Argument} or a {@link Plural}.
+     */
+    public interface Part {
+
+    }
+
+    /**
+     * @param text The text, in which all the quoting is already resolved
+     */
+    public record Text(String text) implements Part {
+
+    }
+
+    /**
+     * The number itself.
+     */
+    public record Argument() implements Part {
+
+    }
+
+    /**
+     * A plural argument.
+     *
+     * @param categories The messages by the lowercase name of their category, which always contain {@code other}
+     * @param explicitValues The messages of the explicit selectors like {@code =0} by their value
+     */
+    public record Plural(Map<String, List<Part>> categories, Map<Long, List<Part>> explicitValues) implements Part {
+
+    }
+
+    private MessagePattern(final String argument, final List<Part> parts) {
+        this.argument = argument;
+        this.parts = parts;
+    }
+
+    /**
+     * Parses the pattern of a message.
+     *
+     * @param pattern The pattern
+     * @return The parsed message
+     * @throws IllegalArgumentException If the pattern is not valid
+     */
+    public static MessagePattern parse(final String pattern) {
+        final Parser parser = new Parser(pattern);
+        final List<Part> parts = parser.parseMessage();
+
+        return new MessagePattern(parser.argument, parts);
+    }
+
+    /**
+     * @return The name of the argument or {@code null} if the message has none
+     */
+    public String getArgument() {
+        return argument;
+    }
+
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    private static final class Parser {
+        private final String source;
+        private int position;
+        private String argument;
+
+        private Parser(final String source) {
+            this.source = source;
+            this.position = 0;
+        }
+
+        List<Part> parseMessage() {
+            final List<Part> parts = parseParts(false);
+
+            if (this.position < this.source.length()) {
+                throw error("Unexpected '}'");
+            }
+
+            return parts;
+        }
+
+        private List<Part> parseParts(final boolean inPlural) {
+            final List<Part> parts = new ArrayList<>();
+            final StringBuilder text = new StringBuilder();
+
+            while (this.position < this.source.length()) {
+                final char character = this.source.charAt(this.position);
+
+                if (character == '}') {
+                    break;
+                }
+
+                if (character == '\'') {
+                    parseApostrophe(text, inPlural);
+                    continue;
+                }
+
+                if (character != '{' && !(inPlural && character == '#')) {
+                    text.append(character);
+                    this.position++;
+                    continue;
+                }
+
+                if (text.length() > 0) {
+                    parts.add(new Text(text.toString()));
+                    text.setLength(0);
+                }
+
+                if (character == '#') {
+                    parts.add(new Argument());
+                    this.position++;
+                    continue;
+                }
+
+                parts.add(parseArgument(inPlural));
+            }
+
+            if (text.length() > 0) {
+                parts.add(new Text(text.toString()));
+            }
+
+            return parts;
+        }
+
+        private void parseApostrophe(final StringBuilder text, final boolean inPlural) {
+            final int next = this.position + 1;
+
+            if (next < this.source.length() && this.source.charAt(next) == '\'') {
+                text.append('\'');
+                this.position += 2;
+                return;
+            }
+
+            if (next >= this.source.length() || !isSyntaxCharacter(this.source.charAt(next), inPlural)) {
+                text.append('\'');
+                this.position++;
+                return;
+            }
+
+            this.position++;
+            while (this.position < this.source.length()) {
+                final char character = this.source.charAt(this.position++);
+
+                if (character != '\'') {
+                    text.append(character);
+                } else if (this.position < this.source.length() && this.source.charAt(this.position) == '\'') {
+                    text.append('\'');
+                    this.position++;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private static boolean isSyntaxCharacter(final char character, final boolean inPlural) {
+            return character == '{' || character == '}' || (inPlural && character == '#');
+        }
+
+        private Part parseArgument(final boolean inPlural) {
+            expect('{');
+
+            final String name = parseIdentifier("the name of the argument");
+            if (this.argument == null) {
+                this.argument = name;
+            } else if (!this.argument.equals(name)) {
+                throw error("All the arguments have to be '" + this.argument + "', but found '" + name + "'");
+            }
+
+            if (accept('}')) {
+                return new Argument();
+            }
+
+            expect(',');
+            final int typePosition = this.position;
+            final String type = parseIdentifier("the type of the argument");
+            if (!type.equals("plural")) {
+                this.position = typePosition;
+                throw error("Only plural arguments are supported, but found '" + type + "'");
+            }
+
+            if (inPlural) {
+                throw error("Plural arguments can't be nested");
+            }
+
+            expect(',');
+            final Plural plural = parsePlural();
+            expect('}');
+
+            return plural;
+        }
+
+        private Plural parsePlural() {
+            final Map<String, List<Part>> categories = new LinkedHashMap<>();
+            final Map<Long, List<Part>> explicitValues = new LinkedHashMap<>();
+
+            skipWhitespace();
+            while (this.position < this.source.length() && this.source.charAt(this.position) != '}') {
+                final int selectorPosition = this.position;
+
+                if (accept('=')) {
+                    final long value = parseValue();
+                    if (explicitValues.containsKey(value)) {
+                        this.position = selectorPosition;
+                        throw error("The selector '=" + value + "' is used twice");
+                    }
+
+                    explicitValues.put(value, parseSelectorMessage());
+                } else {
+                    final String selector = parseIdentifier("a selector");
+                    if (selector.startsWith("offset:") || selector.equals("offset")) {
+                        this.position = selectorPosition;
+                        throw error("The offset of plural arguments is not supported");
+                    }
+
+                    if (!CATEGORIES.contains(selector)) {
+                        this.position = selectorPosition;
+                        throw error("Unknown selector '" + selector + "'");
+                    }
+
+                    if (categories.containsKey(selector)) {
+                        this.position = selectorPosition;
+                        throw error("The selector '" + selector + "' is used twice");
+                    }
+
+                    categories.put(selector, parseSelectorMessage());
+                }
+
+                skipWhitespace();
+            }
+
+            if (!categories.containsKey("other")) {
+                throw error("The plural argument has no 'other' selector");
+            }
+
+            return new Plural(categories, explicitValues);
+        }
+
+        private List<Part> parseSelectorMessage() {
+            expect('{');
+            final List<Part> message = parseParts(true);
+            expect('}');
+
+            return message;
+        }
+
+        private String parseIdentifier(final String description) {
+            skipWhitespace();
+
+            final int start = this.position;
+            while (this.position < this.source.length() && isIdentifierPart(this.source.charAt(this.position))) {
+                this.position++;
+            }
+
+            if (start == this.position) {
+                throw error("Expected " + description);
+            }
+
+            return this.source.substring(start, this.position);
+        }
+
+        private static boolean isIdentifierPart(final char character) {
+            return Character.isLetterOrDigit(character) || character == '_' || character == ':';
+        }
+
+        private long parseValue() {
+            final int start = this.position;
+            if (this.position < this.source.length() && this.source.charAt(this.position) == '-') {
+                this.position++;
+            }
+
+            while (this.position < this.source.length() && Character.isDigit(this.source.charAt(this.position))) {
+                this.position++;
+            }
+
+            try {
+                return Long.parseLong(this.source, start, this.position, 10);
+            } catch (final NumberFormatException e) {
+                this.position = start;
+                throw error("Expected an integer");
+            }
+        }
+
+        private void expect(final char expected) {
+            if (!accept(expected)) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private boolean accept(final char expected) {
+            skipWhitespace();
+
+            if (this.position < this.source.length() && this.source.charAt(this.position) == expected) {
+                this.position++;
+                return true;
+            }
+
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (this.position < this.source.length() && Character.isWhitespace(this.source.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(
+                    message + " at position " + this.position + " in the message '" + this.source + "'"
+            );
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package net.quickwrite.localizer.processor.rule;
+
+import net.quickwrite.localizer.processor.PluralRule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders the conditions of a rule for integers, so that the category
+ * that most integers have is tested first.
+ *
+ * <p>
+ * The conditions are evaluated in their order and the first one that is true wins.
+ * So they can only be reordered if no integer matches more than one of them,
+ * which is checked for every integer of one {@link IntegerLookupTable.Periodicity}:
+ * Above the table all integers repeat the categories of its last period and
+ * below zero no literal matches anymore, so the moduli repeat with the period as well.
+ * </p>
+ */
+public final class BranchOrder {
+    private BranchOrder() {
+
+    }
+
+    /**
+     * Returns the conditions of the rule by the number of integers they match in a period,
+     * the most common first. If the conditions overlap or the period is longer than the limit,
+     * the order of the rule is kept.
+     *
+     * @param rule The rule whose conditions are ordered
+     * @param limit The maximum number of integers that are evaluated
+     * @return The conditions in the order they should be tested for integers
+     */
+    public static List<PluralRule.PluralRuleTuple> forIntegers(final PluralRule rule, final int limit) {
+        final List<PluralRule.PluralRuleTuple> tuples = rule.getPluralRules();
+
+        final IntegerLookupTable.Periodicity periodicity = IntegerLookupTable.Periodicity.of(rule);
+        if (tuples.size() < 2 || periodicity.length() + periodicity.period() > limit) {
+            return tuples;
+        }
+
+        final long tail = periodicity.length() - periodicity.period();
+        final int[] frequencies = new int[tuples.size()];
+
+        for (long value = -periodicity.period(); value < periodicity.length(); value++) {
+            int matches = 0;
+
+            for (int index = 0; index < tuples.size(); index++) {
+                if (!IntegerLookupTable.matches(tuples.get(index).condition(), value)) {
+                    continue;
+                }
+
+                if (++matches > 1) {
+                    return tuples;
+                }
+
+                if (value >= tail) {
+                    frequencies[index]++;
+                }
+            }
+        }
+
+        final List<Integer> order = new ArrayList<>(tuples.size());
+        for (int index = 0; index < tuples.size(); index++) {
+            order.add(index);
+        }
+        order.sort(Comparator.comparingInt(index -> -frequencies[index]));
+
+        final List<PluralRule.PluralRuleTuple> sorted = new ArrayList<>(tuples.size());
+        for (final int index : order) {
+            sorted.add(tuples.get(index));
+        }
+
+        return sorted;
+    }
+}
@@ -0,0 +1,38 @@
+package net.quickwrite.localizer.processor.rule;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * The condition of a plural rule in its disjunctive form:
+ * The condition is true if all the relations of at least one
+ * of the and-conditions are true.
+ *
+ * @param andConditions The and-conditions that are joined with {@code or}
+ */
+public record Condition(List<List<Relation>> andConditions) {
+    /**
+     * Evaluates the condition for known values of all operands.
+     *
+     * @param operands The value of every operand by its name
+     * @return If the condition is true
+     */
+    public boolean matches(final ToLongFunction<String> operands) {
+        for (final List<Relation> andCondition : this.andConditions) {
+            boolean matches = true;
+
+            for (final Relation relation : andCondition) {
+                if (!relation.matches(operands.applyAsLong(relation.operand()))) {
+                    matches = false;
+                    break;
+                }
+            }
+
+            if (matches) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,347 @@
+package net.quickwrite.localizer.processor.rule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link Condition} as a Java expression.
+ *
+ * <p>
+ * Every operand is either bound to a Java expression or folded
+ * to a constant that is known at generation time.
+ * Relations on folded operands are evaluated while writing the condition,
+ * so that only the relations that are still needed are part of the result.
+ * </p>
+ *
+ * <p>
+ * The written conditions only compare integers:
+ * </p>
+ * <ul>
+ *     <li>
+ *         A relation on {@code n} is only true for integral values, so it is written as the same
+ *         relation on {@code i} that is guarded by {@code f == 0} (see {@link #bindIntegerPart}).
+ *     </li>
+ *     <li>
+ *         Every operand that is bound to a method call and every {@code operand % k} is
+ *         computed once into a local variable, which {@link #writeDeclarations} writes
+ *         at the start of the method.
+ *     </li>
+ *     <li>
+ *         A list of small values and ranges is merged into a single bitmask test.
+ *     </li>
+ *     <li>
+ *         The cheapest relations and alternatives are tested first.
+ *     </li>
+ * </ul>
+ */
+public class ConditionWriter {
+    public static final String TRUE = "true";
+    public static final String FALSE = "false";
+
+    private static final int BITMASK_SIZE = Long.SIZE;
+
+    private final Map<String, String> expressions;
+    private final Map<String, Long> constants;
+    private final Map<String, String> locals;
+
+    private String integerPart;
+    private String fractionPart;
+
+    public ConditionWriter() {
+        this.expressions = new HashMap<>();
+        this.constants = new HashMap<>();
+        this.locals = new LinkedHashMap<>();
+    }
+
+    public ConditionWriter bind(final String operand, final String expression) {
+        this.expressions.put(operand, expression);
+
+        return this;
+    }
+
+    public ConditionWriter fold(final String operand, final long value) {
+        this.constants.put(operand, value);
+
+        return this;
+    }
+
+    /**
+     * Writes the relations on {@code n} as relations on the integer digits, which are only true
+     * if the visible fraction digits are zero: {@code n % 10 = 1} is the same as {@code f = 0 and i % 10 = 1}.
+     *
+     * @param integerOperand The operand of the integer digits
+     * @param fractionOperand The operand of the visible fraction digits
+     */
+    public ConditionWriter bindIntegerPart(final String integerOperand, final String fractionOperand) {
+        this.integerPart = integerOperand;
+        this.fractionPart = fractionOperand;
+
+        return this;
+    }
+
+    /**
+     * Writes the declarations of all the local variables that the conditions
+     * written since the last call use, and forgets them afterwards.
+     *
+     * @param indent The indent of every declaration
+     * @return The declarations
+     */
+    public String writeDeclarations(final String indent) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (final Map.Entry<String, String> local : this.locals.entrySet()) {
+            builder.append(indent).append(local.getValue()).append(";\n");
+        }
+
+        if (!this.locals.isEmpty()) {
+            builder.append("\n");
+        }
+
+        this.locals.clear();
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the condition as a Java expression.
+     *
+     * @param condition The condition that should be written
+     * @return The expression, {@link #TRUE} or {@link #FALSE}
+     */
+    public String write(final Condition condition) {
+        final List<List<Relation>> andConditions = new ArrayList<>(condition.andConditions());
+        andConditions.sort(Comparator.comparingInt(ConditionWriter::costOf));
+
+        final List<String> alternatives = new ArrayList<>();
+
+        for (final List<Relation> andCondition : andConditions) {
+            final String expression = writeAndCondition(andCondition);
+
+            if (expression.equals(TRUE)) {
+                return TRUE;
+            }
+
+            if (!expression.equals(FALSE)) {
+                alternatives.add(expression);
+            }
+        }
+
+        if (alternatives.isEmpty()) {
+            return FALSE;
+        }
+
+        return String.join(" || ", alternatives);
+    }
+
+    private String writeAndCondition(final List<Relation> andCondition) {
+        final List<Relation> relations = new ArrayList<>(andCondition);
+        relations.sort(Comparator.comparingInt(ConditionWriter::costOf));
+
+        final List<String> parts = new ArrayList<>();
+
+        // the guard of the integer part is only written once for all the relations on n
+        boolean integral = false;
+        for (final Relation relation : relations) {
+            if (isIntegerPartRelation(relation) && !relation.negated()) {
+                final String guard = writeFractionRelation(false);
+
+                if (guard.equals(FALSE)) {
+                    return FALSE;
+                }
+
+                if (!guard.equals(TRUE)) {
+                    parts.add(guard);
+                }
+
+                integral = true;
+                break;
+            }
+        }
+
+        for (final Relation relation : relations) {
+            final String expression = isIntegerPartRelation(relation)
+                    ? writeIntegerPartRelation(relation, integral)
+                    : writeRelation(relation);
+
+            if (expression.equals(FALSE)) {
+                return FALSE;
+            }
+
+            if (!expression.equals(TRUE)) {
+                parts.add(expression);
+            }
+        }
+
+        if (parts.isEmpty()) {
+            return TRUE;
+        }
+
+        return String.join(" && ", parts);
+    }
+
+    private boolean isIntegerPartRelation(final Relation relation) {
+        return relation.operand().equals("n") && this.integerPart != null;
+    }
+
+    private String writeRelation(final Relation relation) {
+        final Long constant = this.constants.get(relation.operand());
+        if (constant != null) {
+            return relation.matches(constant) ? TRUE : FALSE;
+        }
+
+        return writeRanges(valueOf(relation.operand(), relation.modulus()), mergeRanges(relation.ranges()),
+                relation.negated());
+    }
+
+    private String writeFractionRelation(final boolean negated) {
+        return writeRelation(new Relation(this.fractionPart, 0, negated, List.of(new Range(0, 0))));
+    }
+
+    /**
+     * Writes a relation on {@code n} as the relation on the integer digits.
+     *
+     * @param relation The relation on {@code n}
+     * @param integral If the and-condition already checks that the value is integral
+     */
+    private String writeIntegerPartRelation(final Relation relation, final boolean integral) {
+        final String value = writeRelation(
+                new Relation(this.integerPart, relation.modulus(), relation.negated(), relation.ranges())
+        );
+
+        if (integral || !relation.negated() || value.equals(TRUE)) {
+            return value;
+        }
+
+        // n != 1 is true for every value that is not integral
+        final String fractional = writeFractionRelation(true);
+        if (fractional.equals(TRUE)) {
+            return TRUE;
+        }
+
+        if (fractional.equals(FALSE)) {
+            return value;
+        }
+
+        return "(" + fractional + " || " + value + ")";
+    }
+
+    /**
+     * Returns the expression of the (modulated) operand, which is a local variable
+     * if the operand is not bound to a plain variable or if it has a modulus.
+     */
+    private String valueOf(final String operand, final long modulus) {
+        final String expression = this.expressions.get(operand);
+        if (expression == null) {
+            throw new IllegalArgumentException("The operand '" + operand + "' is not bound to an expression");
+        }
+
+        final String type = isIntOperand(operand) ? "int" : "long";
+
+        String value = expression;
+        if (!isVariable(expression)) {
+            value = operand;
+            this.locals.putIfAbsent(value, "final " + type + " " + value + " = " + expression);
+        }
+
+        if (modulus == 0) {
+            return value;
+        }
+
+        final String local = operand + modulus;
+        this.locals.putIfAbsent(local, "final " + type + " " + local + " = " + value + " % " + modulus);
+
+        return local;
+    }
+
+    private static boolean isVariable(final String expression) {
+        for (int i = 0; i < expression.length(); i++) {
+            if (!Character.isLetterOrDigit(expression.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isIntOperand(final String operand) {
+        return operand.equals("v") || operand.equals("w") || operand.equals("c") || operand.equals("e");
+    }
+
+    private static String writeRanges(final String value, final List<Range> ranges, final boolean negated) {
+        if (ranges.size() == 1) {
+            return writeRange(value, ranges.get(0), negated);
+        }
+
+        final long largest = ranges.get(ranges.size() - 1).to();
+        if (ranges.get(0).from() >= 0 && largest < BITMASK_SIZE) {
+            long mask = 0;
+            for (final Range range : ranges) {
+                for (long bit = range.from(); bit <= range.to(); bit++) {
+                    mask |= 1L << bit;
+                }
+            }
+
+            return (negated ? "!" : "") + "isInSet(" + value + ", 0x" + Long.toHexString(mask) + "L)";
+        }
+
+        final StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i != 0) {
+                builder.append(negated ? " && " : " || ");
+            }
+
+            builder.append(writeRange(value, ranges.get(i), negated));
+        }
+
+        return builder.append(")").toString();
+    }
+
+    private static String writeRange(final String value, final Range range, final boolean negated) {
+        if (range.isSingleValue()) {
+            return "(" + value + (negated ? " != " : " == ") + range.from() + ")";
+        }
+
+        return (negated ? "!" : "") + "isInRange(" + value + ", " + range.from() + ", " + range.to() + ")";
+    }
+
+    /**
+     * Sorts the ranges and merges the ones that overlap or touch, like {@code 2..4, 5} to {@code 2..5}.
+     */
+    private static List<Range> mergeRanges(final List<Range> ranges) {
+        final List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(Range::from));
+
+        final List<Range> merged = new ArrayList<>(sorted.size());
+        for (final Range range : sorted) {
+            if (!merged.isEmpty() && merged.get(merged.size() - 1).to() + 1 >= range.from()) {
+                final Range last = merged.remove(merged.size() - 1);
+                merged.add(new Range(last.from(), Math.max(last.to(), range.to())));
+            } else {
+                merged.add(range);
+            }
+        }
+
+        return merged;
+    }
+
+    /**
+     * Estimates the cost of a relation: A remainder is more expensive
+     * than a comparison and {@code n} also needs its fraction digits.
+     */
+    private static int costOf(final Relation relation) {
+        return (relation.hasModulus() ? 2 : 1) + (relation.operand().equals("n") ? 1 : 0);
+    }
+
+    private static int costOf(final List<Relation> relations) {
+        int cost = 0;
+        for (final Relation relation : relations) {
+            cost += costOf(relation);
+        }
+
+        return cost;
+    }
+}
@@ -0,0 +1,163 @@
+package net.quickwrite.localizer.processor.rule;
+
+import net.quickwrite.localizer.processor.PluralRule;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The categories of all non-negative integers for a single {@link PluralRule}.
+ *
+ * <p>
+ * For integers the rules only depend on {@code i} (and {@code n}, which is the same),
+ * either through a modulus or by comparing them with literal values.
+ * So above the largest literal the category only depends on {@code i % period},
+ * where the period is the least common multiple of all the moduli.
+ * </p>
+ *
+ * <p>
+ * The table contains the categories of all integers below its length.
+ * The last {@code period} entries are the periodic tail that is used for all
+ * larger integers:
+ * <pre>
+ * index = value &lt; length ? value : length - period + value % period
+ * </pre>
+ * </p>
+ */
+public final class IntegerLookupTable {
+    private final byte[] ordinals;
+    private final int period;
+
+    private IntegerLookupTable(final byte[] ordinals, final int period) {
+        this.ordinals = ordinals;
+        this.period = period;
+    }
+
+    /**
+     * Creates the lookup table of a rule.
+     *
+     * @param rule The rule the table is created for
+     * @param categories The names of the categories in the order of their ordinals
+     * @param limit The maximum length of the table
+     * @return The table or nothing if the table would be longer than the limit
+     */
+    public static Optional<IntegerLookupTable> create(final PluralRule rule,
+                                                      final List<String> categories,
+                                                      final int limit) {
+        final Periodicity periodicity = Periodicity.of(rule);
+        if (periodicity.length() > limit) {
+            return Optional.empty();
+        }
+
+        final byte[] ordinals = new byte[(int) periodicity.length()];
+        for (int value = 0; value < ordinals.length; value++) {
+            ordinals[value] = (byte) categoryOf(rule, value, categories);
+        }
+
+        return Optional.of(new IntegerLookupTable(ordinals, (int) periodicity.period()));
+    }
+
+    /**
+     * The length of the exact part of a table, which ends with one whole period.
+     *
+     * @param period The least common multiple of all the moduli
+     * @param length The number of integers that are stored in the table
+     */
+    record Periodicity(long period, long length) {
+        static Periodicity of(final PluralRule rule) {
+            long period = 1;
+            long largestLiteral = -1;
+
+            for (final PluralRule.PluralRuleTuple tuple : rule.getPluralRules()) {
+                for (final List<Relation> andCondition : tuple.condition().andConditions()) {
+                    for (final Relation relation : andCondition) {
+                        if (!isIntegerOperand(relation.operand())) {
+                            continue;
+                        }
+
+                        if (relation.hasModulus()) {
+                            period = leastCommonMultiple(period, relation.modulus());
+                            continue;
+                        }
+
+                        for (final Range range : relation.ranges()) {
+                            largestLiteral = Math.max(largestLiteral, range.to());
+                        }
+                    }
+                }
+            }
+
+            // the exact part has to end on a multiple of the period behind the largest literal,
+            // so that the tail starts at an index that is congruent to zero
+            return new Periodicity(period, period * (largestLiteral < 0 ? 1 : largestLiteral / period + 2));
+        }
+    }
+
+    public byte[] getOrdinals() {
+        return ordinals;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Encodes the table as the digits of the ordinals, so that it can be
+     * written into a single string literal.
+     *
+     * @return The table as a string
+     */
+    public String encode() {
+        final StringBuilder builder = new StringBuilder(this.ordinals.length);
+
+        for (final byte ordinal : this.ordinals) {
+            builder.append((char) ('0' + ordinal));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Evaluates a condition for an integer, where all the fraction operands are zero.
+     */
+    static boolean matches(final Condition condition, final long value) {
+        return condition.matches(operand -> isIntegerOperand(operand) ? value : 0);
+    }
+
+    private static int categoryOf(final PluralRule rule, final long value, final List<String> categories) {
+        for (final PluralRule.PluralRuleTuple tuple : rule.getPluralRules()) {
+            if (matches(tuple.condition(), value)) {
+                return indexOf(categories, tuple.type());
+            }
+        }
+
+        return indexOf(categories, "other");
+    }
+
+    private static int indexOf(final List<String> categories, final String type) {
+        final int index = categories.indexOf(type.toUpperCase());
+
+        if (index == -1) {
+            throw new IllegalArgumentException("The category '" + type + "' does not exist");
+        }
+
+        return index;
+    }
+
+    private static boolean isIntegerOperand(final String operand) {
+        return operand.equals("n") || operand.equals("i");
+    }
+
+    private static long leastCommonMultiple(final long a, final long b) {
+        long x = a;
+        long y = b;
+
+        while (y != 0) {
+            final long remainder = x % y;
+            x = y;
+            y = remainder;
+        }
+
+        return a / x * b;
+    }
+}
@@ -0,0 +1,18 @@
+package net.quickwrite.localizer.processor.rule;
+
+/**
+ * An inclusive range of a range list in a plural rule.
+ * Single values are stored as a range where both bounds are the same.
+ *
+ * @param from The lower bound
+ * @param to The upper bound
+ */
+public record Range(long from, long to) {
+    public boolean isSingleValue() {
+        return this.from == this.to;
+    }
+
+    public boolean contains(final long value) {
+        return this.from <= value && value <= this.to;
+    }
+}
@@ -0,0 +1,35 @@
+package net.quickwrite.localizer.processor.rule;
+
+import java.util.List;
+
+/**
+ * A single relation of a plural rule like {@code i % 10 = 2..4}.
+ *
+ * @param operand The name of the operand (n, i, v, w, f, t, c or e)
+ * @param modulus The modulus that is applied on the operand or {@code 0} if there is none
+ * @param negated If the relation uses {@code !=} instead of {@code =}
+ * @param ranges The values and ranges the (modulated) operand is compared against
+ */
+public record Relation(String operand, long modulus, boolean negated, List<Range> ranges) {
+    public boolean hasModulus() {
+        return this.modulus != 0;
+    }
+
+    /**
+     * Evaluates the relation for a known value of the operand.
+     *
+     * @param value The value of the operand
+     * @return If the relation is true
+     */
+    public boolean matches(final long value) {
+        final long modulated = hasModulus() ? value % this.modulus : value;
+
+        for (final Range range : this.ranges) {
+            if (range.contains(modulated)) {
+                return !this.negated;
+            }
+        }
+
+        return this.negated;
+    }
+}
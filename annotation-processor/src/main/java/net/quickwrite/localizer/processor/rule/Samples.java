@@ -0,0 +1,67 @@
+package net.quickwrite.localizer.processor.rule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The samples of a plural rule that are listed after {@code @integer}
+ * and {@code @decimal}, with every sample range expanded into its values.
+ *
+ * <p>
+ * The decimals are kept as their text, so that the visible fraction digits
+ * (like the trailing zero of {@code 1.0}) are not lost.
+ * </p>
+ *
+ * @param integers The integer samples
+ * @param decimals The decimal samples
+ */
+public record Samples(List<String> integers, List<String> decimals) {
+    /**
+     * The maximum number of values a single sample range is expanded to.
+     */
+    private static final int MAX_RANGE_SIZE = 1000;
+
+    public static Samples empty() {
+        return new Samples(new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Expands a sample range like {@code 0~15} or {@code 0.00~0.04} into its values
+     * and adds them to the list. The values of a decimal range are stepped by the
+     * last visible fraction digit of the start.
+     *
+     * @param list The list the values are added to
+     * @param start The first value of the range
+     * @param end The last value of the range or {@code null} if it is a single value
+     */
+    public static void expand(final List<String> list, final String start, final String end) {
+        if (end == null) {
+            list.add(start);
+            return;
+        }
+
+        final BigDecimal from = new BigDecimal(start);
+        final BigDecimal to = new BigDecimal(end);
+        final BigDecimal step = BigDecimal.ONE.movePointLeft(Math.max(from.scale(), 0));
+
+        if (to.subtract(from).divide(step).toBigInteger().compareTo(BigInteger.valueOf(MAX_RANGE_SIZE)) >= 0) {
+            throw new IllegalArgumentException("The sample range " + start + "~" + end + " is too large");
+        }
+
+        for (BigDecimal value = from; value.compareTo(to) <= 0; value = value.add(step)) {
+            list.add(value.toPlainString());
+        }
+    }
+
+    /**
+     * Checks if the sample is written in the compact decimal notation like {@code 1.1c6}.
+     *
+     * @param sample The sample
+     * @return If the sample has an exponent
+     */
+    public static boolean isCompact(final String sample) {
+        return sample.indexOf('c') >= 0 || sample.indexOf('e') >= 0;
+    }
+}
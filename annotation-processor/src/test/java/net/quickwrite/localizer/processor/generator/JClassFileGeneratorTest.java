@@ -0,0 +1,179 @@
+package net.quickwrite.localizer.processor.generator;
+
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles generated classes whose initializers would be too large for a single static constructor.
+ */
+class JClassFileGeneratorTest {
+    @Test
+    void compilesLargeArrayOfSmallLiterals() throws Exception {
+        final List<String> elements = new ArrayList<>();
+        for (int i = 0; i < 15_000; i++) {
+            elements.add(Integer.toString(i % 10));
+        }
+
+        final Class<?> type = compile(new JClassFileGenerator("test", "SmallLiterals")
+                .addArrayAttribute("static final", "int", "VALUES", elements));
+
+        final int[] values = (int[]) valueOf(type, "VALUES");
+        assertEquals(15_000, values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i % 10, values[i]);
+        }
+    }
+
+    @Test
+    void compilesManyArraysInOneClass() throws Exception {
+        final JClassFileGenerator generator = new JClassFileGenerator("test", "ManyArrays");
+        for (int array = 0; array < 12; array++) {
+            generator.addArrayAttribute("static final", "String", "VALUES_" + array, strings(array, 3000));
+        }
+
+        final Class<?> type = compile(generator);
+
+        for (int array = 0; array < 12; array++) {
+            assertArrayEquals(strings(array, 3000).stream().map(JClassFileGeneratorTest::unquote).toArray(),
+                    (String[]) valueOf(type, "VALUES_" + array));
+        }
+    }
+
+    @Test
+    void compilesLargeStaticConstructorAfterArrays() throws Exception {
+        final JEnumFileGenerator generator = new JEnumFileGenerator("test", "LargeEnum");
+        for (int value = 0; value < 500; value++) {
+            generator.addEnumValue("VALUE_" + value + "(\"" + value + "\")");
+        }
+
+        generator.addArrayAttribute("static final", "String", "NAMES", strings(0, 3000))
+                .addAttribute("static final java.util.Map<String, Integer> INDICES = new java.util.HashMap<>();")
+                .addAttribute("private final String text;")
+                .addConstructor("""
+                        LargeEnum(final String text) {
+                            this.text = text;
+                        }""");
+
+        for (int i = 0; i < 10_000; i++) {
+            generator.addStaticConstructorElement("INDICES.put(\"key " + i + "\", " + i + ");");
+        }
+
+        final Class<?> type = compile(generator);
+
+        assertEquals(500, type.getEnumConstants().length);
+        assertEquals(3000, ((String[]) valueOf(type, "NAMES")).length);
+
+        final Map<?, ?> indices = (Map<?, ?>) valueOf(type, "INDICES");
+        assertEquals(10_000, indices.size());
+        assertEquals(9999, indices.get("key 9999"));
+    }
+
+    private static List<String> strings(final int array, final int count) {
+        final List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add("\"value " + array + " " + i + "\"");
+        }
+
+        return strings;
+    }
+
+    private static String unquote(final String literal) {
+        return literal.substring(1, literal.length() - 1);
+    }
+
+    private static Object valueOf(final Class<?> type, final String name) throws ReflectiveOperationException {
+        final Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+
+        return field.get(null);
+    }
+
+    /**
+     * Compiles the generated class in memory and loads it.
+     */
+    private static Class<?> compile(final JClassFileGenerator generator) throws IOException, ClassNotFoundException {
+        final StringWriter source = new StringWriter();
+        generator.write(source);
+
+        final String className = generator.getPackageName() + "." + generator.getClassName();
+        final JavaFileObject sourceFile = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return source.toString();
+            }
+        };
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "The tests need a JDK");
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+
+        try (final StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, null, null);
+             final JavaFileManager fileManager = new ForwardingJavaFileManager<>(standardFileManager) {
+                 @Override
+                 public JavaFileObject getJavaFileForOutput(final Location location,
+                                                            final String name,
+                                                            final JavaFileObject.Kind kind,
+                                                            final FileObject sibling) {
+                     return new SimpleJavaFileObject(URI.create("memory:///" + name.replace('.', '/') + kind.extension), kind) {
+                         @Override
+                         public OutputStream openOutputStream() {
+                             return classes.computeIfAbsent(name, key -> new ByteArrayOutputStream());
+                         }
+                     };
+                 }
+             }) {
+            final boolean compiled = compiler.getTask(null, fileManager, diagnostics, List.of("-proc:none"), null,
+                    List.of(sourceFile)).call();
+
+            final StringBuilder errors = new StringBuilder();
+            for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                errors.append(diagnostic.getMessage(null)).append('\n');
+            }
+
+            assertTrue(compiled, errors::toString);
+        }
+
+        final ClassLoader loader = new ClassLoader(JClassFileGeneratorTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(final String name) throws ClassNotFoundException {
+                final ByteArrayOutputStream bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+
+                return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+            }
+        };
+
+        return Class.forName(className, true, loader);
+    }
+}
@@ -0,0 +1,76 @@
+package net.quickwrite.localizer.benchmarks;
+
+import net.quickwrite.localizer.PluralOperand;
+import net.quickwrite.localizer.PluralRuleChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PluralRuleChecker#getCategory} for a single locale.
+ *
+ * <p>
+ * Every benchmark only ever sees one checker, so the profile of the
+ * call site stays monomorphic. {@link MixedCategoryBenchmark} measures
+ * the same with every locale at once.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CategoryBenchmark {
+    private static final int SIZE = 1024;
+
+    @Param({"en", "de", "fr", "pl", "ru", "ar", "lv", "cy"})
+    private String locale;
+
+    private PluralRuleChecker checker;
+
+    private final long[] integers = new long[SIZE];
+    private final PluralOperand[] operands = new PluralOperand[SIZE];
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        this.checker = PluralRuleChecker.valueOf(this.locale);
+
+        for (int i = 0; i < SIZE; i++) {
+            this.integers[i] = random.nextInt(1000);
+            this.operands[i] = random.nextBoolean()
+                    ? PluralOperand.from(this.integers[i])
+                    : PluralOperand.from(this.integers[i] + random.nextInt(100) / 100.0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void singleLocaleLong(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.checker.getCategory(this.integers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void singleLocaleOperand(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.checker.getCategory(this.operands[i]));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package net.quickwrite.localizer.benchmarks;
+
+import net.quickwrite.localizer.PluralCategory;
+import net.quickwrite.localizer.PluralRuleChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time until the first category is returned in a fresh JVM,
+ * which is dominated by the class initialization of {@link PluralRuleChecker}
+ * and the generated tables. The language tag also includes the first
+ * resolution of a locale.
+ *
+ * <p>
+ * Every fork only runs a single invocation so that the class is not
+ * initialized before the measurement. Nothing else in the benchmark
+ * may touch the generated classes.
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ClassInitBenchmark {
+    @Benchmark
+    public PluralCategory firstGetCategory() {
+        return PluralRuleChecker.en.getCategory(1);
+    }
+
+    @Benchmark
+    public PluralCategory firstGetCategoryForLanguageTag() {
+        return PluralRuleChecker.forLanguageTag("de-CH").getCategory(1);
+    }
+}
@@ -0,0 +1,104 @@
+package net.quickwrite.localizer.benchmarks;
+
+import net.quickwrite.localizer.DateFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link DateFormatter} with the {@link DateTimeFormatter} of the same pattern,
+ * both for epoch milliseconds and for {@link LocalDateTime local date times}.
+ *
+ * <p>
+ * The {@code gc} profiler shows that the {@link DateFormatter} does not allocate,
+ * because the builder is reused.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DateBenchmark {
+    private static final int SIZE = 1024;
+
+    @Param({"yyyy-MM-dd HH:mm:ss.SSS", "EEE, d MMMM yyyy h:mm a"})
+    private String pattern;
+
+    private DateFormatter dateFormatter;
+    private DateTimeFormatter dateTimeFormatter;
+    private final StringBuilder builder = new StringBuilder(64);
+
+    private final long[] epochMillis = new long[SIZE];
+    private final LocalDateTime[] dateTimes = new LocalDateTime[SIZE];
+
+    @Setup
+    public void setup() {
+        final ZoneId zone = ZoneId.of("Europe/Berlin");
+
+        this.dateFormatter = DateFormatter.ofPattern(this.pattern, Locale.US).withZone(zone);
+        this.dateTimeFormatter = DateTimeFormatter.ofPattern(this.pattern, Locale.US).withZone(zone);
+
+        final Random random = new Random(42);
+        final long now = 1_700_000_000_000L;
+
+        for (int i = 0; i < SIZE; i++) {
+            // about a month around the same time, like the timestamps of a log
+            this.epochMillis[i] = now + random.nextInt(30 * 24 * 60 * 60 * 1000);
+            this.dateTimes[i] = LocalDateTime.ofInstant(Instant.ofEpochMilli(this.epochMillis[i]), zone);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dateFormatterEpochMillis(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            this.builder.setLength(0);
+            blackhole.consume(this.dateFormatter.format(this.epochMillis[i], this.builder).length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dateTimeFormatterEpochMillis(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.dateTimeFormatter.format(Instant.ofEpochMilli(this.epochMillis[i])).length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dateFormatterLocalDateTime(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            this.builder.setLength(0);
+            blackhole.consume(this.dateFormatter.format(this.dateTimes[i], this.builder).length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dateTimeFormatterLocalDateTime(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.dateTimeFormatter.format(this.dateTimes[i]).length());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package net.quickwrite.localizer.benchmarks;
+
+import net.quickwrite.localizer.PluralMessage;
+import net.quickwrite.localizer.PluralRuleChecker;
+import net.quickwrite.localizer.processor.MessageGen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a compiled {@link PluralMessage} with selecting the pattern
+ * of the category and formatting it with {@link MessageFormat}.
+ *
+ * <p>
+ * The {@code gc} profiler shows that {@link #pluralMessage} does not allocate,
+ * because the builder is reused.
+ * </p>
+ *
+ * <p>
+ * {@link #lookedUpMessage} also looks the message up by its key and its locale first, which
+ * {@link #generatedMessage} replaces with the method of the message that {@link MessageGen} generates.
+ * </p>
+ */
+@MessageGen(
+        packageName = "net.quickwrite.localizer.benchmarks",
+        className = "BenchmarkMessages",
+        bundle = "net.quickwrite.localizer.benchmarks.messages",
+        locales = {"en", "de"}
+)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MessageBenchmark {
+    private static final int SIZE = 1024;
+
+    private final PluralMessage message = PluralMessage.compile(PluralRuleChecker.en,
+            "{count, plural, one{# file was} other{# files were}} deleted");
+    private final Map<String, Map<Locale, PluralMessage>> messages = Map.of(
+            "files.deleted", Map.of(Locale.ENGLISH, this.message)
+    );
+    private final Locale locale = Locale.ENGLISH;
+    private final StringBuilder builder = new StringBuilder(64);
+
+    private final long[] integers = new long[SIZE];
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < SIZE; i++) {
+            this.integers[i] = random.nextInt(1000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void pluralMessage(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            this.builder.setLength(0);
+            blackhole.consume(this.message.format(this.integers[i], this.builder).length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void lookedUpMessage(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            this.builder.setLength(0);
+            blackhole.consume(this.messages.get("files.deleted").get(this.locale)
+                    .format(this.integers[i], this.builder).length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void generatedMessage(final Blackhole blackhole) throws IOException {
+        for (int i = 0; i < SIZE; i++) {
+            this.builder.setLength(0);
+            BenchmarkMessages.filesDeleted(this.locale, this.integers[i], this.builder);
+            blackhole.consume(this.builder.length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void messageFormat(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            final String pattern = switch (PluralRuleChecker.en.getCategory(this.integers[i])) {
+                case ONE -> "{0} file was deleted";
+                default -> "{0} files were deleted";
+            };
+
+            blackhole.consume(MessageFormat.format(pattern, this.integers[i]).length());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package net.quickwrite.localizer.benchmarks;
+
+import net.quickwrite.localizer.PluralOperand;
+import net.quickwrite.localizer.PluralRuleChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PluralRuleChecker#getCategory} with a mix of every locale.
+ *
+ * <p>
+ * The benchmarks cycle through random checkers with random numbers, which is
+ * the profile of a server that renders messages for many users at once.
+ * Every rule set is seen at the same call site, so this catches regressions
+ * that only show up when the dispatch cannot be specialized to a single locale.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MixedCategoryBenchmark {
+    private static final int SIZE = 1024;
+
+    private final PluralRuleChecker[] checkers = new PluralRuleChecker[SIZE];
+    private final long[] integers = new long[SIZE];
+    private final PluralOperand[] operands = new PluralOperand[SIZE];
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final PluralRuleChecker[] values = PluralRuleChecker.values();
+
+        for (int i = 0; i < SIZE; i++) {
+            this.checkers[i] = values[random.nextInt(values.length)];
+            this.integers[i] = random.nextInt(1000);
+            this.operands[i] = random.nextBoolean()
+                    ? PluralOperand.from(this.integers[i])
+                    : PluralOperand.from(this.integers[i] + random.nextInt(100) / 100.0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void mixedLocaleLong(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.checkers[i].getCategory(this.integers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void mixedLocaleOperand(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.checkers[i].getCategory(this.operands[i]));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package net.quickwrite.localizer.benchmarks;
+
+import net.quickwrite.localizer.PluralOperand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of a {@link PluralOperand} with
+ * every overload of {@code PluralOperand.from}.
+ *
+ * <p>
+ * Every overload gets the same number that is prepared in the
+ * matching type, so that only the conversion itself is measured.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OperandBenchmark {
+    @Param({"1", "23", "1.5", "1234.125"})
+    private String number;
+
+    private int intValue;
+    private long longValue;
+    private double doubleValue;
+    private BigDecimal bigDecimalValue;
+    private BigInteger bigIntegerValue;
+    private StringBuilder characters;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        this.bigDecimalValue = new BigDecimal(this.number);
+        this.bigIntegerValue = this.bigDecimalValue.toBigInteger();
+        this.doubleValue = this.bigDecimalValue.doubleValue();
+        this.longValue = this.bigIntegerValue.longValue();
+        this.intValue = (int) this.longValue;
+        this.characters = new StringBuilder(this.number);
+        this.bytes = this.number.getBytes(StandardCharsets.US_ASCII);
+        this.buffer = ByteBuffer.allocateDirect(this.bytes.length).put(this.bytes);
+    }
+
+    @Benchmark
+    public PluralOperand fromInt() {
+        return PluralOperand.from(this.intValue);
+    }
+
+    @Benchmark
+    public PluralOperand fromLong() {
+        return PluralOperand.from(this.longValue);
+    }
+
+    @Benchmark
+    public PluralOperand fromDouble() {
+        return PluralOperand.from(this.doubleValue);
+    }
+
+    @Benchmark
+    public PluralOperand fromString() {
+        return PluralOperand.from(this.number);
+    }
+
+    @Benchmark
+    public PluralOperand fromCharSequence() {
+        return PluralOperand.from(this.characters, 0, this.characters.length());
+    }
+
+    @Benchmark
+    public PluralOperand fromBytes() {
+        return PluralOperand.from(this.bytes, 0, this.bytes.length);
+    }
+
+    @Benchmark
+    public PluralOperand fromByteBuffer() {
+        return PluralOperand.from(this.buffer, 0, this.bytes.length);
+    }
+
+    @Benchmark
+    public PluralOperand fromBigDecimal() {
+        return PluralOperand.from(this.bigDecimalValue);
+    }
+
+    @Benchmark
+    public PluralOperand fromBigInteger() {
+        return PluralOperand.from(this.bigIntegerValue);
+    }
+}
@@ -0,0 +1,102 @@
+package net.quickwrite.localizer.benchmarks;
+
+import net.quickwrite.localizer.PluralCategory;
+import net.quickwrite.localizer.PluralOperand;
+import net.quickwrite.localizer.PluralRuleChecker;
+import net.quickwrite.localizer.processor.PluralSampleGen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PluralRuleChecker#getCategory} with the samples of CLDR as the input,
+ * which hit every category of every locale instead of mostly {@code other}.
+ *
+ * <p>
+ * That the engines agree with CLDR on these samples is checked by the
+ * {@code PluralRuleSamplesTest} of the localizer, so this only measures them.
+ * </p>
+ */
+@PluralSampleGen(packageName = "net.quickwrite.localizer.benchmarks", category = PluralCategory.class)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SampleBenchmark {
+    private static final int SIZE = 1024;
+
+    private final PluralRuleChecker[] integerCheckers = new PluralRuleChecker[SIZE];
+    private final long[] integers = new long[SIZE];
+
+    private final PluralRuleChecker[] decimalCheckers = new PluralRuleChecker[SIZE];
+    private final PluralOperand[] decimals = new PluralOperand[SIZE];
+
+    private record Sample<T>(PluralRuleChecker checker, T value) {
+
+    }
+
+    @Setup
+    public void setup() {
+        final List<Sample<Long>> integerSamples = new ArrayList<>();
+        final List<Sample<PluralOperand>> decimalSamples = new ArrayList<>();
+
+        for (final PluralRuleChecker checker : PluralRuleChecker.values()) {
+            for (final PluralCategory category : PluralCategory.values()) {
+                for (final long value : PluralRuleSamples.getIntegerSamples(checker.name(), category)) {
+                    integerSamples.add(new Sample<>(checker, value));
+                }
+
+                for (final String value : PluralRuleSamples.getDecimalSamples(checker.name(), category)) {
+                    decimalSamples.add(new Sample<>(checker, PluralOperand.from(value)));
+                }
+            }
+        }
+
+        final Random random = new Random(42);
+        Collections.shuffle(integerSamples, random);
+        Collections.shuffle(decimalSamples, random);
+
+        for (int i = 0; i < SIZE; i++) {
+            final Sample<Long> integer = integerSamples.get(i % integerSamples.size());
+            this.integerCheckers[i] = integer.checker();
+            this.integers[i] = integer.value();
+
+            final Sample<PluralOperand> decimal = decimalSamples.get(i % decimalSamples.size());
+            this.decimalCheckers[i] = decimal.checker();
+            this.decimals[i] = decimal.value();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void integerSamples(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.integerCheckers[i].getCategory(this.integers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void decimalSamples(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.decimalCheckers[i].getCategory(this.decimals[i]));
+        }
+    }
+}
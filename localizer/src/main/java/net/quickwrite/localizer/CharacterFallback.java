@@ -0,0 +1,362 @@
+package net.quickwrite.localizer;
+
+import net.quickwrite.localizer.processor.CharacterFallbackGen;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.quickwrite.localizer.CharacterFallbackTables.*;
+
+/**
+ * Replaces characters with the
+ * <a href="https://www.unicode.org/cldr/cldr-aux/charts/22/supplemental/character_fallback_substitutions.html">
+ * character fallback substitutions</a> of CLDR, so that text can be shown on devices
+ * or sent through gateways that only support a smaller set of characters.
+ *
+ * <pre>{@code
+ * CharacterFallback.getDefault().transform("“Café” – 5½ €"); // "Café" - 5 1/2 EUR
+ * CharacterFallback.forCharset(StandardCharsets.ISO_8859_1).transform("5½ €"); // 5½ EUR
+ * }</pre>
+ *
+ * <p>
+ * The substitutes are generated from the CLDR data into tables indexed by the characters,
+ * so the lookup of a character in the BMP only reads two arrays and the few supplementary
+ * characters are found with a binary search. The text is transformed in a single pass
+ * and the unchanged runs of characters are appended as they are, so nothing is allocated
+ * for the characters that are not substituted.
+ * </p>
+ */
+@CharacterFallbackGen(packageName = "net.quickwrite.localizer")
+public final class CharacterFallback {
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+
+    /**
+     * The smallest character with substitutes, so everything below it can be skipped without a lookup.
+     */
+    private static final char FIRST_CHARACTER;
+
+    /**
+     * The code point of every entry.
+     */
+    private static final int[] CODE_POINTS;
+
+    static {
+        CODE_POINTS = new int[SUBSTITUTE_INDEX.length];
+
+        int first = Character.MAX_VALUE;
+        for (int high = 0; high < BLOCKS.length; high++) {
+            if (BLOCKS[high] == 0) {
+                continue;
+            }
+
+            for (int low = 0; low <= BLOCK_MASK; low++) {
+                final int entry = ENTRIES[BLOCKS[high] << BLOCK_SHIFT | low];
+
+                if (entry != 0) {
+                    CODE_POINTS[entry] = high << BLOCK_SHIFT | low;
+                    first = Math.min(first, CODE_POINTS[entry]);
+                }
+            }
+        }
+
+        for (int index = 0; index < SUPPLEMENTARY_CODE_POINTS.length; index++) {
+            CODE_POINTS[SUPPLEMENTARY_ENTRIES[index]] = SUPPLEMENTARY_CODE_POINTS[index];
+        }
+
+        FIRST_CHARACTER = (char) first;
+    }
+
+    private static final CharacterFallback DEFAULT = new CharacterFallback(firstSubstitutes());
+
+    /**
+     * The replacement of every entry or {@code null} if the character is kept.
+     */
+    private final String[] replacements;
+
+    private CharacterFallback(final String[] replacements) {
+        this.replacements = replacements;
+    }
+
+    /**
+     * Returns the fallback that replaces every character with its first substitute.
+     *
+     * @return The fallback
+     */
+    public static CharacterFallback getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a fallback for a charset. Characters that can be encoded by the charset are kept,
+     * and the others are replaced with their first substitute that can be encoded.
+     * If there is no such substitute the character is kept as well.
+     *
+     * <p>
+     * The charset is only used while the fallback is created, so the transformations
+     * are as fast as the ones of the {@link #getDefault() default} fallback.
+     * </p>
+     *
+     * @param charset The charset of the output
+     * @return The fallback
+     * @throws UnsupportedOperationException If the charset does not support encoding
+     */
+    public static CharacterFallback forCharset(final Charset charset) {
+        final CharsetEncoder encoder = charset.newEncoder();
+        final String[] replacements = new String[SUBSTITUTE_INDEX.length];
+
+        for (int entry = 1; entry < replacements.length; entry++) {
+            if (encoder.canEncode(Character.toString(CODE_POINTS[entry]))) {
+                continue;
+            }
+
+            for (int substitute = SUBSTITUTE_INDEX[entry - 1]; substitute < SUBSTITUTE_INDEX[entry]; substitute++) {
+                final String text = substituteOf(substitute);
+
+                if (encoder.canEncode(text)) {
+                    replacements[entry] = text;
+                    break;
+                }
+            }
+        }
+
+        return new CharacterFallback(replacements);
+    }
+
+    private static String[] firstSubstitutes() {
+        final String[] replacements = new String[SUBSTITUTE_INDEX.length];
+
+        for (int entry = 1; entry < replacements.length; entry++) {
+            if (SUBSTITUTE_INDEX[entry - 1] != SUBSTITUTE_INDEX[entry]) {
+                replacements[entry] = substituteOf(SUBSTITUTE_INDEX[entry - 1]);
+            }
+        }
+
+        return replacements;
+    }
+
+    private static String substituteOf(final int substitute) {
+        return SUBSTITUTES.substring(SUBSTITUTE_OFFSETS[substitute], SUBSTITUTE_OFFSETS[substitute + 1]);
+    }
+
+    /**
+     * Returns all substitutes of a character in the order of their preference.
+     *
+     * @param codePoint The character
+     * @return The substitutes, which are empty if the character has none
+     */
+    public static List<String> getSubstitutes(final int codePoint) {
+        final int entry = entryOf(codePoint);
+        if (entry == 0) {
+            return List.of();
+        }
+
+        final List<String> substitutes = new ArrayList<>(SUBSTITUTE_INDEX[entry] - SUBSTITUTE_INDEX[entry - 1]);
+        for (int substitute = SUBSTITUTE_INDEX[entry - 1]; substitute < SUBSTITUTE_INDEX[entry]; substitute++) {
+            substitutes.add(substituteOf(substitute));
+        }
+
+        return List.copyOf(substitutes);
+    }
+
+    private static int entryOf(final char character) {
+        return ENTRIES[BLOCKS[character >>> BLOCK_SHIFT] << BLOCK_SHIFT | character & BLOCK_MASK];
+    }
+
+    private static int entryOf(final int codePoint) {
+        if (Character.isBmpCodePoint(codePoint)) {
+            return entryOf((char) codePoint);
+        }
+
+        final int index = Arrays.binarySearch(SUPPLEMENTARY_CODE_POINTS, codePoint);
+        return index < 0 ? 0 : SUPPLEMENTARY_ENTRIES[index];
+    }
+
+    /**
+     * Transforms a text.
+     *
+     * @param text The text
+     * @return The transformed text, which is the text itself if it is a
+     *         {@link String} and no character had to be replaced
+     */
+    public String transform(final CharSequence text) {
+        final int first = indexOfReplacement(text);
+        if (first < 0) {
+            return text.toString();
+        }
+
+        final StringBuilder builder = new StringBuilder(text.length() + 16);
+        builder.append(text, 0, first);
+
+        try {
+            transform(text, first, builder);
+        } catch (final IOException e) {
+            // a StringBuilder never throws
+            throw new AssertionError(e);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Appends a transformed text. The unchanged runs of characters are appended
+     * with {@link Appendable#append(CharSequence, int, int)}.
+     *
+     * @param text The text
+     * @param output The output the transformed text is appended to
+     * @throws IOException If the output can't be written
+     */
+    public void transform(final CharSequence text, final Appendable output) throws IOException {
+        transform(text, 0, output);
+    }
+
+    private void transform(final CharSequence text, final int from, final Appendable output) throws IOException {
+        final int length = text.length();
+        int start = from;
+        int index = from;
+
+        while (true) {
+            index = skipUnchanged(text, index, length);
+            if (index == length) {
+                break;
+            }
+
+            final char character = text.charAt(index);
+            final String replacement;
+            int count = 1;
+
+            if (Character.isHighSurrogate(character)
+                    && index + 1 < length && Character.isLowSurrogate(text.charAt(index + 1))) {
+                replacement = this.replacements[entryOf(Character.toCodePoint(character, text.charAt(index + 1)))];
+                count = 2;
+            } else {
+                replacement = this.replacements[entryOf(character)];
+            }
+
+            if (replacement != null) {
+                output.append(text, start, index).append(replacement);
+                start = index + count;
+            }
+
+            index += count;
+        }
+
+        output.append(text, start, length);
+    }
+
+    /**
+     * Returns the index of the next character that could have substitutes.
+     */
+    private static int skipUnchanged(final CharSequence text, final int from, final int length) {
+        int index = from;
+        while (index < length && text.charAt(index) < FIRST_CHARACTER) {
+            index++;
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index of the first character that is replaced or {@code -1}.
+     */
+    private int indexOfReplacement(final CharSequence text) {
+        final int length = text.length();
+        int index = 0;
+
+        while (true) {
+            index = skipUnchanged(text, index, length);
+            if (index == length) {
+                return -1;
+            }
+
+            final char character = text.charAt(index);
+            if (Character.isHighSurrogate(character)
+                    && index + 1 < length && Character.isLowSurrogate(text.charAt(index + 1))) {
+                if (this.replacements[entryOf(Character.toCodePoint(character, text.charAt(index + 1)))] != null) {
+                    return index;
+                }
+
+                index += 2;
+            } else if (this.replacements[entryOf(character)] != null) {
+                return index;
+            } else {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Transforms the characters of a buffer into another buffer in the same way as a
+     * {@link java.nio.charset.CharsetEncoder}, so the text can be transformed in chunks.
+     *
+     * <p>
+     * Characters are only consumed if all of their replacement fits into the output. A high surrogate
+     * at the end of the input is only consumed if {@code endOfInput} is set; otherwise it is
+     * transformed together with the rest of the surrogate pair in the next call.
+     * </p>
+     *
+     * @param input The characters that should be transformed
+     * @param output The buffer the transformed characters are written to
+     * @param endOfInput If there are no more characters after the ones in the input
+     * @return {@link CoderResult#UNDERFLOW} if all the input was consumed (except for a trailing high surrogate),
+     *         or {@link CoderResult#OVERFLOW} if the output is full
+     */
+    public CoderResult transform(final CharBuffer input, final CharBuffer output, final boolean endOfInput) {
+        final int limit = input.limit();
+        int position = input.position();
+
+        try {
+            while (position < limit) {
+                final char character = input.get(position);
+
+                String replacement = null;
+                int count = 1;
+
+                if (character >= FIRST_CHARACTER) {
+                    if (Character.isHighSurrogate(character)) {
+                        if (position + 1 < limit) {
+                            final char low = input.get(position + 1);
+
+                            if (Character.isLowSurrogate(low)) {
+                                replacement = this.replacements[entryOf(Character.toCodePoint(character, low))];
+                                count = 2;
+                            }
+                        } else if (!endOfInput) {
+                            return CoderResult.UNDERFLOW;
+                        }
+                    } else {
+                        replacement = this.replacements[entryOf(character)];
+                    }
+                }
+
+                if (replacement == null) {
+                    if (output.remaining() < count) {
+                        return CoderResult.OVERFLOW;
+                    }
+
+                    output.put(character);
+                    if (count == 2) {
+                        output.put(input.get(position + 1));
+                    }
+                } else {
+                    if (output.remaining() < replacement.length()) {
+                        return CoderResult.OVERFLOW;
+                    }
+
+                    output.put(replacement);
+                }
+
+                position += count;
+            }
+
+            return CoderResult.UNDERFLOW;
+        } finally {
+            input.position(position);
+        }
+    }
+}
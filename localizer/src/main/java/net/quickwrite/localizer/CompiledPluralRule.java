@@ -0,0 +1,21 @@
+package net.quickwrite.localizer;
+
+/**
+ * A plural rule set that was compiled at runtime by the {@link PluralRuleCompiler}.
+ * The implementations are hidden classes, so this interface is the only way to call them.
+ */
+interface CompiledPluralRule {
+    /**
+     * Returns the ordinal of the {@link PluralCategory} of the operands.
+     *
+     * @param n The absolute value
+     * @param i The integer digits
+     * @param v The number of visible fraction digits with trailing zeros
+     * @param w The number of visible fraction digits without trailing zeros
+     * @param f The visible fraction digits with trailing zeros
+     * @param t The visible fraction digits without trailing zeros
+     * @param e The exponent of the compact decimal notation
+     * @return The ordinal of the category
+     */
+    int categorize(double n, long i, int v, int w, long f, long t, int e);
+}
@@ -0,0 +1,577 @@
+package net.quickwrite.localizer;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.FormatStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formats dates and times with the patterns of {@link DateTimeFormatter}.
+ *
+ * <pre>{@code
+ * final DateFormatter formatter = DateFormatter.ofPattern("EEE, d. MMMM yyyy HH:mm", Locale.GERMANY)
+ *         .withZone(ZoneId.of("Europe/Berlin"));
+ *
+ * formatter.format(System.currentTimeMillis(), builder); // Mo., 3. Juni 2024 14:05
+ * }</pre>
+ *
+ * <p>
+ * The pattern is only compiled once into the parts of the output: the literal texts, the numeric fields
+ * and the texts of the months, days of the week, the AM/PM markers and the eras, which are all read from the
+ * {@link DateTimeFormatter} of the locale while the pattern is compiled. Formatting then computes the fields
+ * of an epoch millisecond directly and writes the parts into the builder without creating any strings.
+ * The letters of the pattern that don't have such a part, like the time zone names, are formatted by a
+ * {@link DateTimeFormatter} of only these letters, so the output is always the same as the one of
+ * {@link DateTimeFormatter#ofPattern(String, Locale)}.
+ * </p>
+ *
+ * <p>
+ * A formatter never changes and can be shared between threads. The compiled patterns of every locale are cached,
+ * so {@link #ofPattern(String, Locale)} and {@link #forLocale(Locale, FormatStyle, FormatStyle)} can also be
+ * called for every date that is formatted.
+ * </p>
+ */
+public final class DateFormatter {
+    /**
+     * The maximum number of compiled patterns in the cache.
+     */
+    private static final int CACHE_SIZE = 256;
+
+    private static final Map<Key, DateFormatter> CACHE = new ConcurrentHashMap<>();
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final int DAYS_PER_400_YEARS = 146097;
+    /**
+     * The days from 0000-03-01 until 1970-01-01, because the years are counted from March
+     * so that the leap day is the last day of a year.
+     */
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    private static final int[] POWERS_OF_TEN = {
+            1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
+    };
+
+    private final String pattern;
+    private final Locale locale;
+    private final ZoneId zone;
+    private final ZoneRules rules;
+
+    // the offset of the last formatted instant, which is replaced as a whole by any thread
+    private Offset offset;
+
+    // the parts are either a String, a Value, a ReducedValue, a Fraction, a Text or a DateTimeFormatter
+    private final Object[] parts;
+    private final DateTimeFormatter formatter;
+
+    private record Key(String pattern, FormatStyle dateStyle, FormatStyle timeStyle, Locale locale) {
+
+    }
+
+    /**
+     * The offset of a zone between two of its transitions.
+     *
+     * @param start The first epoch second with the offset
+     * @param end The first epoch second after the offset
+     * @param totalSeconds The offset in seconds
+     */
+    private record Offset(long start, long end, int totalSeconds) {
+
+    }
+
+    /**
+     * A numeric field like the {@code d} in a pattern.
+     *
+     * @param field The field
+     * @param minWidth The number of digits the value is padded to
+     * @param signStyle Either {@link SignStyle#NORMAL} or {@link SignStyle#EXCEEDS_PAD} for the years
+     */
+    private record Value(ChronoField field, int minWidth, SignStyle signStyle) {
+
+    }
+
+    /**
+     * The last two digits of a year like the {@code yy} in a pattern.
+     */
+    private record ReducedValue(ChronoField field) {
+
+    }
+
+    /**
+     * The first digits of the nanoseconds like the {@code SSS} in a pattern.
+     */
+    private record Fraction(int digits) {
+
+    }
+
+    /**
+     * The text of a field like the {@code MMMM} in a pattern.
+     *
+     * @param field The field
+     * @param texts The texts of the values starting at {@code first}
+     * @param first The smallest value of the field
+     */
+    private record Text(ChronoField field, String[] texts, int first) {
+
+    }
+
+    private DateFormatter(final String pattern,
+                          final Locale locale,
+                          final ZoneId zone,
+                          final Object[] parts,
+                          final DateTimeFormatter formatter) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.offset = new Offset(0, 0, 0);
+        this.parts = parts;
+        this.formatter = formatter;
+    }
+
+    /**
+     * Returns the formatter of a pattern with the same syntax as {@link DateTimeFormatter#ofPattern(String, Locale)}.
+     * The epoch milliseconds are formatted in UTC unless another zone is set with {@link #withZone(ZoneId)}.
+     *
+     * @param pattern The pattern
+     * @param locale The locale of the texts
+     * @return The formatter
+     * @throws IllegalArgumentException If the pattern is not valid
+     */
+    public static DateFormatter ofPattern(final String pattern, final Locale locale) {
+        return cached(new Key(pattern, null, null, locale));
+    }
+
+    /**
+     * Returns the formatter of the localized pattern of a locale like {@link DateTimeFormatter#ofLocalizedDateTime}.
+     *
+     * @param locale The locale
+     * @param dateStyle The style of the date or {@code null} if only the time is formatted
+     * @param timeStyle The style of the time or {@code null} if only the date is formatted
+     * @return The formatter
+     * @throws IllegalArgumentException If both styles are {@code null}
+     */
+    public static DateFormatter forLocale(final Locale locale, final FormatStyle dateStyle, final FormatStyle timeStyle) {
+        return cached(new Key(null, dateStyle, timeStyle, locale));
+    }
+
+    private static DateFormatter cached(final Key key) {
+        final DateFormatter cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final String pattern = key.pattern() != null
+                ? key.pattern()
+                : DateTimeFormatterBuilder.getLocalizedDateTimePattern(
+                        key.dateStyle(), key.timeStyle(), IsoChronology.INSTANCE, key.locale());
+
+        final DateFormatter formatter = compile(pattern, key.locale());
+
+        if (CACHE.size() >= CACHE_SIZE) {
+            // the cache is only full with an unusual number of patterns, so any of them can be removed
+            final Iterator<Key> keys = CACHE.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+
+        final DateFormatter previous = CACHE.putIfAbsent(key, formatter);
+        return previous != null ? previous : formatter;
+    }
+
+    private static DateFormatter compile(final String pattern, final Locale locale) {
+        // validates the pattern, so the parts don't have to check it again
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, locale);
+
+        final List<Object> parts = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+
+        int position = 0;
+        while (position < pattern.length()) {
+            final char character = pattern.charAt(position);
+
+            if (character >= 'A' && character <= 'Z' || character >= 'a' && character <= 'z') {
+                int end = position + 1;
+                while (end < pattern.length() && pattern.charAt(end) == character) {
+                    end++;
+                }
+
+                if (character == 'p') {
+                    // the padding changes the next field, so the whole pattern is formatted at once
+                    return new DateFormatter(pattern, locale, ZoneOffset.UTC, new Object[]{formatter}, formatter);
+                }
+
+                if (literal.length() > 0) {
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                }
+
+                final Object part = compileField(character, end - position, locale);
+                parts.add(part != null ? part : DateTimeFormatter.ofPattern(pattern.substring(position, end), locale));
+
+                position = end;
+            } else if (character == '\'' && position + 1 < pattern.length() && pattern.charAt(position + 1) == '\'') {
+                literal.append('\'');
+                position += 2;
+            } else if (character == '\'') {
+                position++;
+
+                while (position < pattern.length()) {
+                    if (pattern.charAt(position) == '\'') {
+                        if (position + 1 < pattern.length() && pattern.charAt(position + 1) == '\'') {
+                            position++;
+                        } else {
+                            break;
+                        }
+                    }
+
+                    literal.append(pattern.charAt(position));
+                    position++;
+                }
+
+                position++;
+            } else if (character == '[' || character == ']') {
+                // optional sections depend on the fields of the temporal
+                return new DateFormatter(pattern, locale, ZoneOffset.UTC, new Object[]{formatter}, formatter);
+            } else {
+                literal.append(character);
+                position++;
+            }
+        }
+
+        if (literal.length() > 0) {
+            parts.add(literal.toString());
+        }
+
+        return new DateFormatter(pattern, locale, ZoneOffset.UTC, parts.toArray(), formatter);
+    }
+
+    /**
+     * Compiles a run of the same pattern letter or returns {@code null}
+     * if the letters are formatted by a {@link DateTimeFormatter}.
+     */
+    private static Object compileField(final char letter, final int count, final Locale locale) {
+        return switch (letter) {
+            case 'G' -> count <= 5 ? compileText(ChronoField.ERA, letter, count, locale) : null;
+            case 'y', 'u' -> {
+                final ChronoField field = letter == 'y' ? ChronoField.YEAR_OF_ERA : ChronoField.YEAR;
+
+                if (count == 2) {
+                    yield new ReducedValue(field);
+                }
+
+                yield count <= 10 ? new Value(field, count, count < 4 ? SignStyle.NORMAL : SignStyle.EXCEEDS_PAD) : null;
+            }
+            case 'M', 'L' -> count <= 2
+                    ? new Value(ChronoField.MONTH_OF_YEAR, count, SignStyle.NORMAL)
+                    : compileText(ChronoField.MONTH_OF_YEAR, letter, count, locale);
+            case 'E' -> compileText(ChronoField.DAY_OF_WEEK, letter, count, locale);
+            case 'a' -> compileText(ChronoField.AMPM_OF_DAY, letter, count, locale);
+            case 'd' -> compileValue(ChronoField.DAY_OF_MONTH, count);
+            case 'H' -> compileValue(ChronoField.HOUR_OF_DAY, count);
+            case 'k' -> compileValue(ChronoField.CLOCK_HOUR_OF_DAY, count);
+            case 'K' -> compileValue(ChronoField.HOUR_OF_AMPM, count);
+            case 'h' -> compileValue(ChronoField.CLOCK_HOUR_OF_AMPM, count);
+            case 'm' -> compileValue(ChronoField.MINUTE_OF_HOUR, count);
+            case 's' -> compileValue(ChronoField.SECOND_OF_MINUTE, count);
+            case 'S' -> count <= 9 ? new Fraction(count) : null;
+            default -> null;
+        };
+    }
+
+    private static Value compileValue(final ChronoField field, final int count) {
+        return count <= 2 ? new Value(field, count, SignStyle.NORMAL) : null;
+    }
+
+    /**
+     * Reads the texts of all values of a field from the formatter of the letters.
+     */
+    private static Text compileText(final ChronoField field, final char letter, final int count, final Locale locale) {
+        if (count > 5 || letter == 'a' && count > 1) {
+            return null;
+        }
+
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(String.valueOf(letter).repeat(count), locale);
+        final int first = (int) field.range().getMinimum();
+        final String[] texts = new String[(int) field.range().getMaximum() - first + 1];
+
+        for (int value = first; value < first + texts.length; value++) {
+            final TemporalAccessor sample = switch (field) {
+                case ERA -> LocalDate.of(value == 0 ? 0 : 2000, 1, 1);
+                case MONTH_OF_YEAR -> LocalDate.of(2000, value, 1);
+                // 2024-01-01 was a Monday
+                case DAY_OF_WEEK -> LocalDate.of(2024, 1, value);
+                case AMPM_OF_DAY -> LocalTime.of(value * 12, 0);
+                default -> throw new IllegalStateException("The field " + field + " has no texts");
+            };
+
+            texts[value - first] = formatter.format(sample);
+        }
+
+        return new Text(field, texts, first);
+    }
+
+    /**
+     * Returns a formatter that formats the epoch milliseconds and the {@link Instant instants} in another zone.
+     * The zone is not used for the other temporal objects, just like with {@link DateTimeFormatter#ofPattern}.
+     *
+     * @param zone The zone
+     * @return The formatter
+     */
+    public DateFormatter withZone(final ZoneId zone) {
+        return new DateFormatter(this.pattern, this.locale, zone, this.parts, this.formatter);
+    }
+
+    /**
+     * Appends an epoch millisecond in the zone of the formatter.
+     *
+     * @param epochMillis The milliseconds since 1970-01-01T00:00:00Z
+     * @param builder The builder the date is appended to
+     * @return The builder
+     */
+    public StringBuilder format(final long epochMillis, final StringBuilder builder) {
+        return formatEpoch(Math.floorDiv(epochMillis, 1000), Math.floorMod(epochMillis, 1000) * 1_000_000, builder);
+    }
+
+    /**
+     * Appends a temporal object like a {@link java.time.LocalDateTime} or a {@link ZonedDateTime}.
+     * An {@link Instant} is formatted in the zone of the formatter.
+     *
+     * @param temporal The temporal object
+     * @param builder The builder the date is appended to
+     * @return The builder
+     * @throws java.time.DateTimeException If the temporal object does not have a field of the pattern
+     */
+    public StringBuilder format(final TemporalAccessor temporal, final StringBuilder builder) {
+        if (temporal instanceof Instant instant) {
+            return formatEpoch(instant.getEpochSecond(), instant.getNano(), builder);
+        }
+
+        final Chronology chronology = temporal.query(TemporalQueries.chronology());
+        if (chronology != null && chronology != IsoChronology.INSTANCE) {
+            // the texts of the other calendars are not compiled
+            this.formatter.formatTo(temporal, builder);
+            return builder;
+        }
+
+        for (final Object part : this.parts) {
+            if (part instanceof String literal) {
+                builder.append(literal);
+            } else if (part instanceof Value value) {
+                appendValue(temporal.getLong(value.field()), value, builder);
+            } else if (part instanceof ReducedValue reduced) {
+                appendReduced(temporal.getLong(reduced.field()), builder);
+            } else if (part instanceof Fraction fraction) {
+                appendFraction(temporal.get(ChronoField.NANO_OF_SECOND), fraction, builder);
+            } else if (part instanceof Text text) {
+                builder.append(text.texts()[temporal.get(text.field()) - text.first()]);
+            } else {
+                ((DateTimeFormatter) part).formatTo(temporal, builder);
+            }
+        }
+
+        return builder;
+    }
+
+    /**
+     * Returns an epoch millisecond in the zone of the formatter as a string.
+     *
+     * @param epochMillis The milliseconds since 1970-01-01T00:00:00Z
+     * @return The formatted date
+     */
+    public String format(final long epochMillis) {
+        return format(epochMillis, new StringBuilder(this.pattern.length() + 16)).toString();
+    }
+
+    /**
+     * Returns a temporal object as a string.
+     *
+     * @param temporal The temporal object
+     * @return The formatted date
+     * @throws java.time.DateTimeException If the temporal object does not have a field of the pattern
+     */
+    public String format(final TemporalAccessor temporal) {
+        return format(temporal, new StringBuilder(this.pattern.length() + 16)).toString();
+    }
+
+    private StringBuilder formatEpoch(final long epochSecond, final int nano, final StringBuilder builder) {
+        Offset offset = this.offset;
+        if (epochSecond < offset.start() || epochSecond >= offset.end()) {
+            offset = offsetOf(epochSecond);
+            this.offset = offset;
+        }
+
+        final long localSecond = epochSecond + offset.totalSeconds();
+        final long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        final int secondOfDay = Math.floorMod(localSecond, SECONDS_PER_DAY);
+
+        // the civil date of the day, counted in eras of 400 years that start on the first of March
+        final long shiftedDay = epochDay + DAYS_0000_TO_1970;
+        final long era = Math.floorDiv(shiftedDay, DAYS_PER_400_YEARS);
+        final long dayOfEra = shiftedDay - era * DAYS_PER_400_YEARS;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+
+        final int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        // 1970-01-01 was a Thursday
+        final int dayOfWeek = Math.floorMod(epochDay + 3, 7) + 1;
+
+        ZonedDateTime dateTime = null;
+
+        for (final Object part : this.parts) {
+            if (part instanceof String literal) {
+                builder.append(literal);
+            } else if (part instanceof Value value) {
+                appendValue(valueOf(value.field(), year, month, day, dayOfWeek, secondOfDay), value, builder);
+            } else if (part instanceof ReducedValue reduced) {
+                appendReduced(valueOf(reduced.field(), year, month, day, dayOfWeek, secondOfDay), builder);
+            } else if (part instanceof Fraction fraction) {
+                appendFraction(nano, fraction, builder);
+            } else if (part instanceof Text text) {
+                builder.append(text.texts()[(int) valueOf(text.field(), year, month, day, dayOfWeek, secondOfDay) - text.first()]);
+            } else {
+                if (dateTime == null) {
+                    dateTime = ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), this.zone);
+                }
+
+                ((DateTimeFormatter) part).formatTo(dateTime, builder);
+            }
+        }
+
+        return builder;
+    }
+
+    /**
+     * Finds the transitions of the zone around an instant, so that the zone rules are only read
+     * again once an instant with another offset is formatted.
+     */
+    private Offset offsetOf(final long epochSecond) {
+        if (this.rules.isFixedOffset()) {
+            return new Offset(Long.MIN_VALUE, Long.MAX_VALUE, this.rules.getOffset(Instant.EPOCH).getTotalSeconds());
+        }
+
+        final Instant instant = Instant.ofEpochSecond(epochSecond);
+        // the previous transition of the next second also finds a transition at the instant itself
+        final ZoneOffsetTransition previous = this.rules.previousTransition(instant.plusSeconds(1));
+        final ZoneOffsetTransition next = this.rules.nextTransition(instant);
+
+        return new Offset(
+                previous != null ? previous.toEpochSecond() : Long.MIN_VALUE,
+                next != null ? next.toEpochSecond() : Long.MAX_VALUE,
+                this.rules.getOffset(instant).getTotalSeconds()
+        );
+    }
+
+    private static long valueOf(final ChronoField field,
+                                final long year,
+                                final int month,
+                                final int day,
+                                final int dayOfWeek,
+                                final int secondOfDay) {
+        final int hour = secondOfDay / 3600;
+
+        return switch (field) {
+            case ERA -> year >= 1 ? 1 : 0;
+            case YEAR_OF_ERA -> year >= 1 ? year : 1 - year;
+            case YEAR -> year;
+            case MONTH_OF_YEAR -> month;
+            case DAY_OF_MONTH -> day;
+            case DAY_OF_WEEK -> dayOfWeek;
+            case AMPM_OF_DAY -> hour / 12;
+            case HOUR_OF_DAY -> hour;
+            case CLOCK_HOUR_OF_DAY -> hour == 0 ? 24 : hour;
+            case HOUR_OF_AMPM -> hour % 12;
+            case CLOCK_HOUR_OF_AMPM -> hour % 12 == 0 ? 12 : hour % 12;
+            case MINUTE_OF_HOUR -> secondOfDay / 60 % 60;
+            case SECOND_OF_MINUTE -> secondOfDay % 60;
+            default -> throw new IllegalStateException("The field " + field + " is not compiled");
+        };
+    }
+
+    private static void appendValue(final long value, final Value part, final StringBuilder builder) {
+        // the years of java.time have at most nine digits, so all values fit into an int
+        final int absolute = (int) Math.abs(value);
+
+        if (value < 0) {
+            builder.append('-');
+        } else if (part.signStyle() == SignStyle.EXCEEDS_PAD
+                && part.minWidth() < POWERS_OF_TEN.length && absolute >= POWERS_OF_TEN[part.minWidth()]) {
+            builder.append('+');
+        }
+
+        appendDigits(absolute, part.minWidth(), builder);
+    }
+
+    private static void appendReduced(final long value, final StringBuilder builder) {
+        appendDigits((int) (Math.abs(value) % 100), 2, builder);
+    }
+
+    private static void appendFraction(final int nano, final Fraction fraction, final StringBuilder builder) {
+        appendDigits(nano / POWERS_OF_TEN[9 - fraction.digits()], fraction.digits(), builder);
+    }
+
+    /**
+     * Writes the digits of a value from the last one, because dividing by the constant 10
+     * is a lot faster than dividing by the powers of ten for the first digits.
+     */
+    private static void appendDigits(final int value, final int minWidth, final StringBuilder builder) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+
+        final int start = builder.length();
+        final int width = Math.max(digits, minWidth);
+        builder.setLength(start + width);
+
+        int rest = value;
+        for (int index = start + width - 1; index >= start; index--) {
+            builder.setCharAt(index, (char) ('0' + rest % 10));
+            rest /= 10;
+        }
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public String toString() {
+        return "DateFormatter{" +
+                "pattern='" + pattern + '\'' +
+                ", locale=" + locale +
+                ", zone=" + zone +
+                '}';
+    }
+}
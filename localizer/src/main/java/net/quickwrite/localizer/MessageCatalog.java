@@ -0,0 +1,294 @@
+package net.quickwrite.localizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * The messages of all locales, which are read from a memory-mapped file
+ * that was written by the {@link MessageCatalogWriter}.
+ *
+ * <pre>{@code
+ * final MessageCatalog catalog = MessageCatalog.open(Path.of("messages.bin"));
+ *
+ * catalog.getMessage("files.deleted", "en-US", PluralCategory.ONE); // {count} file was deleted
+ * }</pre>
+ *
+ * <p>
+ * Opening a catalog only maps the file, so neither the time nor the heap that is needed
+ * depends on the number of messages. A lookup is a binary search over the sorted index,
+ * which compares the UTF-8 keys in the file with the id and the locale without decoding them,
+ * and only the message that was asked for is decoded.
+ * The catalog never changes after it was opened, so it can be shared between threads.
+ * </p>
+ */
+public final class MessageCatalog {
+    private static final PluralCategory[] CATEGORIES = PluralCategory.values();
+
+    private final ByteBuffer buffer;
+    private final int size;
+
+    private MessageCatalog(final ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < MessageCatalogWriter.HEADER_SIZE
+                || buffer.getInt(0) != MessageCatalogWriter.MAGIC) {
+            throw new IOException("The file is not a message catalog");
+        }
+
+        if (buffer.getInt(Integer.BYTES) != MessageCatalogWriter.VERSION) {
+            throw new IOException("The version " + buffer.getInt(Integer.BYTES) + " of the catalog is not supported");
+        }
+
+        if (buffer.getInt(2 * Integer.BYTES) != CATEGORIES.length) {
+            throw new IOException("The catalog was written with " + buffer.getInt(2 * Integer.BYTES)
+                    + " categories instead of " + CATEGORIES.length);
+        }
+
+        this.buffer = buffer;
+        this.size = buffer.getInt(3 * Integer.BYTES);
+
+        if ((long) this.size * MessageCatalogWriter.ENTRY_SIZE + MessageCatalogWriter.HEADER_SIZE > buffer.capacity()) {
+            throw new IOException("The index of the catalog is truncated");
+        }
+    }
+
+    /**
+     * Maps a catalog file into memory. The mapping stays valid after the file was closed.
+     *
+     * @param path The path of the file
+     * @return The catalog
+     * @throws IOException If the file can't be read or is not a catalog
+     */
+    public static MessageCatalog open(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MessageCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a catalog that is already in memory, like a resource.
+     *
+     * @param buffer The content of the catalog, which must not be changed afterwards
+     * @return The catalog
+     * @throws IOException If the buffer does not contain a catalog
+     */
+    public static MessageCatalog of(final ByteBuffer buffer) throws IOException {
+        return new MessageCatalog(buffer.slice());
+    }
+
+    /**
+     * Returns the message of a category. If the locale has no such message, the parents of the locale
+     * are searched (so {@code pt_PT} falls back to {@code pt}) and a missing category uses the
+     * {@link PluralCategory#OTHER} message.
+     *
+     * @param id The id of the message
+     * @param locale The locale as a language tag like {@code en-US} or {@code en_US}
+     * @param category The category of the number in the message
+     * @return The message or {@code null} if there is none
+     */
+    public String getMessage(final String id, final String locale, final PluralCategory category) {
+        final int message = findMessage(id, locale, category);
+        if (message < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[this.buffer.getInt(message + Integer.BYTES)];
+        this.buffer.get(this.buffer.getInt(message), bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the UTF-8 bytes of a message without copying them.
+     *
+     * @return A read-only view of the bytes or {@code null} if there is no message
+     * @see #getMessage(String, String, PluralCategory)
+     */
+    public ByteBuffer getMessageBytes(final String id, final String locale, final PluralCategory category) {
+        final int message = findMessage(id, locale, category);
+        if (message < 0) {
+            return null;
+        }
+
+        return this.buffer.slice(this.buffer.getInt(message), this.buffer.getInt(message + Integer.BYTES))
+                .asReadOnlyBuffer();
+    }
+
+    /**
+     * Checks if the locale or one of its parents has the message.
+     */
+    public boolean hasMessage(final String id, final String locale) {
+        return findEntry(id, locale) >= 0;
+    }
+
+    /**
+     * @return The number of pairs of message ids and locales
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of the offset and the length of the message in the index or {@code -1}.
+     */
+    private int findMessage(final String id, final String locale, final PluralCategory category) {
+        final int entry = findEntry(id, locale);
+        if (entry < 0) {
+            return -1;
+        }
+
+        final int message = entry + 2 * Integer.BYTES + category.ordinal() * 2 * Integer.BYTES;
+        if (this.buffer.getInt(message) >= 0) {
+            return message;
+        }
+
+        final int other = entry + 2 * Integer.BYTES + PluralCategory.OTHER.ordinal() * 2 * Integer.BYTES;
+        return this.buffer.getInt(other) >= 0 ? other : -1;
+    }
+
+    /**
+     * Searches the locale and then its parents, which are prefixes of the locale, so the tag is
+     * normalized while it is compared instead of creating the tags of the parents.
+     */
+    private int findEntry(final String id, final String locale) {
+        int length = locale.length();
+
+        while (true) {
+            final int entry = search(id, locale, length);
+            if (entry >= 0) {
+                return entry;
+            }
+
+            length = lastSeparator(locale, length);
+            if (length < 0) {
+                return -1;
+            }
+        }
+    }
+
+    private static int lastSeparator(final String locale, final int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            final char character = locale.charAt(i);
+
+            if (character == '_' || character == '-') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Searches the entry of the id and the first characters of the locale
+     * and returns its position in the index or {@code -1}.
+     */
+    private int search(final String id, final String locale, final int localeLength) {
+        int low = 0;
+        int high = this.size - 1;
+
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int entry = MessageCatalogWriter.HEADER_SIZE + middle * MessageCatalogWriter.ENTRY_SIZE;
+            final int comparison = compareKey(this.buffer.getInt(entry), this.buffer.getInt(entry + Integer.BYTES),
+                    id, locale, localeLength);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return entry;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Compares the UTF-8 key in the file with the key of an id and a normalized locale by their code points,
+     * which is the same order as the one of their UTF-8 bytes.
+     */
+    private int compareKey(final int offset,
+                           final int length,
+                           final String id,
+                           final String locale,
+                           final int localeLength) {
+        final int end = offset + length;
+        final int queryLength = id.length() + 1 + localeLength;
+
+        int position = offset;
+        int index = 0;
+
+        while (position < end && index < queryLength) {
+            final int lead = this.buffer.get(position) & 0xFF;
+
+            final int codePoint;
+            if (lead < 0x80) {
+                codePoint = lead;
+                position += 1;
+            } else if (lead < 0xE0) {
+                codePoint = (lead & 0x1F) << 6 | continuation(position + 1);
+                position += 2;
+            } else if (lead < 0xF0) {
+                codePoint = (lead & 0x0F) << 12 | continuation(position + 1) << 6 | continuation(position + 2);
+                position += 3;
+            } else {
+                codePoint = (lead & 0x07) << 18 | continuation(position + 1) << 12
+                        | continuation(position + 2) << 6 | continuation(position + 3);
+                position += 4;
+            }
+
+            final int queryCodePoint = codePointAt(id, locale, index);
+            if (codePoint != queryCodePoint) {
+                return Integer.compare(codePoint, queryCodePoint);
+            }
+
+            index += Character.charCount(queryCodePoint);
+        }
+
+        return Boolean.compare(position < end, index < queryLength);
+    }
+
+    private int continuation(final int position) {
+        return this.buffer.get(position) & 0x3F;
+    }
+
+    /**
+     * Returns the code point of the key {@code id + '\0' + normalize(locale)} without creating it.
+     */
+    private static int codePointAt(final String id, final String locale, final int index) {
+        if (index < id.length()) {
+            return id.codePointAt(index);
+        }
+
+        if (index == id.length()) {
+            return 0;
+        }
+
+        final int codePoint = locale.codePointAt(index - id.length() - 1);
+        return codePoint == '-' ? '_' : Character.toLowerCase(codePoint);
+    }
+
+    static String keyOf(final String id, final String locale) {
+        return id + '\0' + locale;
+    }
+
+    /**
+     * Normalizes a language tag in the same way as the {@link RuntimePluralRules}.
+     * The lookups normalize the tag while they compare it, which has the same result for language tags,
+     * as all of their characters are ASCII.
+     */
+    static String normalize(final String locale) {
+        return locale.replace('-', '_').toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "MessageCatalog{" +
+                "size=" + size +
+                '}';
+    }
+}
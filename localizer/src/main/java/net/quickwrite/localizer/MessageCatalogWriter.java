@@ -0,0 +1,171 @@
+package net.quickwrite.localizer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the messages of all locales into the binary file that is read by {@link MessageCatalog}.
+ *
+ * <pre>{@code
+ * final MessageCatalogWriter writer = new MessageCatalogWriter();
+ * writer.add("files.deleted", "en", PluralCategory.ONE, "{count} file was deleted");
+ * writer.add("files.deleted", "en", PluralCategory.OTHER, "{count} files were deleted");
+ * writer.write(Path.of("messages.bin"));
+ * }</pre>
+ *
+ * <p>
+ * The file has the following layout, where all the numbers are big endian
+ * and all the offsets are relative to the start of the file:
+ * </p>
+ * <pre>
+ * header:  magic (int), version (int), number of categories (int), number of entries (int)
+ * index:   per entry sorted by its key:
+ *          key offset (int), key length (int), per category: message offset (int), message length (int)
+ * data:    the UTF-8 bytes of the keys and the messages
+ * </pre>
+ *
+ * <p>
+ * The key of an entry is the message id and the locale separated by a zero byte.
+ * The offset of a missing category is {@code -1} and equal messages are only stored once.
+ * </p>
+ */
+public final class MessageCatalogWriter {
+    static final int MAGIC = 0x4A4C4D43;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private static final PluralCategory[] CATEGORIES = PluralCategory.values();
+
+    static final int ENTRY_SIZE = 2 * Integer.BYTES + CATEGORIES.length * 2 * Integer.BYTES;
+
+    // sorted by the UTF-8 bytes of the key, which is the order the reader searches in
+    private final Map<byte[], String[]> entries = new TreeMap<>(Arrays::compareUnsigned);
+
+    /**
+     * Adds the message of a category.
+     *
+     * @param id The id of the message
+     * @param locale The locale as a language tag like {@code en-US} or {@code en_US}
+     * @param category The category the message is used for
+     * @param message The message
+     * @return The writer
+     * @throws IllegalArgumentException If the category of the message was already added
+     */
+    public MessageCatalogWriter add(final String id,
+                                    final String locale,
+                                    final PluralCategory category,
+                                    final String message) {
+        if (id.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("The id '" + id + "' contains a zero character");
+        }
+
+        final String[] messages = this.entries.computeIfAbsent(
+                MessageCatalog.keyOf(id, MessageCatalog.normalize(locale)).getBytes(StandardCharsets.UTF_8),
+                key -> new String[CATEGORIES.length]
+        );
+
+        if (messages[category.ordinal()] != null) {
+            throw new IllegalArgumentException(
+                    "The message '" + id + "' already has a " + category + " message for the locale '" + locale + "'"
+            );
+        }
+
+        messages[category.ordinal()] = message;
+        return this;
+    }
+
+    /**
+     * Adds the same message for every category.
+     *
+     * @see #add(String, String, PluralCategory, String)
+     */
+    public MessageCatalogWriter add(final String id, final String locale, final String message) {
+        for (final PluralCategory category : CATEGORIES) {
+            add(id, locale, category, message);
+        }
+
+        return this;
+    }
+
+    public void write(final Path path) throws IOException {
+        try (final OutputStream output = Files.newOutputStream(path)) {
+            write(output);
+        }
+    }
+
+    /**
+     * Writes the catalog.
+     *
+     * @param output The stream the catalog is written to, which is not closed
+     * @throws IOException If the stream can't be written or the catalog is larger than 2 GiB
+     */
+    public void write(final OutputStream output) throws IOException {
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+
+        final int[] keyOffsets = new int[this.entries.size()];
+        final Map<String, Integer> offsets = new HashMap<>();
+        final Map<String, byte[]> payloads = new HashMap<>();
+        long dataEnd = HEADER_SIZE + (long) this.entries.size() * ENTRY_SIZE;
+
+        // the data section is written after the index, so the offsets are assigned first
+        int index = 0;
+        for (final Map.Entry<byte[], String[]> entry : this.entries.entrySet()) {
+            keyOffsets[index++] = (int) Math.min(dataEnd, Integer.MAX_VALUE);
+            dataEnd += entry.getKey().length;
+
+            for (final String message : entry.getValue()) {
+                if (message == null || offsets.containsKey(message)) {
+                    continue;
+                }
+
+                final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+                offsets.put(message, (int) Math.min(dataEnd, Integer.MAX_VALUE));
+                payloads.put(message, bytes);
+                dataEnd += bytes.length;
+            }
+        }
+
+        if (dataEnd > Integer.MAX_VALUE) {
+            throw new IOException("The catalog would be larger than 2 GiB");
+        }
+
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(CATEGORIES.length);
+        data.writeInt(this.entries.size());
+
+        index = 0;
+        for (final Map.Entry<byte[], String[]> entry : this.entries.entrySet()) {
+            data.writeInt(keyOffsets[index++]);
+            data.writeInt(entry.getKey().length);
+
+            for (final String message : entry.getValue()) {
+                data.writeInt(message == null ? -1 : offsets.get(message));
+                data.writeInt(message == null ? 0 : payloads.get(message).length);
+            }
+        }
+
+        for (final Map.Entry<byte[], String[]> entry : this.entries.entrySet()) {
+            data.write(entry.getKey());
+
+            for (final String message : entry.getValue()) {
+                // only the first occurrence is written, which is the one the offset points to
+                final byte[] bytes = message == null ? null : payloads.remove(message);
+                if (bytes != null) {
+                    data.write(bytes);
+                }
+            }
+        }
+
+        data.flush();
+    }
+}
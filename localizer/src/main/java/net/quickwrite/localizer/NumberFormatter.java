@@ -0,0 +1,430 @@
+package net.quickwrite.localizer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Formats numbers with the symbols of a locale and returns the {@link PluralOperand}
+ * (or directly the {@link PluralCategory}) of the digits that were written.
+ *
+ * <pre>{@code
+ * final NumberFormatter formatter = NumberFormatter.forLocale(Locale.GERMANY).withFractionDigits(2, 2);
+ *
+ * formatter.format(1234.5, builder, PluralRuleChecker.de); // "1.234,50" and OTHER
+ * }</pre>
+ *
+ * <p>
+ * The operand is computed from the rounded digits while they are written, so it always has
+ * the visible fraction digits of the output: {@code 1} formatted with two fraction digits is
+ * {@code 1.00} and has {@code v = 2}. It is the same operand as {@code PluralOperand.from(String)}
+ * of the output without the grouping, but nothing has to be parsed again.
+ * </p>
+ *
+ * <p>
+ * The symbols of the locale are only read once, so a formatter never changes and can be shared
+ * between threads, unlike a {@link DecimalFormat}. The numbers are rounded half-even like in
+ * {@link DecimalFormat}. Formatting a category does not create any objects unless a double
+ * has more than 12 significant digits or is close to a tie.
+ * </p>
+ */
+public final class NumberFormatter {
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private static final long[] LONG_POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+            10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+            1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+    };
+
+    /**
+     * Below this value the error of the scaled double is so small that it can only
+     * change the rounded digits if they are within {@link #TIE_DISTANCE} of a tie.
+     */
+    private static final double MAX_FAST_SCALED = 0x1p43;
+    private static final double TIE_DISTANCE = 0x1p-8;
+
+    private static final int MAX_FRACTION_DIGITS = LONG_POWERS_OF_TEN.length - 1;
+
+    private final char zeroDigit;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final int groupingSize;
+    private final int minFractionDigits;
+    private final int maxFractionDigits;
+
+    private NumberFormatter(final char zeroDigit,
+                            final char decimalSeparator,
+                            final char groupingSeparator,
+                            final String negativePrefix,
+                            final String negativeSuffix,
+                            final int groupingSize,
+                            final int minFractionDigits,
+                            final int maxFractionDigits) {
+        this.zeroDigit = zeroDigit;
+        this.decimalSeparator = decimalSeparator;
+        this.groupingSeparator = groupingSeparator;
+        this.negativePrefix = negativePrefix;
+        this.negativeSuffix = negativeSuffix;
+        this.groupingSize = groupingSize;
+        this.minFractionDigits = minFractionDigits;
+        this.maxFractionDigits = maxFractionDigits;
+    }
+
+    /**
+     * Creates a formatter with the symbols and the grouping of a locale,
+     * which writes up to three fraction digits like {@link NumberFormat#getInstance(Locale)}.
+     *
+     * @param locale The locale
+     * @return The formatter
+     */
+    public static NumberFormatter forLocale(final Locale locale) {
+        final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        final NumberFormat format = NumberFormat.getInstance(locale);
+
+        int groupingSize = format.isGroupingUsed() ? 3 : 0;
+        // some locales also have a direction mark in front of the minus sign
+        String negativePrefix = String.valueOf(symbols.getMinusSign());
+        String negativeSuffix = "";
+
+        if (format instanceof DecimalFormat decimal) {
+            groupingSize = format.isGroupingUsed() ? decimal.getGroupingSize() : 0;
+            negativePrefix = decimal.getNegativePrefix();
+            negativeSuffix = decimal.getNegativeSuffix();
+        }
+
+        return new NumberFormatter(
+                symbols.getZeroDigit(),
+                symbols.getDecimalSeparator(),
+                symbols.getGroupingSeparator(),
+                negativePrefix,
+                negativeSuffix,
+                groupingSize,
+                0,
+                3
+        );
+    }
+
+    /**
+     * Returns a formatter that writes at least and at most the given number of fraction digits.
+     * Trailing zeros are only written up to the minimum.
+     *
+     * @param min The minimum number of fraction digits
+     * @param max The maximum number of fraction digits, up to 18
+     * @return The formatter
+     */
+    public NumberFormatter withFractionDigits(final int min, final int max) {
+        if (min < 0 || min > max || max > MAX_FRACTION_DIGITS) {
+            throw new IllegalArgumentException(
+                    "The fraction digits have to be 0 <= min <= max <= " + MAX_FRACTION_DIGITS + ", but are " + min + " and " + max
+            );
+        }
+
+        return new NumberFormatter(this.zeroDigit, this.decimalSeparator, this.groupingSeparator,
+                this.negativePrefix, this.negativeSuffix,
+                this.groupingSize, min, max);
+    }
+
+    /**
+     * Returns a formatter that groups the integer digits, where a size of {@code 0} disables the grouping.
+     *
+     * @param size The number of digits in a group
+     * @return The formatter
+     */
+    public NumberFormatter withGroupingSize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The grouping size can't be negative");
+        }
+
+        return new NumberFormatter(this.zeroDigit, this.decimalSeparator, this.groupingSeparator,
+                this.negativePrefix, this.negativeSuffix,
+                size, this.minFractionDigits, this.maxFractionDigits);
+    }
+
+    /**
+     * Appends an integer with the minimum number of fraction digits.
+     *
+     * @param value The number
+     * @param builder The builder the digits are appended to
+     * @return The operand of the written number
+     */
+    public PluralOperand format(final long value, final StringBuilder builder) {
+        appendInteger(value, builder);
+
+        return new PluralOperand(value, value, this.minFractionDigits, 0, 0, 0);
+    }
+
+    /**
+     * Appends an integer and returns its category.
+     *
+     * @param value The number
+     * @param builder The builder the digits are appended to
+     * @param rules The rules of the category
+     * @return The category of the written number
+     */
+    public PluralCategory format(final long value, final StringBuilder builder, final PluralRuleChecker rules) {
+        appendInteger(value, builder);
+
+        if (this.minFractionDigits == 0) {
+            return rules.getCategory(value);
+        }
+
+        final long power = LONG_POWERS_OF_TEN[this.minFractionDigits];
+        if (value > Long.MAX_VALUE / power || value < Long.MIN_VALUE / power) {
+            return rules.getCategory(new PluralOperand(value, value, this.minFractionDigits, 0, 0, 0));
+        }
+
+        return rules.getCategory(value * power, this.minFractionDigits);
+    }
+
+    /**
+     * Appends a double that is rounded to the maximum number of fraction digits.
+     *
+     * @param value The number, which has to be finite
+     * @param builder The builder the digits are appended to
+     * @return The operand of the written number
+     */
+    public PluralOperand format(final double value, final StringBuilder builder) {
+        checkFinite(value);
+
+        final int scale = scaleOf(value);
+        if (scale < 0) {
+            return formatBig(value, builder);
+        }
+
+        final long digits = roundedDigits(value);
+        final int visible = visibleScale(digits, scale);
+        final long unscaled = digits / LONG_POWERS_OF_TEN[scale - visible];
+        appendDecimal(unscaled, visible, value < 0, builder);
+
+        final long divisor = LONG_POWERS_OF_TEN[visible];
+        final long fraction = Math.abs(unscaled % divisor);
+
+        long t = fraction;
+        int w = t == 0 ? 0 : visible;
+        while (t != 0 && t % 10 == 0) {
+            t /= 10;
+            w--;
+        }
+
+        return new PluralOperand(unscaled / DOUBLE_POWERS_OF_TEN[visible], unscaled / divisor, visible, w, fraction, t);
+    }
+
+    /**
+     * Appends a double that is rounded to the maximum number of fraction digits and returns its category.
+     *
+     * @param value The number, which has to be finite
+     * @param builder The builder the digits are appended to
+     * @param rules The rules of the category
+     * @return The category of the written number
+     */
+    public PluralCategory format(final double value, final StringBuilder builder, final PluralRuleChecker rules) {
+        checkFinite(value);
+
+        final int scale = scaleOf(value);
+        if (scale < 0) {
+            return rules.getCategory(formatBig(value, builder));
+        }
+
+        final long digits = roundedDigits(value);
+        final int visible = visibleScale(digits, scale);
+        final long unscaled = digits / LONG_POWERS_OF_TEN[scale - visible];
+        appendDecimal(unscaled, visible, value < 0, builder);
+
+        return rules.getCategory(unscaled, visible);
+    }
+
+    /**
+     * Returns the number as a string.
+     */
+    public String format(final double value) {
+        final StringBuilder builder = new StringBuilder();
+        format(value, builder);
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns the scale of the fast path or {@code -1} if the rounded digits don't fit
+     * exactly into a double or if they might be a tie, which is rounded by {@link #formatBig}.
+     */
+    private int scaleOf(final double value) {
+        final double scaled = Math.abs(value) * DOUBLE_POWERS_OF_TEN[this.maxFractionDigits];
+        if (!(scaled < MAX_FAST_SCALED)) {
+            return -1;
+        }
+
+        // the product itself is rounded and the shortest digits of the double can be on the other side of a tie
+        if (Math.abs(scaled - Math.floor(scaled) - 0.5) < TIE_DISTANCE) {
+            return -1;
+        }
+
+        return this.maxFractionDigits;
+    }
+
+    private long roundedDigits(final double value) {
+        return (long) Math.rint(value * DOUBLE_POWERS_OF_TEN[this.maxFractionDigits]);
+    }
+
+    /**
+     * Returns the number of fraction digits without the trailing zeros that are above the minimum.
+     */
+    private int visibleScale(final long digits, final int scale) {
+        long unscaled = digits;
+        int visible = scale;
+        while (visible > this.minFractionDigits && unscaled % 10 == 0) {
+            unscaled /= 10;
+            visible--;
+        }
+
+        return visible;
+    }
+
+    private PluralOperand formatBig(final double value, final StringBuilder builder) {
+        // the digits are the shortest ones of the double like in DecimalFormat,
+        // but a tie is rounded with the exact value of the double
+        final BigDecimal shortest = BigDecimal.valueOf(value).stripTrailingZeros();
+        final boolean tie = shortest.scale() == this.maxFractionDigits + 1
+                && shortest.unscaledValue().abs().mod(BigInteger.TEN).intValue() == 5;
+
+        BigDecimal decimal = (tie ? new BigDecimal(value) : shortest)
+                .setScale(this.maxFractionDigits, RoundingMode.HALF_EVEN);
+
+        final BigDecimal stripped = decimal.stripTrailingZeros();
+        if (stripped.scale() < decimal.scale()) {
+            decimal = decimal.setScale(Math.max(stripped.scale(), this.minFractionDigits), RoundingMode.UNNECESSARY);
+        }
+
+        final String digits = decimal.unscaledValue().abs().toString();
+        final int scale = decimal.scale();
+        final int integerDigits = digits.length() - scale;
+
+        appendPrefix(value < 0, builder);
+
+        if (integerDigits <= 0) {
+            builder.append(this.zeroDigit);
+        }
+
+        for (int index = 0; index < integerDigits; index++) {
+            appendGrouped(digits.charAt(index) - '0', integerDigits - index, builder);
+        }
+
+        appendFraction(digits, scale, builder);
+        appendSuffix(value < 0, builder);
+
+        return PluralOperand.from(decimal);
+    }
+
+    private void appendFraction(final String digits, final int scale, final StringBuilder builder) {
+        if (scale == 0) {
+            return;
+        }
+
+        builder.append(this.decimalSeparator);
+        for (int index = digits.length() - scale; index < digits.length(); index++) {
+            builder.append(index < 0 ? this.zeroDigit : (char) (this.zeroDigit + digits.charAt(index) - '0'));
+        }
+    }
+
+    private void appendInteger(final long value, final StringBuilder builder) {
+        appendPrefix(value < 0, builder);
+        appendIntegerDigits(value, builder);
+
+        if (this.minFractionDigits > 0) {
+            builder.append(this.decimalSeparator);
+            for (int index = 0; index < this.minFractionDigits; index++) {
+                builder.append(this.zeroDigit);
+            }
+        }
+
+        appendSuffix(value < 0, builder);
+    }
+
+    private void appendDecimal(final long unscaled, final int scale, final boolean negative, final StringBuilder builder) {
+        // -0.001 is still written with its sign like in DecimalFormat
+        appendPrefix(negative, builder);
+
+        final long divisor = LONG_POWERS_OF_TEN[scale];
+        appendIntegerDigits(unscaled / divisor, builder);
+
+        if (scale > 0) {
+            builder.append(this.decimalSeparator);
+
+            final long fraction = Math.abs(unscaled % divisor);
+            for (int index = scale - 1; index >= 0; index--) {
+                builder.append((char) (this.zeroDigit + fraction / LONG_POWERS_OF_TEN[index] % 10));
+            }
+        }
+
+        appendSuffix(negative, builder);
+    }
+
+    private void appendPrefix(final boolean negative, final StringBuilder builder) {
+        if (negative) {
+            builder.append(this.negativePrefix);
+        }
+    }
+
+    private void appendSuffix(final boolean negative, final StringBuilder builder) {
+        if (negative) {
+            builder.append(this.negativeSuffix);
+        }
+    }
+
+    /**
+     * Appends the digits of the absolute value of an integer with the grouping separators.
+     */
+    private void appendIntegerDigits(final long value, final StringBuilder builder) {
+        // the digits are computed from the negative value, which also works for Long.MIN_VALUE
+        final long negative = value < 0 ? value : -value;
+
+        int digits = 1;
+        while (digits < LONG_POWERS_OF_TEN.length && negative <= -LONG_POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+
+        for (int position = digits; position > 0; position--) {
+            appendGrouped((int) -(negative / LONG_POWERS_OF_TEN[position - 1] % 10), position, builder);
+        }
+    }
+
+    /**
+     * Appends a digit of the integer part, which is followed by a grouping
+     * separator if there is a whole group of digits behind it.
+     *
+     * @param position The position of the digit, where {@code 1} is the last digit
+     */
+    private void appendGrouped(final int digit, final int position, final StringBuilder builder) {
+        builder.append((char) (this.zeroDigit + digit));
+
+        if (this.groupingSize > 0 && position > 1 && (position - 1) % this.groupingSize == 0) {
+            builder.append(this.groupingSeparator);
+        }
+    }
+
+    private static void checkFinite(final double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("The value " + value + " is not finite");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NumberFormatter{" +
+                "decimalSeparator=" + decimalSeparator +
+                ", groupingSeparator=" + groupingSeparator +
+                ", groupingSize=" + groupingSize +
+                ", minFractionDigits=" + minFractionDigits +
+                ", maxFractionDigits=" + maxFractionDigits +
+                '}';
+    }
+}
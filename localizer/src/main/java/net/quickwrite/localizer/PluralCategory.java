@@ -22,7 +22,13 @@ import net.quickwrite.localizer.processor.PluralRuleGen;
  *     </ul>
  * </p>
  */
-@PluralRuleGen(packageName = "net.quickwrite.localizer", operand = PluralOperand.class, category = PluralCategory.class)
+@PluralRuleGen(
+        packageName = "net.quickwrite.localizer",
+        operand = PluralOperand.class,
+        category = PluralCategory.class,
+        integerEngine = PluralRuleGen.IntegerEngine.LOOKUP_TABLE,
+        instrumentation = PluralInstrumentation.class
+)
 public enum PluralCategory {
     ZERO,
     ONE,
@@ -0,0 +1,475 @@
+package net.quickwrite.localizer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the categories that are returned for every locale and measures how long the
+ * construction of the {@link PluralOperand operands} and the evaluation of the rules take.
+ *
+ * <p>
+ * The instrumentation is off unless the JVM is started with
+ * {@code -Dnet.quickwrite.localizer.instrumentation=true}. Every instrumented method checks the
+ * {@link #ENABLED} constant first, so the JIT compiler removes the check and the instrumentation
+ * completely if it is off, and none of the counters are created. In a native image
+ * the class is initialized while the image is built, so the property has to be set then.
+ * </p>
+ *
+ * <p>
+ * If it is on, every categorization increments a {@link LongAdder} of its locale and category,
+ * and every construction of an operand one of its method. Only one out of
+ * {@code net.quickwrite.localizer.instrumentation.sampleRate} calls (64 by default, rounded up
+ * to a power of two) is timed. The times of these calls are collected in histograms and
+ * are also committed as the JFR events {@code net.quickwrite.localizer.PluralRuleEvaluation}
+ * and {@code net.quickwrite.localizer.PluralOperandConstruction} if these are enabled in a recording.
+ * </p>
+ *
+ * <pre>{@code
+ * final PluralInstrumentation.Snapshot snapshot = PluralInstrumentation.snapshot();
+ * for (final PluralInstrumentation.CategoryCount count : snapshot.categories()) {
+ *     System.out.println(count.rules() + " " + count.locale() + " " + count.category() + " " + count.count());
+ * }
+ * }</pre>
+ */
+public final class PluralInstrumentation {
+    public static final String PROPERTY = "net.quickwrite.localizer.instrumentation";
+    public static final String SAMPLE_RATE_PROPERTY = PROPERTY + ".sampleRate";
+
+    /**
+     * If the instrumentation is on. This is only read once, so it is a constant for the JIT compiler.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    /**
+     * The start of a call that is not timed.
+     */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final int SAMPLE_MASK = sampleMask(Integer.getInteger(SAMPLE_RATE_PROPERTY, 64));
+
+    /**
+     * The number of buckets of the latency histograms. Bucket {@code b} counts the calls
+     * that took less than {@code 2^b} but at least {@code 2^(b - 1)} nanoseconds,
+     * and the last bucket everything that took longer.
+     */
+    public static final int BUCKETS = 40;
+
+    static final int FROM_DOUBLE = 0;
+    static final int FROM_STRING = 1;
+    static final int FROM_BIG_DECIMAL = 2;
+    static final int FROM_COMPACT = 3;
+    static final int FROM_CHARACTERS = 4;
+    static final int FROM_BYTES = 5;
+    static final int FROM_BUFFER = 6;
+
+    private static final String[] OPERAND_OPERATIONS = {
+            "PluralOperand.from(double)",
+            "PluralOperand.from(String)",
+            "PluralOperand.from(BigDecimal)",
+            "PluralOperand.from(long, int, int)",
+            "PluralOperand.from(CharSequence, int, int)",
+            "PluralOperand.from(byte[], int, int)",
+            "PluralOperand.from(ByteBuffer, int, int)"
+    };
+
+    private static final Histogram[] OPERANDS = ENABLED ? createOperandHistograms() : null;
+
+    private static final List<Recorder> RECORDERS = new CopyOnWriteArrayList<>();
+
+    private PluralInstrumentation() {
+
+    }
+
+    private static int sampleMask(final int sampleRate) {
+        if (sampleRate <= 1) {
+            return 0;
+        }
+
+        return Integer.highestOneBit(sampleRate - 1) * 2 - 1;
+    }
+
+    private static Histogram[] createOperandHistograms() {
+        final Histogram[] histograms = new Histogram[OPERAND_OPERATIONS.length];
+        for (int index = 0; index < histograms.length; index++) {
+            histograms[index] = new Histogram(OPERAND_OPERATIONS[index]);
+        }
+
+        return histograms;
+    }
+
+    /**
+     * Creates the recorder of the generated rule checker that has the locales as its constants.
+     * This is called by the generated checkers if the instrumentation is {@link #ENABLED}.
+     *
+     * @param locales The constants of the checker
+     * @param categories The constants of the category
+     * @return The recorder of the checker
+     */
+    public static Recorder register(final Enum<?>[] locales, final Enum<?>[] categories) {
+        final Recorder recorder = new Recorder(locales, categories);
+        RECORDERS.add(recorder);
+
+        return recorder;
+    }
+
+    /**
+     * Returns the start of a call, which is only timed if the call is sampled.
+     */
+    private static long start() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0 ? System.nanoTime() : NOT_TIMED;
+    }
+
+    static long startOperand() {
+        return start();
+    }
+
+    static void recordOperand(final int operation, final long start) {
+        final Histogram histogram = OPERANDS[operation];
+        histogram.count.increment();
+
+        if (start == NOT_TIMED) {
+            return;
+        }
+
+        final long duration = System.nanoTime() - start;
+        histogram.record(duration);
+
+        final OperandConstructionEvent event = new OperandConstructionEvent();
+        if (event.isEnabled()) {
+            event.operation = histogram.operation;
+            event.constructionTime = duration;
+            event.commit();
+        }
+    }
+
+    /**
+     * Takes a snapshot of all the counters. The counters are read one after another
+     * while they may still be incremented, so a snapshot is not an atomic view of all of them.
+     *
+     * @return The snapshot, which is empty if the instrumentation is off
+     */
+    public static Snapshot snapshot() {
+        if (!ENABLED) {
+            return new Snapshot(List.of(), List.of());
+        }
+
+        final List<CategoryCount> categories = new ArrayList<>();
+        final List<Latency> latencies = new ArrayList<>();
+
+        for (final Histogram histogram : OPERANDS) {
+            latencies.add(histogram.snapshot());
+        }
+
+        for (final Recorder recorder : RECORDERS) {
+            for (int locale = 0; locale < recorder.locales.length; locale++) {
+                for (int category = 0; category < recorder.categories.length; category++) {
+                    final long count = recorder.counts[locale * recorder.categories.length + category].sum();
+
+                    if (count != 0) {
+                        categories.add(new CategoryCount(
+                                recorder.histogram.operation,
+                                recorder.locales[locale],
+                                recorder.categories[category],
+                                count
+                        ));
+                    }
+                }
+            }
+
+            latencies.add(recorder.histogram.snapshot());
+        }
+
+        return new Snapshot(List.copyOf(categories), List.copyOf(latencies));
+    }
+
+    /**
+     * Counts the categories of a generated rule checker.
+     */
+    public static final class Recorder {
+        private final String[] locales;
+        private final String[] categories;
+        private final LongAdder[] counts;
+        private final Histogram histogram;
+
+        private Recorder(final Enum<?>[] locales, final Enum<?>[] categories) {
+            this.locales = names(locales);
+            this.categories = names(categories);
+            this.counts = new LongAdder[locales.length * categories.length];
+            for (int index = 0; index < this.counts.length; index++) {
+                this.counts[index] = new LongAdder();
+            }
+
+            this.histogram = new Histogram(locales.length == 0
+                    ? "unknown"
+                    : locales[0].getDeclaringClass().getSimpleName());
+        }
+
+        private static String[] names(final Enum<?>[] constants) {
+            final String[] names = new String[constants.length];
+            for (int index = 0; index < names.length; index++) {
+                names[index] = constants[index].name();
+            }
+
+            return names;
+        }
+
+        /**
+         * Returns the start of an evaluation, which has to be passed to {@link #record(int, int, long)}.
+         *
+         * @return The start
+         */
+        public long start() {
+            return PluralInstrumentation.start();
+        }
+
+        /**
+         * Records the category that was returned.
+         *
+         * @param locale The ordinal of the locale
+         * @param category The ordinal of the category
+         * @param start The value of {@link #start()} before the rules were evaluated
+         */
+        public void record(final int locale, final int category, final long start) {
+            this.counts[locale * this.categories.length + category].increment();
+            this.histogram.count.increment();
+
+            if (start == NOT_TIMED) {
+                return;
+            }
+
+            final long duration = System.nanoTime() - start;
+            this.histogram.record(duration);
+
+            final RuleEvaluationEvent event = new RuleEvaluationEvent();
+            if (event.isEnabled()) {
+                event.rules = this.histogram.operation;
+                event.locale = this.locales[locale];
+                event.category = this.categories[category];
+                event.evaluationTime = duration;
+                event.commit();
+            }
+        }
+
+        /**
+         * Records the categories of a whole array, which was categorized with a single call.
+         * The call is timed as one sample of the mean time of its values and, as it has no single
+         * category, it is not committed as an event.
+         *
+         * @param locale The ordinal of the locale
+         * @param ordinals The ordinals of the categories that were returned
+         * @param offset The index of the first ordinal
+         * @param length The number of ordinals
+         * @param start The value of {@link #start()} before the rules were evaluated
+         */
+        public void recordAll(final int locale, final byte[] ordinals, final int offset, final int length, final long start) {
+            final int[] counts = new int[this.categories.length];
+            for (int index = 0; index < length; index++) {
+                counts[ordinals[offset + index]]++;
+            }
+
+            for (int category = 0; category < counts.length; category++) {
+                if (counts[category] != 0) {
+                    this.counts[locale * this.categories.length + category].add(counts[category]);
+                }
+            }
+
+            this.histogram.count.add(length);
+
+            if (start == NOT_TIMED || length == 0) {
+                return;
+            }
+
+            this.histogram.record((System.nanoTime() - start) / length);
+        }
+    }
+
+    private static final class Histogram {
+        private final String operation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        private Histogram(final String operation) {
+            this.operation = operation;
+
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                this.buckets[bucket] = new LongAdder();
+            }
+        }
+
+        private void record(final long nanos) {
+            // the clock can go backwards between cores
+            final long duration = Math.max(0, nanos);
+
+            this.sampledNanos.add(duration);
+            this.buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(duration))].increment();
+        }
+
+        private Latency snapshot() {
+            final long[] histogram = new long[BUCKETS];
+            long samples = 0;
+
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                histogram[bucket] = this.buckets[bucket].sum();
+                samples += histogram[bucket];
+            }
+
+            return new Latency(this.operation, this.count.sum(), samples, this.sampledNanos.sum(), histogram);
+        }
+    }
+
+    /**
+     * The counters at the time of a {@link #snapshot()}.
+     *
+     * @param categories The number of every category that was returned for a locale, without the ones that are zero
+     * @param latencies The latencies of the construction of the operands and of the evaluation of every rule checker
+     */
+    public record Snapshot(List<CategoryCount> categories, List<Latency> latencies) {
+        /**
+         * Returns the number of times a category was returned for a locale.
+         *
+         * @param rules The simple name of the rule checker, like {@code PluralRuleChecker}
+         * @param locale The name of the locale constant, like {@code pt_pt}
+         * @param category The name of the category, like {@code ONE}
+         * @return The number of times
+         */
+        public long getCount(final String rules, final String locale, final String category) {
+            for (final CategoryCount count : this.categories) {
+                if (count.rules.equals(rules) && count.locale.equals(locale) && count.category.equals(category)) {
+                    return count.count;
+                }
+            }
+
+            return 0;
+        }
+
+        /**
+         * Returns the latency of an operation.
+         *
+         * @param operation The operation, like {@code PluralRuleChecker} or {@code PluralOperand.from(double)}
+         * @return The latency or {@code null} if the operation is unknown
+         */
+        public Latency getLatency(final String operation) {
+            for (final Latency latency : this.latencies) {
+                if (latency.operation.equals(operation)) {
+                    return latency;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * @param rules The simple name of the rule checker
+     * @param locale The name of the locale constant
+     * @param category The name of the category
+     * @param count The number of times the category was returned for the locale
+     */
+    public record CategoryCount(String rules, String locale, String category, long count) {
+
+    }
+
+    /**
+     * The sampled latencies of an operation.
+     *
+     * @param operation The name of the operation
+     * @param count The number of all calls
+     * @param samples The number of calls that were timed
+     * @param sampledNanos The time of all timed calls together
+     * @param histogram The number of timed calls in every bucket, as described in {@link #BUCKETS}
+     */
+    public record Latency(String operation, long count, long samples, long sampledNanos, long[] histogram) {
+        /**
+         * Returns the average time of the timed calls.
+         *
+         * @return The average time in nanoseconds or {@code 0} without any samples
+         */
+        public double getMeanNanos() {
+            return this.samples == 0 ? 0 : (double) this.sampledNanos / this.samples;
+        }
+
+        /**
+         * Returns an upper bound of a percentile of the timed calls, which is the end of its bucket.
+         *
+         * @param percentile The percentile between 0 and 100
+         * @return The upper bound in nanoseconds, {@link Long#MAX_VALUE} for the last bucket
+         *         or {@code 0} without any samples
+         * @throws IllegalArgumentException If the percentile is not between 0 and 100
+         */
+        public long getPercentileNanos(final double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("The percentile has to be between 0 and 100, but is " + percentile);
+            }
+
+            if (this.samples == 0) {
+                return 0;
+            }
+
+            final double rank = Math.max(1, Math.ceil(this.samples * percentile / 100));
+            long seen = 0;
+
+            for (int bucket = 0; bucket < this.histogram.length - 1; bucket++) {
+                seen += this.histogram[bucket];
+
+                if (seen >= rank) {
+                    return (1L << bucket) - 1;
+                }
+            }
+
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return "Latency{" +
+                    "operation='" + operation + '\'' +
+                    ", count=" + count +
+                    ", samples=" + samples +
+                    ", meanNanos=" + getMeanNanos() +
+                    '}';
+        }
+    }
+
+    @Name("net.quickwrite.localizer.PluralRuleEvaluation")
+    @Label("Plural Rule Evaluation")
+    @Category("JLocalizer")
+    @Description("A sampled evaluation of the plural rules of a locale")
+    private static final class RuleEvaluationEvent extends Event {
+        @Label("Rules")
+        private String rules;
+
+        @Label("Locale")
+        private String locale;
+
+        @Label("Category")
+        private String category;
+
+        @Label("Evaluation Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long evaluationTime;
+    }
+
+    @Name("net.quickwrite.localizer.PluralOperandConstruction")
+    @Label("Plural Operand Construction")
+    @Category("JLocalizer")
+    @Description("A sampled construction of a plural operand")
+    private static final class OperandConstructionEvent extends Event {
+        @Label("Operation")
+        private String operation;
+
+        @Label("Construction Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long constructionTime;
+    }
+}
@@ -0,0 +1,583 @@
+package net.quickwrite.localizer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A message with a plural argument in the syntax of the ICU {@code MessageFormat}:
+ * <pre>{@code
+ * final PluralMessage files = PluralMessage.compile(PluralRuleChecker.en,
+ *         "{count, plural, =0{no files} one{# file} other{# files}}");
+ *
+ * files.format(3, builder); // 3 files
+ * }</pre>
+ *
+ * <p>
+ * The pattern is only parsed once into the messages of every category, which are stored by the
+ * ordinal of the {@link PluralCategory}. Formatting then only selects the message and appends its
+ * parts to the output without creating any objects, so a compiled message can be shared between threads.
+ * </p>
+ *
+ * <p>
+ * The supported syntax is a subset of the ICU syntax:
+ * </p>
+ * <ul>
+ *     <li>
+ *         All the arguments have to refer to the same number. {@code {count}} is replaced with the number,
+ *         just like {@code #} inside the messages of a plural argument.
+ *     </li>
+ *     <li>
+ *         The selectors of a plural argument are either the name of a category or an explicit value like {@code =0},
+ *         which wins over the categories. The {@code other} message is required.
+ *     </li>
+ *     <li>
+ *         Plural arguments can't be nested and {@code offset:} is not supported.
+ *     </li>
+ *     <li>
+ *         An apostrophe starts a quoted text if it is in front of a syntax character like {@code '{'}
+ *         and two apostrophes are a single one.
+ *     </li>
+ * </ul>
+ */
+public final class PluralMessage {
+    private static final PluralCategory[] CATEGORIES = PluralCategory.values();
+
+    /**
+     * The marker of the number in the parts of a message.
+     */
+    private static final Object NUMBER = new Object();
+
+    private final PluralRuleChecker rules;
+    private final String pattern;
+
+    // the parts are either a String, the NUMBER marker or a Plural
+    private final Object[] parts;
+    private final boolean hasPlural;
+
+    /**
+     * A plural argument.
+     *
+     * @param messages The messages by the ordinal of their category, where missing categories use the {@code other} message
+     * @param explicitValues The values of the explicit selectors like {@code =0}
+     * @param explicitMessages The messages of the explicit selectors
+     */
+    private record Plural(Object[][] messages, long[] explicitValues, Object[][] explicitMessages) {
+
+    }
+
+    private PluralMessage(final PluralRuleChecker rules, final String pattern, final Object[] parts) {
+        this.rules = rules;
+        this.pattern = pattern;
+        this.parts = parts;
+
+        boolean hasPlural = false;
+        for (final Object part : parts) {
+            hasPlural |= part instanceof Plural;
+        }
+        this.hasPlural = hasPlural;
+    }
+
+    /**
+     * Parses the pattern of a message.
+     *
+     * @param rules The plural rules of the language of the message
+     * @param pattern The pattern of the message
+     * @return The compiled message
+     * @throws IllegalArgumentException If the pattern is not valid
+     */
+    public static PluralMessage compile(final PluralRuleChecker rules, final String pattern) {
+        return new PluralMessage(rules, pattern, new Parser(pattern).parseMessage());
+    }
+
+    /**
+     * Appends the message of an integer.
+     *
+     * @param count The number
+     * @param builder The builder the message is appended to
+     * @return The builder
+     */
+    public StringBuilder format(final long count, final StringBuilder builder) {
+        try {
+            format(count, (Appendable) builder);
+        } catch (final IOException e) {
+            // a StringBuilder never throws
+            throw new AssertionError(e);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Appends the message of a number with visible fraction digits.
+     * The number is written with all the visible fraction digits of the operand.
+     *
+     * @param count The operand of the number
+     * @param builder The builder the message is appended to
+     * @return The builder
+     */
+    public StringBuilder format(final PluralOperand count, final StringBuilder builder) {
+        try {
+            format(count, (Appendable) builder);
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Appends the message of an integer.
+     *
+     * @param count The number
+     * @param output The output the message is appended to
+     * @throws IOException If the output can't be written
+     */
+    public void format(final long count, final Appendable output) throws IOException {
+        final int category = this.hasPlural ? this.rules.getCategory(count).ordinal() : 0;
+
+        for (final Object part : this.parts) {
+            if (part instanceof Plural plural) {
+                appendParts(select(plural, category, count, true), count, null, output);
+            } else {
+                appendPart(part, count, null, output);
+            }
+        }
+    }
+
+    /**
+     * Appends the message of a number with visible fraction digits.
+     *
+     * @param count The operand of the number
+     * @param output The output the message is appended to
+     * @throws IOException If the output can't be written
+     */
+    public void format(final PluralOperand count, final Appendable output) throws IOException {
+        final int category = this.hasPlural ? this.rules.getCategory(count).ordinal() : 0;
+
+        for (final Object part : this.parts) {
+            if (part instanceof Plural plural) {
+                // =1 also matches 1.0, like in ICU
+                appendParts(select(plural, category, count.i(), count.f() == 0), 0, count, output);
+            } else {
+                appendPart(part, 0, count, output);
+            }
+        }
+    }
+
+    /**
+     * Returns the message of an integer as a string.
+     *
+     * @param count The number
+     * @return The message
+     */
+    public String format(final long count) {
+        return format(count, new StringBuilder(this.pattern.length())).toString();
+    }
+
+    /**
+     * Returns the message of a number with visible fraction digits as a string.
+     *
+     * @param count The operand of the number
+     * @return The message
+     */
+    public String format(final PluralOperand count) {
+        return format(count, new StringBuilder(this.pattern.length())).toString();
+    }
+
+    public PluralRuleChecker getRules() {
+        return rules;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    private static Object[] select(final Plural plural, final int category, final long integer, final boolean integral) {
+        if (integral) {
+            final long[] explicitValues = plural.explicitValues();
+
+            for (int index = 0; index < explicitValues.length; index++) {
+                if (explicitValues[index] == integer) {
+                    return plural.explicitMessages()[index];
+                }
+            }
+        }
+
+        return plural.messages()[category];
+    }
+
+    private static void appendParts(final Object[] parts,
+                                    final long count,
+                                    final PluralOperand operand,
+                                    final Appendable output) throws IOException {
+        for (final Object part : parts) {
+            appendPart(part, count, operand, output);
+        }
+    }
+
+    private static void appendPart(final Object part,
+                                   final long count,
+                                   final PluralOperand operand,
+                                   final Appendable output) throws IOException {
+        if (part != NUMBER) {
+            output.append((String) part);
+        } else if (operand == null) {
+            appendInteger(count, output);
+        } else {
+            appendDecimal(operand, output);
+        }
+    }
+
+    private static void appendDecimal(final PluralOperand operand, final Appendable output) throws IOException {
+        // the integer digits of -0.5 are 0, so the sign is taken from n
+        if (operand.i() == 0 && operand.n() < 0) {
+            output.append('-');
+        }
+
+        appendInteger(operand.i(), output);
+
+        if (operand.v() == 0) {
+            return;
+        }
+
+        output.append('.');
+
+        final long fraction = operand.f();
+        for (int digits = digitCount(fraction); digits < operand.v(); digits++) {
+            output.append('0');
+        }
+
+        appendInteger(fraction, output);
+    }
+
+    /**
+     * Appends the digits of an integer without creating a string.
+     */
+    private static void appendInteger(final long value, final Appendable output) throws IOException {
+        if (output instanceof StringBuilder builder) {
+            // writes the digits directly into the builder
+            builder.append(value);
+            return;
+        }
+
+        // the digits are computed from the negative value, which also works for Long.MIN_VALUE
+        long negative = value;
+        if (value < 0) {
+            output.append('-');
+        } else {
+            negative = -value;
+        }
+
+        long divisor = -1;
+        while (divisor >= -Long.MAX_VALUE / 10 && negative <= divisor * 10) {
+            divisor *= 10;
+        }
+
+        while (divisor != 0) {
+            output.append((char) ('0' + negative / divisor));
+            negative %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    private static int digitCount(final long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+
+        return digits;
+    }
+
+    @Override
+    public String toString() {
+        return "PluralMessage{" +
+                "rules=" + rules +
+                ", pattern='" + pattern + '\'' +
+                '}';
+    }
+
+    /**
+     * Parses a pattern into the parts of the message, where all the
+     * text between two arguments is joined into a single string.
+     */
+    private static final class Parser {
+        private final String source;
+        private int position;
+        private String argument;
+
+        private Parser(final String source) {
+            this.source = source;
+            this.position = 0;
+        }
+
+        Object[] parseMessage() {
+            final Object[] parts = parseParts(false);
+
+            if (this.position < this.source.length()) {
+                throw error("Unexpected '}'");
+            }
+
+            return parts;
+        }
+
+        /**
+         * Parses the parts until the end of the pattern or an unmatched {@code '}'}.
+         *
+         * @param inPlural If the parts are the message of a plural selector, where {@code #} is the number
+         */
+        private Object[] parseParts(final boolean inPlural) {
+            final List<Object> parts = new ArrayList<>();
+            final StringBuilder text = new StringBuilder();
+
+            while (this.position < this.source.length()) {
+                final char character = this.source.charAt(this.position);
+
+                if (character == '}') {
+                    break;
+                }
+
+                if (character == '\'') {
+                    parseApostrophe(text, inPlural);
+                    continue;
+                }
+
+                if (character != '{' && !(inPlural && character == '#')) {
+                    text.append(character);
+                    this.position++;
+                    continue;
+                }
+
+                if (text.length() > 0) {
+                    parts.add(text.toString());
+                    text.setLength(0);
+                }
+
+                if (character == '#') {
+                    parts.add(NUMBER);
+                    this.position++;
+                    continue;
+                }
+
+                parts.add(parseArgument(inPlural));
+            }
+
+            if (text.length() > 0) {
+                parts.add(text.toString());
+            }
+
+            return parts.toArray();
+        }
+
+        private void parseApostrophe(final StringBuilder text, final boolean inPlural) {
+            final int next = this.position + 1;
+
+            if (next < this.source.length() && this.source.charAt(next) == '\'') {
+                text.append('\'');
+                this.position += 2;
+                return;
+            }
+
+            if (next >= this.source.length() || !isSyntaxCharacter(this.source.charAt(next), inPlural)) {
+                text.append('\'');
+                this.position++;
+                return;
+            }
+
+            // a quoted text, where two apostrophes are still a single one
+            this.position++;
+            while (this.position < this.source.length()) {
+                final char character = this.source.charAt(this.position++);
+
+                if (character != '\'') {
+                    text.append(character);
+                } else if (this.position < this.source.length() && this.source.charAt(this.position) == '\'') {
+                    text.append('\'');
+                    this.position++;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private static boolean isSyntaxCharacter(final char character, final boolean inPlural) {
+            return character == '{' || character == '}' || (inPlural && character == '#');
+        }
+
+        private Object parseArgument(final boolean inPlural) {
+            expect('{');
+
+            final String name = parseIdentifier("the name of the argument");
+            if (this.argument == null) {
+                this.argument = name;
+            } else if (!this.argument.equals(name)) {
+                throw error("All the arguments have to be '" + this.argument + "', but found '" + name + "'");
+            }
+
+            if (accept('}')) {
+                return NUMBER;
+            }
+
+            expect(',');
+            final int typePosition = this.position;
+            final String type = parseIdentifier("the type of the argument");
+            if (!type.equals("plural")) {
+                this.position = typePosition;
+                throw error("Only plural arguments are supported, but found '" + type + "'");
+            }
+
+            if (inPlural) {
+                throw error("Plural arguments can't be nested");
+            }
+
+            expect(',');
+            final Plural plural = parsePlural();
+            expect('}');
+
+            return plural;
+        }
+
+        private Plural parsePlural() {
+            final Object[][] messages = new Object[CATEGORIES.length][];
+            final List<Long> explicitValues = new ArrayList<>();
+            final List<Object[]> explicitMessages = new ArrayList<>();
+
+            skipWhitespace();
+            while (this.position < this.source.length() && this.source.charAt(this.position) != '}') {
+                final int selectorPosition = this.position;
+
+                if (accept('=')) {
+                    final long value = parseValue();
+                    if (explicitValues.contains(value)) {
+                        this.position = selectorPosition;
+                        throw error("The selector '=" + value + "' is used twice");
+                    }
+
+                    explicitValues.add(value);
+                    explicitMessages.add(parseSelectorMessage());
+                } else {
+                    final String selector = parseIdentifier("a selector");
+                    if (selector.startsWith("offset:") || selector.equals("offset")) {
+                        this.position = selectorPosition;
+                        throw error("The offset of plural arguments is not supported");
+                    }
+
+                    final int ordinal = ordinalOf(selector, selectorPosition);
+                    if (messages[ordinal] != null) {
+                        this.position = selectorPosition;
+                        throw error("The selector '" + selector + "' is used twice");
+                    }
+
+                    messages[ordinal] = parseSelectorMessage();
+                }
+
+                skipWhitespace();
+            }
+
+            final Object[] other = messages[PluralCategory.OTHER.ordinal()];
+            if (other == null) {
+                throw error("The plural argument has no 'other' selector");
+            }
+
+            for (int ordinal = 0; ordinal < messages.length; ordinal++) {
+                if (messages[ordinal] == null) {
+                    messages[ordinal] = other;
+                }
+            }
+
+            final long[] values = new long[explicitValues.size()];
+            for (int index = 0; index < values.length; index++) {
+                values[index] = explicitValues.get(index);
+            }
+
+            return new Plural(messages, values, explicitMessages.toArray(new Object[0][]));
+        }
+
+        private Object[] parseSelectorMessage() {
+            expect('{');
+            final Object[] message = parseParts(true);
+            expect('}');
+
+            return message;
+        }
+
+        private int ordinalOf(final String selector, final int selectorPosition) {
+            for (final PluralCategory category : CATEGORIES) {
+                if (category.name().toLowerCase(Locale.ROOT).equals(selector)) {
+                    return category.ordinal();
+                }
+            }
+
+            this.position = selectorPosition;
+            throw error("Unknown selector '" + selector + "'");
+        }
+
+        private String parseIdentifier(final String description) {
+            skipWhitespace();
+
+            final int start = this.position;
+            while (this.position < this.source.length() && isIdentifierPart(this.source.charAt(this.position))) {
+                this.position++;
+            }
+
+            if (start == this.position) {
+                throw error("Expected " + description);
+            }
+
+            return this.source.substring(start, this.position);
+        }
+
+        private static boolean isIdentifierPart(final char character) {
+            return Character.isLetterOrDigit(character) || character == '_' || character == ':';
+        }
+
+        private long parseValue() {
+            final int start = this.position;
+            if (this.position < this.source.length() && this.source.charAt(this.position) == '-') {
+                this.position++;
+            }
+
+            while (this.position < this.source.length() && Character.isDigit(this.source.charAt(this.position))) {
+                this.position++;
+            }
+
+            try {
+                return Long.parseLong(this.source, start, this.position, 10);
+            } catch (final NumberFormatException e) {
+                this.position = start;
+                throw error("Expected an integer");
+            }
+        }
+
+        private void expect(final char expected) {
+            if (!accept(expected)) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private boolean accept(final char expected) {
+            skipWhitespace();
+
+            if (this.position < this.source.length() && this.source.charAt(this.position) == expected) {
+                this.position++;
+                return true;
+            }
+
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (this.position < this.source.length() && Character.isWhitespace(this.source.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(
+                    message + " at position " + this.position + " in the message '" + this.source + "'"
+            );
+        }
+    }
+}
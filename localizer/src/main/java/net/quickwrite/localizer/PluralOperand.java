@@ -2,6 +2,8 @@ package net.quickwrite.localizer;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
@@ -45,6 +47,10 @@ import java.util.Objects;
  *             <td>t</td>
  *             <td>the visible fraction digits in N, <em>without</em> trailing zeros, expressed as an integer.</td>
  *         </tr>
+ *         <tr>
+ *             <td>e</td>
+ *             <td>the exponent of the power of ten in the compact decimal notation of N (also called c).</td>
+ *         </tr>
  *     </tbody>
  * </table>
  * </p>
@@ -63,6 +69,7 @@ import java.util.Objects;
  *             <th align="right">w</th>
  *             <th align="right">f</th>
  *             <th align="right">t</th>
+ *             <th align="right">e</th>
  *         </tr>
  *     </thead>
  *     <tbody>
@@ -74,6 +81,7 @@ import java.util.Objects;
  *             <td align="right">0</td>
  *             <td align="right">0</td>
  *             <td align="right">0</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.0</td>
@@ -83,6 +91,7 @@ import java.util.Objects;
  *             <td align="right">0</td>
  *             <td align="right">0</td>
  *             <td align="right">0</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.00</td>
@@ -92,6 +101,7 @@ import java.util.Objects;
  *             <td align="right">0</td>
  *             <td align="right">0</td>
  *             <td align="right">0</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.3</td>
@@ -101,6 +111,7 @@ import java.util.Objects;
  *             <td align="right">1</td>
  *             <td align="right">3</td>
  *             <td align="right">3</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.30</td>
@@ -110,6 +121,7 @@ import java.util.Objects;
  *             <td align="right">1</td>
  *             <td align="right">30</td>
  *             <td align="right">3</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.03</td>
@@ -119,6 +131,7 @@ import java.util.Objects;
  *             <td align="right">2</td>
  *             <td align="right">3</td>
  *             <td align="right">3</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.230</td>
@@ -128,6 +141,7 @@ import java.util.Objects;
  *             <td align="right">2</td>
  *             <td align="right">230</td>
  *             <td align="right">23</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1200000</td>
@@ -137,6 +151,7 @@ import java.util.Objects;
  *             <td align="right">0</td>
  *             <td align="right">0</td>
  *             <td align="right">0</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.2c6</td>
@@ -146,6 +161,7 @@ import java.util.Objects;
  *             <td align="right">0</td>
  *             <td align="right">0</td>
  *             <td align="right">0</td>
+ *             <td align="right">6</td>
  *         </tr>
  *         <tr>
  *             <td align="right">123c6</td>
@@ -155,6 +171,7 @@ import java.util.Objects;
  *             <td align="right">0</td>
  *             <td align="right">0</td>
  *             <td align="right">0</td>
+ *             <td align="right">6</td>
  *         </tr>
  *         <tr>
  *             <td align="right">123c5</td>
@@ -164,6 +181,7 @@ import java.util.Objects;
  *             <td align="right">0</td>
  *             <td align="right">0</td>
  *             <td align="right">0</td>
+ *             <td align="right">5</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1200.50</td>
@@ -173,6 +191,7 @@ import java.util.Objects;
  *             <td align="right">1</td>
  *             <td align="right">50</td>
  *             <td align="right">5</td>
+ *             <td align="right">0</td>
  *         </tr>
  *         <tr>
  *             <td align="right">1.20050c3</td>
@@ -182,12 +201,53 @@ import java.util.Objects;
  *             <td align="right">1</td>
  *             <td align="right">50</td>
  *             <td align="right">5</td>
+ *             <td align="right">3</td>
  *         </tr>
  *     </tbody>
  * </table>
  * </p>
  */
-public record PluralOperand(double n, long i, int v, int w, long f, long t) {
+public record PluralOperand(double n, long i, int v, int w, long f, long t, int e) {
+    /**
+     * The range in which {@link Double#toString(double)} does not use the
+     * computerized scientific notation.
+     */
+    private static final double MIN_PLAIN_DOUBLE = 1e-3;
+    private static final double MAX_PLAIN_DOUBLE = 1e7;
+
+    /**
+     * All integers below this value can be represented exactly as a double.
+     */
+    private static final double MAX_EXACT_DOUBLE = 0x1p53;
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    /**
+     * The largest number of digits that can still be multiplied by ten and get another digit.
+     */
+    private static final long MAX_PARSED_DIGITS = (Long.MAX_VALUE - 9) / 10;
+
+    /**
+     * The exponents of the parsed numbers stop here, as everything larger is parsed by a {@link BigDecimal}.
+     */
+    private static final int MAX_PARSED_EXPONENT = 9999;
+
+    private static final long[] LONG_POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+            10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+            1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+    };
+
+    /**
+     * Creates an operand without an exponent.
+     */
+    public PluralOperand(final double n, final long i, final int v, final int w, final long f, final long t) {
+        this(n, i, v, w, f, t, 0);
+    }
+
     public static PluralOperand from(final int value) {
         return new PluralOperand(value, value, 0, 0, 0, 0);
     }
@@ -196,11 +256,109 @@ public record PluralOperand(double n, long i, int v, int w, long f, long t) {
         return new PluralOperand(value, value, 0, 0, 0, 0);
     }
 
+    /**
+     * Creates the operand of a double by using the shortest decimal
+     * representation that still rounds to the same double value.
+     *
+     * <p>
+     * This produces the same operands as {@code from(Double.toString(value))}
+     * (so {@code 1.0} still has a visible fraction digit), but reads the digits
+     * directly from the value instead of creating a {@link String} and a {@link BigDecimal}.
+     * Values that are outside the plain notation of {@link Double#toString(double)}
+     * or that need more digits than can be checked exactly are still parsed from the
+     * result of {@link Double#toString(double)}.
+     * </p>
+     *
+     * @param value The value that should be converted
+     * @return The operand of the value
+     */
     public static PluralOperand from(final double value) {
-        return from(Double.toString(value));
+        if (!PluralInstrumentation.ENABLED) {
+            return fromDouble(value);
+        }
+
+        final long start = PluralInstrumentation.startOperand();
+        final PluralOperand operand = fromDouble(value);
+        PluralInstrumentation.recordOperand(PluralInstrumentation.FROM_DOUBLE, start);
+        return operand;
+    }
+
+    private static PluralOperand fromDouble(final double value) {
+        if (value == 0) {
+            return new PluralOperand(0, 0, 1, 0, 0, 0);
+        }
+
+        final int scale = visibleScaleOf(value);
+        if (scale < 0) {
+            return fromString(Double.toString(value));
+        }
+
+        // whole numbers still have a single visible zero as fraction digit
+        final long fraction = Math.abs(unscaledValueOf(value, scale)) % LONG_POWERS_OF_TEN[scale];
+        final int visibleNonTrailingDigits = fraction == 0 ? 0 : scale;
+
+        return new PluralOperand(value, (long) value, scale, visibleNonTrailingDigits, fraction, fraction);
+    }
+
+    /**
+     * Returns the number of visible fraction digits of a double in the same way as {@link #from(double)},
+     * so it is at least one. Together with {@link #unscaledValueOf(double, int)} this reads the digits of a
+     * double without creating an operand, which is what the generated {@code getCategory(double)} does.
+     *
+     * @param value The value
+     * @return The number of visible fraction digits or {@code -1} if the digits can only
+     *         be read from the result of {@link Double#toString(double)}
+     */
+    public static int visibleScaleOf(final double value) {
+        final double absolute = Math.abs(value);
+
+        if (absolute == 0) {
+            return 1;
+        }
+
+        if (!(absolute >= MIN_PLAIN_DOUBLE && absolute < MAX_PLAIN_DOUBLE)) {
+            return -1;
+        }
+
+        for (int scale = 0; scale < DOUBLE_POWERS_OF_TEN.length; scale++) {
+            final double scaled = absolute * DOUBLE_POWERS_OF_TEN[scale];
+            if (scaled >= MAX_EXACT_DOUBLE) {
+                break;
+            }
+
+            if (Math.round(scaled) / DOUBLE_POWERS_OF_TEN[scale] == absolute) {
+                return Math.max(1, scale);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the digits of a double without the decimal point, so that the value is {@code unscaled / 10^scale}.
+     *
+     * @param value The value
+     * @param scale The number of fraction digits that was returned by {@link #visibleScaleOf(double)}
+     * @return The digits with the sign of the value
+     */
+    public static long unscaledValueOf(final double value, final int scale) {
+        final long digits = Math.round(Math.abs(value) * DOUBLE_POWERS_OF_TEN[scale]);
+
+        return value < 0 ? -digits : digits;
     }
 
     public static PluralOperand from(final BigDecimal value) {
+        if (!PluralInstrumentation.ENABLED) {
+            return fromBigDecimal(value);
+        }
+
+        final long start = PluralInstrumentation.startOperand();
+        final PluralOperand operand = fromBigDecimal(value);
+        PluralInstrumentation.recordOperand(PluralInstrumentation.FROM_BIG_DECIMAL, start);
+        return operand;
+    }
+
+    private static PluralOperand fromBigDecimal(final BigDecimal value) {
         final BigDecimal noTrailingZeros = value.stripTrailingZeros();
         final long nonTrailingZeroFraction = noTrailingZeros
                 .remainder(BigDecimal.ONE)
@@ -208,12 +366,17 @@ public record PluralOperand(double n, long i, int v, int w, long f, long t) {
                 .movePointRight(noTrailingZeros.scale())
                 .longValue();
 
+        // integers with trailing zeros (or an exponent) have a negative scale,
+        // but they still don't have any visible fraction digits
+        final int visibleDigits = Math.max(0, value.scale());
+        final int visibleNonTrailingDigits = Math.max(0, noTrailingZeros.scale());
+
         return new PluralOperand(
                 value.doubleValue(),
                 value.longValue(),
-                value.scale(),
-                noTrailingZeros.scale(),
-                nonTrailingZeroFraction * powerN(10, value.scale() - noTrailingZeros.scale()),
+                visibleDigits,
+                visibleNonTrailingDigits,
+                nonTrailingZeroFraction * powerN(10, visibleDigits - visibleNonTrailingDigits),
                 nonTrailingZeroFraction
         );
     }
@@ -222,13 +385,365 @@ public record PluralOperand(double n, long i, int v, int w, long f, long t) {
         return new PluralOperand(value.doubleValue(), value.longValue(), 0, 0, 0, 0);
     }
 
+    /**
+     * Creates the operand of a number in the compact decimal notation, like the {@code 1.2c6}
+     * of "1.2M", without creating a {@link BigDecimal}. The number is the mantissa with
+     * {@code visibleScale} fraction digits that is multiplied by {@code 10^exponent}, so
+     * {@code from(12, 1, 6)} is {@code 1.2c6} and {@code from(120050, 5, 3)} is {@code 1.20050c3}.
+     *
+     * <p>
+     * The visible fraction digits of the mantissa that are moved before the decimal point become
+     * integer digits, so {@code 1.2c6} has {@code i = 1200000} and {@code v = 0} (but {@code e = 6}).
+     * </p>
+     *
+     * @param mantissa The digits of the mantissa
+     * @param visibleScale The number of visible fraction digits of the mantissa, up to 18
+     * @param exponent The exponent of the compact notation
+     * @return The operand of the number
+     * @throws IllegalArgumentException If the scale is not between 0 and 18 or the exponent is negative
+     * @throws ArithmeticException If the integer digits of the number don't fit into a long
+     */
+    public static PluralOperand from(final long mantissa, final int visibleScale, final int exponent) {
+        if (!PluralInstrumentation.ENABLED) {
+            return fromCompact(mantissa, visibleScale, exponent);
+        }
+
+        final long start = PluralInstrumentation.startOperand();
+        final PluralOperand operand = fromCompact(mantissa, visibleScale, exponent);
+        PluralInstrumentation.recordOperand(PluralInstrumentation.FROM_COMPACT, start);
+        return operand;
+    }
+
+    private static PluralOperand fromCompact(final long mantissa, final int visibleScale, final int exponent) {
+        if (visibleScale < 0 || visibleScale >= LONG_POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException(
+                    "The visible scale has to be between 0 and " + (LONG_POWERS_OF_TEN.length - 1) + ", but is " + visibleScale
+            );
+        }
+
+        if (exponent < 0) {
+            throw new IllegalArgumentException("The exponent can't be negative, but is " + exponent);
+        }
+
+        final PluralOperand operand = fromDigits(mantissa, visibleScale - exponent, exponent);
+        if (operand == null) {
+            throw new ArithmeticException("long overflow");
+        }
+
+        return operand;
+    }
+
+    /**
+     * Creates the operand of {@code unscaled * 10^-scale}, where the scale is the number of visible fraction digits.
+     * A scale of zero or below is an integer without any visible fraction digits.
+     *
+     * @return The operand or {@code null} if the integer doesn't fit into a long
+     */
+    private static PluralOperand fromDigits(final long unscaled, final int scale, final int exponent) {
+        if (scale <= 0) {
+            if (unscaled == 0) {
+                return new PluralOperand(0, 0, 0, 0, 0, 0, exponent);
+            }
+
+            if (-scale >= LONG_POWERS_OF_TEN.length
+                    || unscaled > Long.MAX_VALUE / LONG_POWERS_OF_TEN[-scale]
+                    || unscaled < Long.MIN_VALUE / LONG_POWERS_OF_TEN[-scale]) {
+                return null;
+            }
+
+            final long integer = unscaled * LONG_POWERS_OF_TEN[-scale];
+            return new PluralOperand(integer, integer, 0, 0, 0, 0, exponent);
+        }
+
+        final long divisor = LONG_POWERS_OF_TEN[scale];
+        final long fraction = Math.abs(unscaled % divisor);
+
+        long nonTrailingZeroFraction = fraction;
+        int visibleNonTrailingDigits = fraction == 0 ? 0 : scale;
+        while (nonTrailingZeroFraction != 0 && nonTrailingZeroFraction % 10 == 0) {
+            nonTrailingZeroFraction /= 10;
+            visibleNonTrailingDigits--;
+        }
+
+        return new PluralOperand(
+                unscaled / DOUBLE_POWERS_OF_TEN[scale],
+                unscaled / divisor,
+                scale,
+                visibleNonTrailingDigits,
+                fraction,
+                nonTrailingZeroFraction,
+                exponent
+        );
+    }
+
+    /**
+     * Creates the operand of a number. A lowercase {@code c} or {@code e} starts the exponent of the
+     * compact decimal notation that is used by the CLDR samples, so {@code 1.2c6} has {@code e = 6}.
+     * The scientific notation with an uppercase {@code E} only changes the value, like in a {@link BigDecimal}.
+     *
+     * <p>
+     * The digits are read directly, so a {@link BigDecimal} is only created
+     * if the digits don't fit into a long.
+     * </p>
+     *
+     * @param value The number
+     * @return The operand of the number
+     * @throws NumberFormatException If the value is not a number
+     */
     public static PluralOperand from(final String value) {
-        return from(new BigDecimal(value));
+        if (!PluralInstrumentation.ENABLED) {
+            return fromString(value);
+        }
+
+        final long start = PluralInstrumentation.startOperand();
+        final PluralOperand operand = fromString(value);
+        PluralInstrumentation.recordOperand(PluralInstrumentation.FROM_STRING, start);
+        return operand;
+    }
+
+    private static PluralOperand fromString(final String value) {
+        final PluralOperand operand = parse(value, null, null, 0, value.length());
+        return operand != null ? operand : parseBigDecimal(value);
+    }
+
+    /**
+     * Creates the operand of the number in a range of characters, in the same way as {@link #from(String)}
+     * but without creating a {@link String} first.
+     *
+     * @param text The text
+     * @param start The index of the first character of the number
+     * @param end The index after the last character of the number
+     * @return The operand of the number
+     * @throws NumberFormatException If the characters are not a number
+     * @throws IndexOutOfBoundsException If the range is not inside the text
+     */
+    public static PluralOperand from(final CharSequence text, final int start, final int end) {
+        Objects.checkFromToIndex(start, end, text.length());
+
+        if (!PluralInstrumentation.ENABLED) {
+            return fromCharacters(text, start, end);
+        }
+
+        final long begin = PluralInstrumentation.startOperand();
+        final PluralOperand operand = fromCharacters(text, start, end);
+        PluralInstrumentation.recordOperand(PluralInstrumentation.FROM_CHARACTERS, begin);
+        return operand;
+    }
+
+    private static PluralOperand fromCharacters(final CharSequence text, final int start, final int end) {
+        final PluralOperand operand = parse(text, null, null, start, end);
+        return operand != null ? operand : parseBigDecimal(text.subSequence(start, end).toString());
+    }
+
+    /**
+     * Creates the operand of the number in a range of ASCII bytes, like a number in a JSON or a CSV file,
+     * in the same way as {@link #from(String)} but without decoding the bytes first.
+     *
+     * @param bytes The bytes
+     * @param offset The index of the first byte of the number
+     * @param length The number of bytes of the number
+     * @return The operand of the number
+     * @throws NumberFormatException If the bytes are not a number
+     * @throws IndexOutOfBoundsException If the range is not inside the bytes
+     */
+    public static PluralOperand from(final byte[] bytes, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+
+        if (!PluralInstrumentation.ENABLED) {
+            return fromBytes(bytes, offset, length);
+        }
+
+        final long start = PluralInstrumentation.startOperand();
+        final PluralOperand operand = fromBytes(bytes, offset, length);
+        PluralInstrumentation.recordOperand(PluralInstrumentation.FROM_BYTES, start);
+        return operand;
+    }
+
+    private static PluralOperand fromBytes(final byte[] bytes, final int offset, final int length) {
+        final PluralOperand operand = parse(null, bytes, null, offset, offset + length);
+        return operand != null ? operand : parseBigDecimal(new String(bytes, offset, length, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Creates the operand of the number in a range of ASCII bytes of a buffer in the same way as
+     * {@link #from(byte[], int, int)}. The offset is an absolute index, so the position of the buffer is not changed.
+     *
+     * @param buffer The buffer
+     * @param offset The index of the first byte of the number
+     * @param length The number of bytes of the number
+     * @return The operand of the number
+     * @throws NumberFormatException If the bytes are not a number
+     * @throws IndexOutOfBoundsException If the range is not inside the limit of the buffer
+     */
+    public static PluralOperand from(final ByteBuffer buffer, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.limit());
+
+        if (!PluralInstrumentation.ENABLED) {
+            return fromBuffer(buffer, offset, length);
+        }
+
+        final long start = PluralInstrumentation.startOperand();
+        final PluralOperand operand = fromBuffer(buffer, offset, length);
+        PluralInstrumentation.recordOperand(PluralInstrumentation.FROM_BUFFER, start);
+        return operand;
+    }
+
+    private static PluralOperand fromBuffer(final ByteBuffer buffer, final int offset, final int length) {
+        final PluralOperand operand = parse(null, null, buffer, offset, offset + length);
+        if (operand != null) {
+            return operand;
+        }
+
+        final byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return parseBigDecimal(new String(bytes, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Reads the digits of a number in the plain or the scientific notation with an optional exponent
+     * of the compact decimal notation. Exactly one of the text, the bytes and the buffer is set.
+     *
+     * @return The operand or {@code null} if the number has to be parsed by {@link #parseBigDecimal(String)},
+     *         because it is not in one of these notations or its digits don't fit into a long
+     */
+    private static PluralOperand parse(final CharSequence text,
+                                       final byte[] bytes,
+                                       final ByteBuffer buffer,
+                                       final int start,
+                                       final int end) {
+        int index = start;
+        if (index == end) {
+            return null;
+        }
+
+        int character = characterAt(text, bytes, buffer, index);
+        final boolean negative = character == '-';
+        if (negative || character == '+') {
+            index++;
+        }
+
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+
+        for (; index < end; index++) {
+            character = characterAt(text, bytes, buffer, index);
+
+            if (character >= '0' && character <= '9') {
+                if (digits > MAX_PARSED_DIGITS) {
+                    return null;
+                }
+
+                digits = digits * 10 + (character - '0');
+                digitCount++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (character == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        if (digitCount == 0) {
+            return null;
+        }
+
+        // the scientific exponent, which can be negative
+        int scientific = 0;
+        if (index < end && characterAt(text, bytes, buffer, index) == 'E') {
+            index++;
+
+            final boolean negativeExponent = index < end && characterAt(text, bytes, buffer, index) == '-';
+            if (negativeExponent || index < end && characterAt(text, bytes, buffer, index) == '+') {
+                index++;
+            }
+
+            final int exponentStart = index;
+            for (; index < end; index++) {
+                character = characterAt(text, bytes, buffer, index);
+                if (character < '0' || character > '9' || scientific > MAX_PARSED_EXPONENT) {
+                    break;
+                }
+
+                scientific = scientific * 10 + (character - '0');
+            }
+
+            if (index == exponentStart) {
+                return null;
+            }
+
+            if (negativeExponent) {
+                scientific = -scientific;
+            }
+        }
+
+        // the compact exponent
+        int exponent = 0;
+        if (index < end && (characterAt(text, bytes, buffer, index) == 'c' || characterAt(text, bytes, buffer, index) == 'e')) {
+            index++;
+
+            final int exponentStart = index;
+            for (; index < end; index++) {
+                character = characterAt(text, bytes, buffer, index);
+                if (character < '0' || character > '9' || exponent > MAX_PARSED_EXPONENT) {
+                    break;
+                }
+
+                exponent = exponent * 10 + (character - '0');
+            }
+
+            if (index == exponentStart) {
+                return null;
+            }
+        }
+
+        if (index != end) {
+            return null;
+        }
+
+        final int scale = fractionDigits - scientific - exponent;
+
+        // n is only exact if the digits and the power of ten are exact doubles
+        if (scale >= LONG_POWERS_OF_TEN.length || scale > 0 && digits > MAX_EXACT_DOUBLE) {
+            return null;
+        }
+
+        return fromDigits(negative ? -digits : digits, scale, exponent);
+    }
+
+    private static int characterAt(final CharSequence text, final byte[] bytes, final ByteBuffer buffer, final int index) {
+        if (text != null) {
+            return text.charAt(index);
+        }
+
+        return (bytes != null ? bytes[index] : buffer.get(index)) & 0xFF;
+    }
+
+    private static PluralOperand parseBigDecimal(final String value) {
+        final int compact = Math.max(value.indexOf('c'), value.indexOf('e'));
+        if (compact < 0) {
+            return fromBigDecimal(new BigDecimal(value));
+        }
+
+        final int exponent = Integer.parseInt(value.substring(compact + 1));
+        if (exponent < 0) {
+            throw new NumberFormatException("The compact exponent of " + value + " can't be negative");
+        }
+
+        final PluralOperand operand = fromBigDecimal(new BigDecimal(value.substring(0, compact)).movePointRight(exponent));
+        return new PluralOperand(operand.n, operand.i, operand.v, operand.w, operand.f, operand.t, exponent);
     }
 
-    // TODO: Skip this value later
-    public int e() {
-        return 0;
+    /**
+     * A synonym of {@link #e()}.
+     *
+     * @return The exponent of the compact decimal notation
+     */
+    public int c() {
+        return e;
     }
 
     private static long powerN(final long number, int power){
@@ -249,12 +764,12 @@ public record PluralOperand(double n, long i, int v, int w, long f, long t) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PluralOperand operand = (PluralOperand) o;
-        return Double.compare(operand.n, n) == 0 && i == operand.i && v == operand.v && w == operand.w && f == operand.f && t == operand.t;
+        return Double.compare(operand.n, n) == 0 && i == operand.i && v == operand.v && w == operand.w && f == operand.f && t == operand.t && e == operand.e;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(n, i, v, w, f, t);
+        return Objects.hash(n, i, v, w, f, t, e);
     }
 
     @Override
@@ -266,6 +781,7 @@ public record PluralOperand(double n, long i, int v, int w, long f, long t) {
                 ", w=" + w +
                 ", f=" + f +
                 ", t=" + t +
+                ", e=" + e +
                 '}';
     }
 }
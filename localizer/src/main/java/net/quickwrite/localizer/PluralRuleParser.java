@@ -0,0 +1,195 @@
+package net.quickwrite.localizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the condition of a plural rule as defined by the
+ * <a href="https://unicode.org/reports/tr35/tr35-numbers.html#Plural_rules_syntax">plural rule syntax</a>
+ * (the same grammar as {@code plural-rule-syntax.bnf} of the annotation processor).
+ *
+ * <p>
+ * The samples after {@code @integer} and {@code @decimal} are ignored.
+ * </p>
+ */
+final class PluralRuleParser {
+    private final String source;
+    private int position;
+
+    /**
+     * A relation like {@code n % 10 = 2..4, 9}.
+     *
+     * @param operand The name of the operand
+     * @param modulus The modulus or {@code 0} if the operand is used directly
+     * @param negated If the relation is true when the value is <em>not</em> in the ranges
+     * @param within If the relation also matches the values between the integers of a range
+     * @param ranges The inclusive bounds of the ranges as pairs of {@code from} and {@code to}
+     */
+    record Relation(char operand, long modulus, boolean negated, boolean within, long[] ranges) {
+
+    }
+
+    private PluralRuleParser(final String source) {
+        this.source = source;
+        this.position = 0;
+    }
+
+    /**
+     * Parses the condition of a rule into its disjunctive form:
+     * The condition is true if all the relations of at least one list are true.
+     *
+     * @param rule The text of the rule, including the samples
+     * @return The and-conditions that are joined with {@code or}, which is empty for the {@code other} rule
+     * @throws IllegalArgumentException If the rule does not follow the syntax
+     */
+    static List<List<Relation>> parse(final String rule) {
+        final PluralRuleParser parser = new PluralRuleParser(rule);
+        final List<List<Relation>> condition = new ArrayList<>();
+
+        parser.skipWhitespace();
+        if (parser.isAtEnd()) {
+            return condition;
+        }
+
+        condition.add(parser.parseAndCondition());
+        while (parser.accept("or")) {
+            condition.add(parser.parseAndCondition());
+        }
+
+        if (!parser.isAtEnd()) {
+            throw parser.error("Expected 'or' or the samples");
+        }
+
+        return condition;
+    }
+
+    private List<Relation> parseAndCondition() {
+        final List<Relation> relations = new ArrayList<>();
+
+        relations.add(parseRelation());
+        while (accept("and")) {
+            relations.add(parseRelation());
+        }
+
+        return relations;
+    }
+
+    private Relation parseRelation() {
+        skipWhitespace();
+        if (isAtEnd() || "nifvwtce".indexOf(this.source.charAt(this.position)) < 0) {
+            throw error("Expected an operand");
+        }
+
+        final char operand = this.source.charAt(this.position++);
+
+        long modulus = 0;
+        if (accept("mod") || accept("%")) {
+            modulus = parseValue();
+
+            if (modulus == 0) {
+                throw error("The modulus can't be zero");
+            }
+        }
+
+        if (accept("is")) {
+            final boolean negated = accept("not");
+            final long value = parseValue();
+
+            return new Relation(operand, modulus, negated, false, new long[]{value, value});
+        }
+
+        if (accept("!=")) {
+            return new Relation(operand, modulus, true, false, parseRangeList());
+        }
+
+        if (accept("=")) {
+            return new Relation(operand, modulus, false, false, parseRangeList());
+        }
+
+        final boolean negated = accept("not");
+
+        if (accept("in")) {
+            return new Relation(operand, modulus, negated, false, parseRangeList());
+        }
+
+        if (accept("within")) {
+            return new Relation(operand, modulus, negated, true, parseRangeList());
+        }
+
+        throw error("Expected 'is', 'in', 'within', '=' or '!='");
+    }
+
+    private long[] parseRangeList() {
+        final List<Long> bounds = new ArrayList<>();
+
+        do {
+            final long from = parseValue();
+            final long to = accept("..") ? parseValue() : from;
+
+            bounds.add(from);
+            bounds.add(to);
+        } while (accept(","));
+
+        final long[] ranges = new long[bounds.size()];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = bounds.get(i);
+        }
+
+        return ranges;
+    }
+
+    private long parseValue() {
+        skipWhitespace();
+
+        final int start = this.position;
+        while (!isAtEnd() && Character.isDigit(this.source.charAt(this.position))) {
+            this.position++;
+        }
+
+        if (start == this.position) {
+            throw error("Expected a value");
+        }
+
+        return Long.parseLong(this.source, start, this.position, 10);
+    }
+
+    /**
+     * Skips the next token if it is the expected one.
+     * Keywords only match as a whole word, so {@code in} does not match {@code inside}.
+     */
+    private boolean accept(final String token) {
+        skipWhitespace();
+
+        if (!this.source.startsWith(token, this.position)) {
+            return false;
+        }
+
+        final int end = this.position + token.length();
+        if (Character.isLetter(token.charAt(0)) && end < this.source.length()
+                && Character.isLetter(this.source.charAt(end))) {
+            return false;
+        }
+
+        this.position = end;
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (!isAtEnd() && Character.isWhitespace(this.source.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    /**
+     * The condition ends at the end of the rule or at the first sample.
+     */
+    private boolean isAtEnd() {
+        return this.position >= this.source.length() || this.source.charAt(this.position) == '@';
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(
+                message + " at position " + this.position + " in the plural rule '" + this.source.trim() + "'"
+        );
+    }
+}
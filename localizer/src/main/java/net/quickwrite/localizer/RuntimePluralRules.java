@@ -0,0 +1,365 @@
+package net.quickwrite.localizer;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Plural rules that are loaded from a {@code plurals.xml} file at runtime,
+ * so that updates of CLDR don't need a new build.
+ *
+ * <p>
+ * Every rule set is compiled into its own hidden class, so the rules are not interpreted,
+ * though they are still slower than the generated {@link PluralRuleChecker}. The rules can be replaced
+ * with {@link #load(InputStream)} at any time: All the rule sets of a file are compiled
+ * first and then published at once, so {@link #getCategory(String, PluralOperand)} never
+ * waits for a lock and either sees all the old or all the new rules.
+ * </p>
+ *
+ * <pre>{@code
+ * final RuntimePluralRules rules = new RuntimePluralRules("cardinal");
+ * rules.load(Files.newInputStream(Path.of("plurals.xml")));
+ *
+ * rules.getCategory("en", PluralOperand.from(1)); // ONE
+ *
+ * final RuntimePluralRules.LocaleRules english = rules.forLocale("en-US");
+ * english.getCategory(2); // OTHER
+ * }</pre>
+ *
+ * <p>
+ * A lookup by a language tag normalizes the tag while it compares it, so it doesn't allocate,
+ * but callers that use the same locale again and again should hold its {@link LocaleRules}
+ * instead, which only resolve the locale again after new rules were loaded.
+ * </p>
+ */
+public final class RuntimePluralRules {
+    private static final PluralCategory[] CATEGORIES = PluralCategory.values();
+
+    private final String type;
+
+    // a table that is never changed after it was published, but replaced as a whole
+    private volatile RuleTable rules;
+
+    /**
+     * Creates the rules without any rule sets, so every number is {@link PluralCategory#OTHER}
+     * until a file is loaded.
+     *
+     * @param type The type of the rules that are read from the files, like {@code cardinal} or {@code ordinal}
+     */
+    public RuntimePluralRules(final String type) {
+        this.type = type;
+        this.rules = new RuleTable(Map.of());
+    }
+
+    /**
+     * Reads and compiles all the rule sets of the type from a file in the format
+     * of the CLDR {@code plurals.xml} and replaces the current rules with them.
+     *
+     * @param input The file
+     * @throws IOException If the file can't be read or is not valid XML
+     * @throws IllegalArgumentException If a rule does not follow the plural rule syntax
+     */
+    public void load(final InputStream input) throws IOException {
+        final Document document;
+        try {
+            document = DocumentBuilderFactory.newDefaultInstance().newDocumentBuilder().parse(input);
+        } catch (final ParserConfigurationException | SAXException e) {
+            throw new IOException("The plural rules could not be parsed", e);
+        }
+
+        final Map<String, CompiledPluralRule> rules = new HashMap<>();
+
+        final NodeList plurals = document.getElementsByTagName("plurals");
+        for (int i = 0; i < plurals.getLength(); i++) {
+            final Element element = (Element) plurals.item(i);
+            if (!this.type.equals(element.getAttribute("type"))) {
+                continue;
+            }
+
+            final NodeList ruleSets = element.getElementsByTagName("pluralRules");
+            for (int j = 0; j < ruleSets.getLength(); j++) {
+                final Element ruleSet = (Element) ruleSets.item(j);
+                final CompiledPluralRule rule = compile(ruleSet);
+
+                for (final String locale : ruleSet.getAttribute("locales").trim().split("\\s+")) {
+                    rules.put(locale.toLowerCase(Locale.ROOT), rule);
+                }
+            }
+        }
+
+        this.rules = new RuleTable(rules);
+    }
+
+    private static CompiledPluralRule compile(final Element ruleSet) {
+        final Map<PluralCategory, List<List<PluralRuleParser.Relation>>> conditions = new LinkedHashMap<>();
+
+        final NodeList rules = ruleSet.getElementsByTagName("pluralRule");
+        for (int i = 0; i < rules.getLength(); i++) {
+            final Element rule = (Element) rules.item(i);
+            final PluralCategory category = PluralCategory.valueOf(
+                    rule.getAttribute("count").toUpperCase(Locale.ROOT)
+            );
+
+            if (category != PluralCategory.OTHER) {
+                conditions.put(category, PluralRuleParser.parse(rule.getTextContent()));
+            }
+        }
+
+        return PluralRuleCompiler.compile(conditions);
+    }
+
+    /**
+     * Returns the category of a number in a locale.
+     * Locales without rules use the rules of their language (so {@code pt_PT} falls back
+     * to {@code pt}) and every number is {@link PluralCategory#OTHER} if there are no rules at all.
+     *
+     * @param locale The locale as a language tag like {@code en-US} or {@code en_US}
+     * @param operand The operand of the number
+     * @return The category
+     */
+    public PluralCategory getCategory(final String locale, final PluralOperand operand) {
+        return categorize(this.rules.resolve(locale), operand);
+    }
+
+    /**
+     * Returns the category of an integer in a locale without creating an operand.
+     *
+     * @see #getCategory(String, PluralOperand)
+     */
+    public PluralCategory getCategory(final String locale, final long value) {
+        return categorize(this.rules.resolve(locale), value);
+    }
+
+    /**
+     * Checks if there are rules for the locale or one of its parents.
+     *
+     * @param locale The locale as a language tag
+     * @return If the locale has rules
+     */
+    public boolean hasRules(final String locale) {
+        return this.rules.resolve(locale) != null;
+    }
+
+    /**
+     * Returns the rules of a locale, which can be held instead of passing the locale to every call.
+     * The rules follow {@link #load(InputStream)}, so they always use the rules that were loaded last.
+     *
+     * @param locale The locale as a language tag like {@code en-US} or {@code en_US}
+     * @return The rules of the locale
+     */
+    public LocaleRules forLocale(final String locale) {
+        return new LocaleRules(locale);
+    }
+
+    private static PluralCategory categorize(final CompiledPluralRule rule, final PluralOperand operand) {
+        if (rule == null) {
+            return PluralCategory.OTHER;
+        }
+
+        return CATEGORIES[rule.categorize(operand.n(), operand.i(), operand.v(), operand.w(),
+                operand.f(), operand.t(), operand.e())];
+    }
+
+    private static PluralCategory categorize(final CompiledPluralRule rule, final long value) {
+        if (rule == null) {
+            return PluralCategory.OTHER;
+        }
+
+        return CATEGORIES[rule.categorize(value, value, 0, 0, 0, 0, 0)];
+    }
+
+    /**
+     * The rules of a single locale. The locale is resolved on the first use and again
+     * after other rules were loaded, so every other call goes straight to the compiled rules.
+     */
+    public final class LocaleRules {
+        private final String locale;
+
+        // immutable, so a thread that sees it also sees its fields
+        private Resolution resolution;
+
+        private LocaleRules(final String locale) {
+            this.locale = locale;
+        }
+
+        /**
+         * @see RuntimePluralRules#getCategory(String, PluralOperand)
+         */
+        public PluralCategory getCategory(final PluralOperand operand) {
+            return categorize(rule(), operand);
+        }
+
+        /**
+         * @see RuntimePluralRules#getCategory(String, long)
+         */
+        public PluralCategory getCategory(final long value) {
+            return categorize(rule(), value);
+        }
+
+        /**
+         * @see RuntimePluralRules#hasRules(String)
+         */
+        public boolean hasRules() {
+            return rule() != null;
+        }
+
+        public String getLocale() {
+            return locale;
+        }
+
+        private CompiledPluralRule rule() {
+            final RuleTable rules = RuntimePluralRules.this.rules;
+
+            Resolution resolution = this.resolution;
+            if (resolution == null || resolution.rules() != rules) {
+                resolution = new Resolution(rules, rules.resolve(this.locale));
+                this.resolution = resolution;
+            }
+
+            return resolution.rule();
+        }
+
+        @Override
+        public String toString() {
+            return "LocaleRules{" +
+                    "locale='" + locale + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * @param rules The table the locale was resolved in
+     * @param rule The rules of the locale or {@code null} if it has none
+     */
+    private record Resolution(RuleTable rules, CompiledPluralRule rule) {
+
+    }
+
+    /**
+     * The rule sets by their lowercase locale in an open addressing table. A language tag is looked up
+     * with its hyphens as underscores and in lowercase, which is done while it is hashed and compared,
+     * so neither the tag nor the tags of its parents are ever created.
+     */
+    private static final class RuleTable {
+        private final String[] locales;
+        private final CompiledPluralRule[] rules;
+        private final int mask;
+        private final int shift;
+
+        RuleTable(final Map<String, CompiledPluralRule> rules) {
+            // at most half full, so a search for an unknown locale ends quickly
+            final int capacity = Integer.highestOneBit(Math.max(1, rules.size()) * 4 - 1);
+
+            this.locales = new String[capacity];
+            this.rules = new CompiledPluralRule[capacity];
+            this.mask = capacity - 1;
+            this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+
+            for (final Map.Entry<String, CompiledPluralRule> entry : rules.entrySet()) {
+                int slot = slotOf(entry.getKey().hashCode());
+                while (this.locales[slot] != null) {
+                    slot = (slot + 1) & this.mask;
+                }
+
+                this.locales[slot] = entry.getKey();
+                this.rules[slot] = entry.getValue();
+            }
+        }
+
+        /**
+         * Returns the rules of the locale or the ones of its parents ({@code pt_PT} falls back to {@code pt}).
+         */
+        CompiledPluralRule resolve(final String locale) {
+            // most tags like "ru" are already normalized, and the string has its hash cached
+            for (int slot = slotOf(locale.hashCode()); this.locales[slot] != null; slot = (slot + 1) & this.mask) {
+                if (this.locales[slot].equals(locale)) {
+                    return this.rules[slot];
+                }
+            }
+
+            int length = locale.length();
+
+            while (true) {
+                final CompiledPluralRule rule = get(locale, length);
+                if (rule != null) {
+                    return rule;
+                }
+
+                length = lastSeparator(locale, length);
+                if (length < 0) {
+                    return null;
+                }
+            }
+        }
+
+        private CompiledPluralRule get(final String locale, final int length) {
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + normalize(locale.charAt(i));
+            }
+
+            for (int slot = slotOf(hash); this.locales[slot] != null; slot = (slot + 1) & this.mask) {
+                if (matches(this.locales[slot], locale, length)) {
+                    return this.rules[slot];
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * The hashes of the short locales are close to each other, so they are spread over the table first.
+         */
+        private int slotOf(final int hash) {
+            return (hash * 0x9E3779B9) >>> this.shift & this.mask;
+        }
+
+        private static boolean matches(final String key, final String locale, final int length) {
+            if (key.length() != length) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (key.charAt(i) != normalize(locale.charAt(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static int lastSeparator(final String locale, final int end) {
+            for (int i = end - 1; i >= 0; i--) {
+                final char character = locale.charAt(i);
+
+                if (character == '_' || character == '-') {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * The same as {@code replace('-', '_').toLowerCase(Locale.ROOT)} for the ASCII characters of language tags.
+         */
+        private static char normalize(final char character) {
+            if (character < 0x80) {
+                return character == '-' ? '_' : character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+            }
+
+            return Character.toLowerCase(character);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package net.quickwrite.localizer;
+
+import net.quickwrite.localizer.processor.PluralRuleGen;
+
+/**
+ * Generates the checkers with the {@link PluralRuleGen.Dispatch#LAMBDA LAMBDA} dispatch and the
+ * {@link PluralRuleGen.IntegerEngine#CONDITIONS CONDITIONS} for the integers,
+ * so that the tests also check the engine that is not shipped.
+ */
+@PluralRuleGen(
+        packageName = "net.quickwrite.localizer.engines.lambdaconditions",
+        operand = PluralOperand.class,
+        category = PluralCategory.class,
+        dispatch = PluralRuleGen.Dispatch.LAMBDA,
+        integerEngine = PluralRuleGen.IntegerEngine.CONDITIONS
+)
+final class LambdaConditionsEngine {
+    private LambdaConditionsEngine() {
+
+    }
+}
@@ -0,0 +1,42 @@
+package net.quickwrite.localizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks how the generated checkers resolve locales with the parents of CLDR.
+ */
+class LocaleResolutionTest {
+    @Test
+    void explicitParents() {
+        assertEquals(PluralRuleChecker.pt_pt, PluralRuleChecker.forLanguageTag("pt-AO"));
+        assertEquals(PluralRuleChecker.pt_pt, PluralRuleChecker.forLanguageTag("pt-MZ"));
+        assertEquals(PluralRuleChecker.pt_pt, PluralRuleChecker.forLocale(new Locale("pt", "CH")));
+        assertEquals(PluralRuleChecker.pt, PluralRuleChecker.forLanguageTag("pt-BR"));
+
+        assertEquals(PluralCategory.OTHER, PluralRuleChecker.forLanguageTag("pt-AO").getCategory(0));
+        assertEquals(PluralCategory.OTHER, PluralRuleChecker.forLanguageTag("pt-AO").getCategory(PluralOperand.from("1.5")));
+        assertEquals(PluralCategory.ONE, PluralRuleChecker.forLanguageTag("pt-BR").getCategory(0));
+    }
+
+    @Test
+    void scriptsAndRegions() {
+        assertEquals(PluralRuleChecker.zh, PluralRuleChecker.forLanguageTag("zh-Hant-TW"));
+        assertEquals(PluralRuleChecker.zh, PluralRuleChecker.forLanguageTag("zh-Hant-MO"));
+        assertEquals(PluralRuleChecker.sr, PluralRuleChecker.forLanguageTag("sr-Latn"));
+        assertEquals(PluralRuleChecker.sr, PluralRuleChecker.forLanguageTag("sr-Latn-RS"));
+
+        assertEquals(PluralCategory.FEW, PluralRuleChecker.forLanguageTag("sr-Latn").getCategory(2));
+        assertEquals(OrdinalRuleChecker.sr, OrdinalRuleChecker.forLanguageTag("sr-Latn"));
+    }
+
+    @Test
+    void unknownLocales() {
+        assertEquals(PluralRuleChecker.root, PluralRuleChecker.forLanguageTag("und"));
+        assertEquals(PluralRuleChecker.root, PluralRuleChecker.forLanguageTag("xx-YY"));
+        assertEquals(PluralRuleChecker.fr, PluralRuleChecker.forLanguageTag("ht"));
+    }
+}
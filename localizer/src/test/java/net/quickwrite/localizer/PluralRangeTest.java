@@ -0,0 +1,33 @@
+package net.quickwrite.localizer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the plural ranges of a few locales against the data of CLDR.
+ */
+class PluralRangeTest {
+    @Test
+    void rangesOfLocalesWithData() {
+        assertEquals(PluralCategory.OTHER, PluralRuleChecker.es.getRangeCategory(PluralCategory.OTHER, PluralCategory.ONE));
+        assertEquals(PluralCategory.ONE, PluralRuleChecker.de.getRangeCategory(PluralCategory.OTHER, PluralCategory.ONE));
+        assertEquals(PluralCategory.OTHER, PluralRuleChecker.fa.getRangeCategory(PluralCategory.ONE, PluralCategory.ONE));
+        assertEquals(PluralCategory.FEW, PluralRuleChecker.lt.getRangeCategory(PluralCategory.ONE, PluralCategory.ONE));
+        assertEquals(PluralCategory.ZERO, PluralRuleChecker.ar.getRangeCategory(PluralCategory.ZERO, PluralCategory.ONE));
+    }
+
+    @Test
+    void rangesOfNumbers() {
+        assertEquals(PluralCategory.OTHER, PluralRuleChecker.en.getRangeCategory(1, 2));
+        assertEquals(PluralCategory.MANY, PluralRuleChecker.ru.getRangeCategory(1, 5));
+        assertEquals(PluralCategory.OTHER, PluralRuleChecker.en.getRangeCategory(PluralOperand.from("0.5"), PluralOperand.from("1")));
+    }
+
+    @Test
+    void rangesOfLegacyCodesAndSublocales() {
+        assertEquals(PluralCategory.OTHER, PluralRuleChecker.iw.getRangeCategory(PluralCategory.ONE, PluralCategory.TWO));
+        assertEquals(PluralCategory.FEW, PluralRuleChecker.mo.getRangeCategory(PluralCategory.OTHER, PluralCategory.FEW));
+        assertEquals(PluralCategory.ONE, PluralRuleChecker.pt_pt.getRangeCategory(PluralCategory.OTHER, PluralCategory.ONE));
+    }
+}
@@ -0,0 +1,94 @@
+package net.quickwrite.localizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the rules that are compiled into hidden classes at runtime.
+ */
+class PluralRuleCompilerTest {
+    @Test
+    void inAndWithin() {
+        final CompiledPluralRule rule = compile(Map.of(
+                PluralCategory.ONE, "n within 1..2",
+                PluralCategory.FEW, "n in 3..5"
+        ));
+
+        assertEquals(PluralCategory.ONE, categorize(rule, "1"));
+        assertEquals(PluralCategory.ONE, categorize(rule, "1.5"));
+        assertEquals(PluralCategory.ONE, categorize(rule, "2.0"));
+        assertEquals(PluralCategory.FEW, categorize(rule, "4"));
+        assertEquals(PluralCategory.FEW, categorize(rule, "4.0"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "3.5"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "0.5"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "6"));
+    }
+
+    @Test
+    void notInAndNotWithin() {
+        final CompiledPluralRule rule = compile(Map.of(
+                PluralCategory.ONE, "n % 10 = 1 and n % 100 not in 11..19",
+                PluralCategory.MANY, "n not within 0..100"
+        ));
+
+        assertEquals(PluralCategory.ONE, categorize(rule, "1"));
+        assertEquals(PluralCategory.ONE, categorize(rule, "21"));
+        assertEquals(PluralCategory.ONE, categorize(rule, "21.0"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "11"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "1.5"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "99.5"));
+        assertEquals(PluralCategory.MANY, categorize(rule, "100.5"));
+        // the first rule that matches wins
+        assertEquals(PluralCategory.ONE, categorize(rule, "101"));
+        assertEquals(PluralCategory.MANY, categorize(rule, "111"));
+    }
+
+    @Test
+    void fractionAndExponentOperands() {
+        final CompiledPluralRule rule = compile(Map.of(
+                PluralCategory.ONE, "i = 1 and v = 0",
+                PluralCategory.TWO, "f = 5 or t = 25",
+                PluralCategory.MANY, "e = 0 and i != 0 and i % 1000000 = 0 and v = 0 or e != 0..5"
+        ));
+
+        assertEquals(PluralCategory.ONE, categorize(rule, "1"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "1.0"));
+        assertEquals(PluralCategory.TWO, categorize(rule, "0.5"));
+        assertEquals(PluralCategory.TWO, categorize(rule, "0.250"));
+        assertEquals(PluralCategory.MANY, categorize(rule, "1000000"));
+        assertEquals(PluralCategory.MANY, categorize(rule, "1c6"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "1c5"));
+    }
+
+    @Test
+    void withoutRules() {
+        final CompiledPluralRule rule = PluralRuleCompiler.compile(Map.of());
+
+        assertEquals(PluralCategory.OTHER, categorize(rule, "0"));
+        assertEquals(PluralCategory.OTHER, categorize(rule, "1.5"));
+    }
+
+    private static CompiledPluralRule compile(final Map<PluralCategory, String> rules) {
+        // in the order of the categories, like in a rule set of CLDR
+        final Map<PluralCategory, List<List<PluralRuleParser.Relation>>> conditions = new LinkedHashMap<>();
+        for (final PluralCategory category : PluralCategory.values()) {
+            if (rules.containsKey(category)) {
+                conditions.put(category, PluralRuleParser.parse(rules.get(category)));
+            }
+        }
+
+        return PluralRuleCompiler.compile(conditions);
+    }
+
+    private static PluralCategory categorize(final CompiledPluralRule rule, final String value) {
+        final PluralOperand operand = PluralOperand.from(value);
+
+        return PluralCategory.values()[rule.categorize(operand.n(), operand.i(), operand.v(), operand.w(),
+                operand.f(), operand.t(), operand.e())];
+    }
+}
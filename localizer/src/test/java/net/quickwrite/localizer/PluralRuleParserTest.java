@@ -0,0 +1,86 @@
+package net.quickwrite.localizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the parser of the plural rules that are loaded at runtime.
+ */
+class PluralRuleParserTest {
+    @Test
+    void relations() {
+        final List<List<PluralRuleParser.Relation>> condition =
+                PluralRuleParser.parse("n % 10 = 2..4, 9 and n % 100 != 12..14 or i is not 0 @integer 2~4, 9");
+
+        assertEquals(2, condition.size());
+        assertEquals(2, condition.get(0).size());
+        assertEquals(1, condition.get(1).size());
+
+        final PluralRuleParser.Relation first = condition.get(0).get(0);
+        assertEquals('n', first.operand());
+        assertEquals(10, first.modulus());
+        assertFalse(first.negated());
+        assertArrayEquals(new long[]{2, 4, 9, 9}, first.ranges());
+
+        final PluralRuleParser.Relation second = condition.get(0).get(1);
+        assertEquals(100, second.modulus());
+        assertTrue(second.negated());
+        assertArrayEquals(new long[]{12, 14}, second.ranges());
+
+        final PluralRuleParser.Relation third = condition.get(1).get(0);
+        assertEquals('i', third.operand());
+        assertEquals(0, third.modulus());
+        assertTrue(third.negated());
+        assertArrayEquals(new long[]{0, 0}, third.ranges());
+    }
+
+    @Test
+    void withinAndNotIn() {
+        final PluralRuleParser.Relation within = PluralRuleParser.parse("n within 0..2").get(0).get(0);
+        assertTrue(within.within());
+        assertFalse(within.negated());
+
+        final PluralRuleParser.Relation notWithin = PluralRuleParser.parse("n mod 10 not within 3..4").get(0).get(0);
+        assertTrue(notWithin.within());
+        assertTrue(notWithin.negated());
+        assertEquals(10, notWithin.modulus());
+
+        final PluralRuleParser.Relation notIn = PluralRuleParser.parse("n not in 12..14, 20").get(0).get(0);
+        assertFalse(notIn.within());
+        assertTrue(notIn.negated());
+        assertArrayEquals(new long[]{12, 14, 20, 20}, notIn.ranges());
+    }
+
+    @Test
+    void otherRule() {
+        assertTrue(PluralRuleParser.parse("").isEmpty());
+        assertTrue(PluralRuleParser.parse(" @integer 0, 2~16, 100 @decimal 0.0~1.5").isEmpty());
+    }
+
+    @Test
+    void errors() {
+        assertError("Expected an operand at position 0", "x = 1");
+        assertError("Expected an operand at position 9", "n = 1 and");
+        assertError("The modulus can't be zero", "n % 0 = 1");
+        assertError("Expected 'is', 'in', 'within', '=' or '!='", "n < 1");
+        assertError("Expected 'is', 'in', 'within', '=' or '!='", "n inside 1..2");
+        assertError("Expected a value", "n = ..2");
+        assertError("Expected a value", "n in 1..");
+        assertError("Expected 'or' or the samples", "n = 1 i = 2");
+    }
+
+    private static void assertError(final String message, final String rule) {
+        final IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> PluralRuleParser.parse(rule), rule);
+
+        assertTrue(exception.getMessage().startsWith(message), exception.getMessage());
+        assertTrue(exception.getMessage().endsWith("in the plural rule '" + rule + "'"), exception.getMessage());
+    }
+}
@@ -0,0 +1,246 @@
+package net.quickwrite.localizer;
+
+import net.quickwrite.localizer.processor.PluralSampleGen;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the generated checkers of every dispatch and integer engine and the rules that are
+ * loaded at runtime against the samples that CLDR lists for every category of every locale.
+ *
+ * <p>
+ * The checkers of the other engines are generated into the test sources by
+ * {@link LambdaConditionsEngine}, {@link SwitchConditionsEngine} and {@link SwitchTableEngine},
+ * the last two being the only ones with the {@code SWITCH} dispatch. The classes of the engines have
+ * nothing in common but their methods, so they are called through reflection.
+ * </p>
+ */
+@PluralSampleGen(packageName = "net.quickwrite.localizer", category = PluralCategory.class)
+class PluralRuleSamplesTest {
+    private static final List<Engine> PLURAL_ENGINES = List.of(
+            Engine.of(PluralRuleChecker.class),
+            Engine.of(net.quickwrite.localizer.engines.lambdaconditions.PluralRuleChecker.class),
+            Engine.of(net.quickwrite.localizer.engines.switchconditions.PluralRuleChecker.class),
+            Engine.of(net.quickwrite.localizer.engines.switchtables.PluralRuleChecker.class)
+    );
+
+    private static final List<Engine> ORDINAL_ENGINES = List.of(
+            Engine.of(OrdinalRuleChecker.class),
+            Engine.of(net.quickwrite.localizer.engines.lambdaconditions.OrdinalRuleChecker.class),
+            Engine.of(net.quickwrite.localizer.engines.switchconditions.OrdinalRuleChecker.class),
+            Engine.of(net.quickwrite.localizer.engines.switchtables.OrdinalRuleChecker.class)
+    );
+
+    private static RuntimePluralRules cardinalRules;
+    private static RuntimePluralRules ordinalRules;
+
+    @BeforeAll
+    static void loadRuntimeRules() throws IOException {
+        // the plurals.xml of the annotation processor, which generated the checkers
+        final byte[] plurals;
+        try (final InputStream input = PluralRuleSamplesTest.class.getResourceAsStream("/plurals.xml")) {
+            plurals = input.readAllBytes();
+        }
+
+        cardinalRules = new RuntimePluralRules("cardinal");
+        cardinalRules.load(new ByteArrayInputStream(plurals));
+
+        ordinalRules = new RuntimePluralRules("ordinal");
+        ordinalRules.load(new ByteArrayInputStream(plurals));
+    }
+
+    @Test
+    void cardinalIntegerSamples() {
+        for (final Engine engine : PLURAL_ENGINES) {
+            for (final Enum<?> checker : engine.checkers()) {
+                for (final PluralCategory category : PluralCategory.values()) {
+                    final long[] values = PluralRuleSamples.getIntegerSamples(checker.name(), category);
+
+                    for (final long value : values) {
+                        final String message = engine + " " + checker + ": " + value;
+
+                        assertEquals(category, engine.getCategory(checker, value), message);
+                        assertEquals(category, engine.getCategory(checker, value, 0), message);
+                        assertEquals(category, engine.getCategory(checker, PluralOperand.from(value)), message);
+                        assertEquals(category, cardinalRules.getCategory(checker.name(), value), message);
+                    }
+
+                    assertCategorized(category, engine.categorize(checker, values), engine + " " + checker);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cardinalDecimalSamples() {
+        for (final Engine engine : PLURAL_ENGINES) {
+            for (final Enum<?> checker : engine.checkers()) {
+                for (final PluralCategory category : PluralCategory.values()) {
+                    final String[] values = PluralRuleSamples.getDecimalSamples(checker.name(), category);
+
+                    for (final String value : values) {
+                        final String message = engine + " " + checker + ": " + value;
+                        final BigDecimal decimal = new BigDecimal(value);
+
+                        assertEquals(category, engine.getCategory(checker, PluralOperand.from(value)), message);
+                        assertEquals(category, engine.getCategory(checker, PluralOperand.from(decimal)), message);
+                        assertEquals(category, engine.getCategory(checker,
+                                decimal.unscaledValue().longValueExact(), decimal.scale()), message);
+                        assertEquals(category, cardinalRules.getCategory(checker.name(), PluralOperand.from(value)), message);
+                    }
+
+                    // a double only keeps the visible fraction digits of its shortest representation
+                    final double[] doubles = Arrays.stream(values)
+                            .filter(value -> Double.toString(Double.parseDouble(value)).equals(value))
+                            .mapToDouble(Double::parseDouble)
+                            .toArray();
+
+                    for (final double value : doubles) {
+                        assertEquals(category, engine.getCategory(checker, value), engine + " " + checker + ": " + value);
+                    }
+
+                    assertCategorized(category, engine.categorize(checker, doubles), engine + " " + checker);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cardinalCompactSamples() {
+        for (final Engine engine : PLURAL_ENGINES) {
+            for (final Enum<?> checker : engine.checkers()) {
+                for (final PluralCategory category : PluralCategory.values()) {
+                    for (final String value : PluralRuleSamples.getCompactSamples(checker.name(), category)) {
+                        final String message = engine + " " + checker + ": " + value;
+
+                        assertEquals(category, engine.getCategory(checker, PluralOperand.from(value)), message);
+                        assertEquals(category, cardinalRules.getCategory(checker.name(), PluralOperand.from(value)), message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void ordinalSamples() {
+        for (final Engine engine : ORDINAL_ENGINES) {
+            for (final Enum<?> checker : engine.checkers()) {
+                for (final PluralCategory category : PluralCategory.values()) {
+                    final long[] values = OrdinalRuleSamples.getIntegerSamples(checker.name(), category);
+
+                    for (final long value : values) {
+                        final String message = engine + " " + checker + ": " + value;
+
+                        assertEquals(category, engine.getCategory(checker, value), message);
+                        assertEquals(category, engine.getCategory(checker, PluralOperand.from(value)), message);
+                        assertEquals(category, ordinalRules.getCategory(checker.name(), value), message);
+                    }
+
+                    assertCategorized(category, engine.categorize(checker, values), engine + " " + checker);
+
+                    for (final String value : OrdinalRuleSamples.getCompactSamples(checker.name(), category)) {
+                        final String message = engine + " " + checker + ": " + value;
+
+                        assertEquals(category, engine.getCategory(checker, PluralOperand.from(value)), message);
+                        assertEquals(category, ordinalRules.getCategory(checker.name(), PluralOperand.from(value)), message);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertCategorized(final PluralCategory category, final byte[] ordinals, final String message) {
+        for (int i = 0; i < ordinals.length; i++) {
+            final int index = i;
+            assertEquals(category, PluralCategory.values()[ordinals[i]], () -> message + ": categorize at " + index);
+        }
+    }
+
+    /**
+     * The methods of a generated checker class.
+     */
+    private record Engine(Class<?> type,
+                          Method integer,
+                          Method scaled,
+                          Method operand,
+                          Method decimal,
+                          Method integers,
+                          Method decimals) {
+
+        static Engine of(final Class<? extends Enum<?>> type) {
+            try {
+                return new Engine(
+                        type,
+                        type.getMethod("getCategory", long.class),
+                        type.getMethod("getCategory", long.class, int.class),
+                        type.getMethod("getCategory", PluralOperand.class),
+                        type.getMethod("getCategory", double.class),
+                        type.getMethod("categorize", long[].class, byte[].class),
+                        type.getMethod("categorize", double[].class, byte[].class)
+                );
+            } catch (final NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Enum<?>[] checkers() {
+            return (Enum<?>[]) this.type.getEnumConstants();
+        }
+
+        PluralCategory getCategory(final Enum<?> checker, final long value) {
+            return (PluralCategory) invoke(this.integer, checker, value);
+        }
+
+        PluralCategory getCategory(final Enum<?> checker, final long unscaled, final int scale) {
+            return (PluralCategory) invoke(this.scaled, checker, unscaled, scale);
+        }
+
+        PluralCategory getCategory(final Enum<?> checker, final PluralOperand operand) {
+            return (PluralCategory) invoke(this.operand, checker, operand);
+        }
+
+        PluralCategory getCategory(final Enum<?> checker, final double value) {
+            return (PluralCategory) invoke(this.decimal, checker, value);
+        }
+
+        byte[] categorize(final Enum<?> checker, final long[] values) {
+            final byte[] ordinals = new byte[values.length];
+            invoke(this.integers, checker, values, ordinals);
+
+            return ordinals;
+        }
+
+        byte[] categorize(final Enum<?> checker, final double[] values) {
+            final byte[] ordinals = new byte[values.length];
+            invoke(this.decimals, checker, values, ordinals);
+
+            return ordinals;
+        }
+
+        private static Object invoke(final Method method, final Enum<?> checker, final Object... arguments) {
+            try {
+                return method.invoke(checker, arguments);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (final InvocationTargetException e) {
+                throw new AssertionError(checker + ": " + Arrays.toString(arguments), e.getCause());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.type.getName();
+        }
+    }
+}
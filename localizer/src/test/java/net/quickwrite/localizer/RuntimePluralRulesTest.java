@@ -0,0 +1,208 @@
+package net.quickwrite.localizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the rules that are loaded at runtime against the generated checkers and the samples of CLDR.
+ */
+class RuntimePluralRulesTest {
+    @Test
+    void bundledCardinalRules() throws IOException {
+        final RuntimePluralRules rules = load("cardinal");
+
+        for (final PluralRuleChecker checker : PluralRuleChecker.values()) {
+            final String locale = checker.name();
+            assertTrue(rules.hasRules(locale), locale);
+
+            for (long value = 0; value <= 1000; value++) {
+                assertEquals(checker.getCategory(value), rules.getCategory(locale, value), locale + ": " + value);
+            }
+
+            for (final PluralCategory category : PluralCategory.values()) {
+                for (final long value : PluralRuleSamples.getIntegerSamples(locale, category)) {
+                    assertEquals(category, rules.getCategory(locale, value), locale + ": " + value);
+                }
+
+                for (final String value : PluralRuleSamples.getDecimalSamples(locale, category)) {
+                    assertEquals(category, rules.getCategory(locale, PluralOperand.from(value)), locale + ": " + value);
+                }
+
+                for (final String value : PluralRuleSamples.getCompactSamples(locale, category)) {
+                    assertEquals(category, rules.getCategory(locale, PluralOperand.from(value)), locale + ": " + value);
+                }
+            }
+        }
+    }
+
+    @Test
+    void bundledOrdinalRules() throws IOException {
+        final RuntimePluralRules rules = load("ordinal");
+
+        for (final OrdinalRuleChecker checker : OrdinalRuleChecker.values()) {
+            final String locale = checker.name();
+            final RuntimePluralRules.LocaleRules localeRules = rules.forLocale(locale);
+
+            for (long value = 0; value <= 1000; value++) {
+                assertEquals(checker.getCategory(value), localeRules.getCategory(value), locale + ": " + value);
+            }
+
+            for (final PluralCategory category : PluralCategory.values()) {
+                for (final long value : OrdinalRuleSamples.getIntegerSamples(locale, category)) {
+                    assertEquals(category, localeRules.getCategory(value), locale + ": " + value);
+                }
+            }
+        }
+    }
+
+    @Test
+    void localeResolution() throws IOException {
+        final RuntimePluralRules rules = load("cardinal");
+
+        assertEquals(PluralCategory.ONE, rules.getCategory("pt-BR", 0));
+        assertEquals(PluralCategory.OTHER, rules.getCategory("pt-PT", 0));
+        assertEquals(PluralCategory.OTHER, rules.getCategory("PT_pt", 0));
+        assertEquals(PluralCategory.FEW, rules.getCategory("sr-Latn-RS", 2));
+        assertFalse(rules.hasRules("xx-YY"));
+        assertEquals(PluralCategory.OTHER, rules.getCategory("xx-YY", 1));
+    }
+
+    @Test
+    void withinAndNotIn() throws IOException {
+        final RuntimePluralRules rules = new RuntimePluralRules("cardinal");
+        rules.load(plurals("xx",
+                "one", "n within 1..2",
+                "few", "n % 10 = 3 and n % 1000 not in 13, 113"));
+
+        assertEquals(PluralCategory.ONE, rules.getCategory("xx", PluralOperand.from("1.5")));
+        assertEquals(PluralCategory.ONE, rules.getCategory("xx", 2));
+        assertEquals(PluralCategory.OTHER, rules.getCategory("xx", PluralOperand.from("2.5")));
+        assertEquals(PluralCategory.FEW, rules.getCategory("xx", 23));
+        assertEquals(PluralCategory.OTHER, rules.getCategory("xx", 13));
+        assertEquals(PluralCategory.OTHER, rules.getCategory("xx", 113));
+        assertEquals(PluralCategory.FEW, rules.getCategory("xx", 213));
+    }
+
+    @Test
+    void invalidFiles() throws IOException {
+        final RuntimePluralRules rules = new RuntimePluralRules("cardinal");
+        rules.load(plurals("xx", "one", "n = 1"));
+
+        assertThrows(IllegalArgumentException.class, () -> rules.load(plurals("xx", "one", "n = 1 or")));
+        assertThrows(IOException.class, () -> rules.load(
+                new ByteArrayInputStream("<plurals".getBytes(StandardCharsets.UTF_8))));
+
+        // the rules are only replaced once the whole file was compiled
+        assertEquals(PluralCategory.ONE, rules.getCategory("xx", 1));
+    }
+
+    @Test
+    void atomicSwap() throws Exception {
+        final byte[] one = plurals("xx yy", "one", "i = 0..1000").readAllBytes();
+        final byte[] few = plurals("xx yy", "few", "i = 0..1000").readAllBytes();
+
+        final RuntimePluralRules rules = new RuntimePluralRules("cardinal");
+        rules.load(new ByteArrayInputStream(one));
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch started = new CountDownLatch(4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Long>> readers = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                final String locale = thread % 2 == 0 ? "xx" : "yy-ZZ";
+
+                readers.add(executor.submit(() -> {
+                    final RuntimePluralRules.LocaleRules localeRules = rules.forLocale(locale);
+                    long reads = 0;
+
+                    while (running.get()) {
+                        for (long value = 0; value < 100; value++) {
+                            // always the one or the other file, but never no rules at all
+                            final PluralCategory category = rules.getCategory(locale, value);
+                            final PluralCategory held = localeRules.getCategory(value);
+
+                            if (category != PluralCategory.ONE && category != PluralCategory.FEW
+                                    || held != PluralCategory.ONE && held != PluralCategory.FEW) {
+                                throw new AssertionError(locale + ": " + value + " is " + category + " and " + held);
+                            }
+                        }
+
+                        if (reads++ == 0) {
+                            started.countDown();
+                        }
+                    }
+
+                    return reads;
+                }));
+            }
+
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 200; i++) {
+                rules.load(new ByteArrayInputStream(i % 2 == 0 ? few : one));
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        for (final Future<Long> reader : readers) {
+            assertTrue(reader.get() > 0);
+        }
+
+        // rules that are held pick up every file that is loaded after them
+        final RuntimePluralRules.LocaleRules localeRules = rules.forLocale("yy");
+        rules.load(new ByteArrayInputStream(few));
+        assertEquals(PluralCategory.FEW, localeRules.getCategory(1));
+        assertEquals(PluralCategory.FEW, rules.getCategory("xx", 1));
+    }
+
+    private static RuntimePluralRules load(final String type) throws IOException {
+        final RuntimePluralRules rules = new RuntimePluralRules(type);
+
+        // the plurals.xml of the annotation processor, which generated the checkers
+        try (final InputStream input = RuntimePluralRulesTest.class.getResourceAsStream("/plurals.xml")) {
+            assertTrue(input != null, "plurals.xml is not on the class path");
+            rules.load(input);
+        }
+
+        return rules;
+    }
+
+    /**
+     * Creates a file with a single cardinal rule set of the categories and their rules.
+     */
+    private static InputStream plurals(final String locales, final String... rules) {
+        final StringBuilder builder = new StringBuilder()
+                .append("<supplementalData><plurals type=\"cardinal\">")
+                .append("<pluralRules locales=\"").append(locales).append("\">");
+
+        for (int i = 0; i < rules.length; i += 2) {
+            builder.append("<pluralRule count=\"").append(rules[i]).append("\">")
+                    .append(rules[i + 1]).append("</pluralRule>");
+        }
+
+        builder.append("<pluralRule count=\"other\"/></pluralRules></plurals></supplementalData>");
+
+        return new ByteArrayInputStream(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,21 @@
+package net.quickwrite.localizer;
+
+import net.quickwrite.localizer.processor.PluralRuleGen;
+
+/**
+ * Generates the checkers with the {@link PluralRuleGen.Dispatch#SWITCH SWITCH} dispatch and the
+ * {@link PluralRuleGen.IntegerEngine#CONDITIONS CONDITIONS} for the integers,
+ * so that the tests also compile and check the dispatch that is not shipped.
+ */
+@PluralRuleGen(
+        packageName = "net.quickwrite.localizer.engines.switchconditions",
+        operand = PluralOperand.class,
+        category = PluralCategory.class,
+        dispatch = PluralRuleGen.Dispatch.SWITCH,
+        integerEngine = PluralRuleGen.IntegerEngine.CONDITIONS
+)
+final class SwitchConditionsEngine {
+    private SwitchConditionsEngine() {
+
+    }
+}